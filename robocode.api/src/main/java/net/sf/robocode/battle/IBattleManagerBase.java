@@ -25,4 +25,8 @@ public interface IBattleManagerBase {
 	void stop(boolean waitTillEnd);
 
 	void startNewBattle(BattleSpecification spec, String initialPositions, boolean waitTillOver, boolean enableCLIRecording);
+
+	void runIsolatedBattle(BattleSpecification spec, String initialPositions, IBattleListener listener);
+
+	void runIsolatedBattles(BattleSpecification[] specs, String initialPositions, IBattleListener listener);
 }
@@ -18,6 +18,7 @@ public final class RobocodeProperties {
 	// These properties can only be set at startup
 	private static final boolean NO_SECURITY = System.getProperty("NOSECURITY", "false").equals("true");
 	private static final boolean DEBUG = System.getProperty("debug", "false").equals("true");
+	private static final boolean POOLED_THREADS = System.getProperty("POOLEDTHREADS", "false").equals("true");
 
 	private RobocodeProperties() {}
 
@@ -53,6 +54,17 @@ public final class RobocodeProperties {
 		return DEBUG;
 	}
 
+	/**
+	 * Checks if robot threads are pooled, i.e. that the <code>POOLEDTHREADS</code> property has been set to
+	 * <code>true</code>. When enabled, the thread of a robot is reused for all rounds of a battle instead of being
+	 * created every round, and the battle thread spins briefly before blocking when waiting for a robot to finish
+	 * its turn.
+	 * @return true if robot threads are pooled; false if a new thread is started for every round.
+	 */
+	public static boolean isPooledThreadsOn() {
+		return POOLED_THREADS;
+	}
+
 	/**
 	 * Sets the testing flag.
 	 * @param enabled true if testing is being enabled; false if testing is being disabled.
@@ -255,6 +255,48 @@ public class RobocodeEngine implements IRobocodeEngine {
 				waitTillOver, false);
 	}
 
+	/**
+	 * Runs the specified battle isolated from any other battle, and blocks the caller until the battle is over.
+	 * <p/>
+	 * This method may be called from several threads at the same time in order to run multiple battles
+	 * concurrently within this engine, e.g. one battle per available processor. Each isolated battle has
+	 * its own random number generator and event dispatching, so the specified listener only receives the
+	 * events of the battle it was given with. Listeners added with {@link #addBattleListener(IBattleListener)}
+	 * do not receive events from isolated battles, and isolated battles are never recorded.
+	 * <p/>
+	 * If the RANDOMSEED system property is set, every isolated battle will use its own deterministic random
+	 * number generator initialized with that seed.
+	 *
+	 * @param battleSpecification the specification of the battle to run including the participating robots.
+	 * @param listener the listener that must receive the events of this battle, or {@code null}.
+	 * @see #runBattle(BattleSpecification, boolean)
+	 * @since 1.9.3.0
+	 */
+	public void runIsolatedBattle(BattleSpecification battleSpecification, IBattleListener listener) {
+		ContainerBase.getComponent(IBattleManagerBase.class).runIsolatedBattle(battleSpecification, null, listener);
+	}
+
+	/**
+	 * Runs the specified battles one after another, each isolated from any other battle as with
+	 * {@link #runIsolatedBattle(BattleSpecification, IBattleListener)}, and blocks the caller until the last battle
+	 * is over.
+	 * <p/>
+	 * While a battle is running, the next battle is prepared in the background, i.e. its robots are looked up in
+	 * the robot repository, and the robots are created and their classes loaded. Hence this method is faster than
+	 * calling {@link #runIsolatedBattle(BattleSpecification, IBattleListener)} for each battle, when running many
+	 * short battles in a row.
+	 * <p/>
+	 * If the calling thread is interrupted, no more battles are started after the current battle.
+	 *
+	 * @param battleSpecifications the specifications of the battles to run in the given order.
+	 * @param listener the listener that must receive the events of all the battles, or {@code null}.
+	 * @see #runIsolatedBattle(BattleSpecification, IBattleListener)
+	 * @since 1.9.3.0
+	 */
+	public void runIsolatedBattles(BattleSpecification[] battleSpecifications, IBattleListener listener) {
+		ContainerBase.getComponent(IBattleManagerBase.class).runIsolatedBattles(battleSpecifications, null, listener);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
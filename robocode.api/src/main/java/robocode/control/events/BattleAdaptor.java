@@ -15,6 +15,10 @@ package robocode.control.events;
  * This is handy class to use when implementing the IBattleListener.
  * It saves you from implementing empty handlers for battle events you are not interested in handling.
  * <p/>
+ * Note that the game does not create turn snapshots when no listener overrides {@link #onTurnEnded(TurnEndedEvent)},
+ * which makes battles without a user interface run considerably faster. Hence, only override
+ * {@link #onTurnStarted(TurnStartedEvent)} and {@link #onTurnEnded(TurnEndedEvent)} if you need the turn events.
+ * <p/>
  * <b>Example:</b>
  * <pre>
  *   private class BattleObserver extends BattleAdaptor {
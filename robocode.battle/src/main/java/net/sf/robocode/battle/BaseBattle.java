@@ -33,6 +33,11 @@ public abstract class BaseBattle implements IBattle, Runnable {
 	// Maximum turns to display the battle when battle ended
 	protected final static int TURNS_DISPLAYED_AFTER_ENDING = 30;
 
+	// Number of battles running in this JVM. Jar connections must not be garbage collected while a battle is running,
+	// and battles may be running concurrently.
+	private static int runningBattlesCount;
+	private static final Object runningBattlesLock = new Object();
+
 	// Objects we use
 	private Thread battleThread;
 	IBattleManager battleManager;
@@ -58,6 +63,7 @@ public abstract class BaseBattle implements IBattle, Runnable {
 	// Battle state
 	private final AtomicBoolean isRunning = new AtomicBoolean(false);
 	protected boolean isAborted;
+	private boolean isCountedAsRunning;
 
 	// Battle control
 	protected boolean isPaused;
@@ -145,8 +151,16 @@ public abstract class BaseBattle implements IBattle, Runnable {
 			pendingCommands.clear();
 			// don't pendingCommands = null;
 		}
-		URLJarCollector.enableGc(true);
-		URLJarCollector.gc();
+		synchronized (runningBattlesLock) {
+			if (isCountedAsRunning) {
+				isCountedAsRunning = false;
+				runningBattlesCount--;
+			}
+			if (runningBattlesCount == 0) {
+				URLJarCollector.enableGc(true);
+				URLJarCollector.gc();
+			}
+		}
 	}
 
 	public void waitTillStarted() {
@@ -214,8 +228,22 @@ public abstract class BaseBattle implements IBattle, Runnable {
 		}
 	}
 
+	/**
+	 * Counts this battle as running until it is cleaned up, which prevents jar connections from being garbage
+	 * collected while the classes of its robots are loaded.
+	 */
+	protected void countAsRunning() {
+		synchronized (runningBattlesLock) {
+			if (!isCountedAsRunning) {
+				isCountedAsRunning = true;
+				runningBattlesCount++;
+			}
+			URLJarCollector.enableGc(false);
+		}
+	}
+
 	protected void initializeBattle() {
-		URLJarCollector.enableGc(false);
+		countAsRunning();
 		roundNum = 0;
 		totalTurns = 0;
 
@@ -308,7 +336,7 @@ public abstract class BaseBattle implements IBattle, Runnable {
 		// Let the battle sleep is the GUI is enabled and is not minimized
 		// in order to keep the desired TPS
 
-		if (battleManager.isManagedTPS()) {
+		if (isManagedTPS()) {
 			long delay = 0;
 
 			if (!isAborted() && endTimer < TURNS_DISPLAYED_AFTER_ENDING) {
@@ -331,6 +359,10 @@ public abstract class BaseBattle implements IBattle, Runnable {
 		}
 	}
 
+	protected boolean isManagedTPS() {
+		return battleManager.isManagedTPS();
+	}
+
 	private void calculateTPS() {
 		// Calculate the current turns per second (TPS)
 
@@ -10,9 +10,11 @@ package net.sf.robocode.battle;
 
 import net.sf.robocode.battle.events.BattleEventDispatcher;
 import net.sf.robocode.battle.peer.BulletPeer;
+import net.sf.robocode.battle.peer.CollisionGrid;
 import net.sf.robocode.battle.peer.ContestantPeer;
 import net.sf.robocode.battle.peer.RobotPeer;
 import net.sf.robocode.battle.peer.TeamPeer;
+import net.sf.robocode.battle.peer.TurnTimeBudget;
 import net.sf.robocode.battle.snapshot.TurnSnapshot;
 import net.sf.robocode.host.ICpuManager;
 import net.sf.robocode.host.IHostManager;
@@ -78,14 +80,62 @@ public final class Battle extends BaseBattle {
 	// Death events
 	private final List<RobotPeer> deathRobots = new CopyOnWriteArrayList<RobotPeer>();
 
+	// Reusable buffers for iterating robots and bullets in random order. Separate buffers are needed for nested
+	// loops, as the outer permutation must stay intact while the inner one is reshuffled.
+	private final ShuffleBuffer<RobotPeer> outerRobotsAtRandom = new ShuffleBuffer<RobotPeer>();
+	private final ShuffleBuffer<RobotPeer> innerRobotsAtRandom = new ShuffleBuffer<RobotPeer>();
+	private final ShuffleBuffer<BulletPeer> outerBulletsAtRandom = new ShuffleBuffer<BulletPeer>();
+	private final ShuffleBuffer<BulletPeer> innerBulletsAtRandom = new ShuffleBuffer<BulletPeer>();
+	private final ShuffleBuffer<RobotPeer> deathRobotsAtRandom = new ShuffleBuffer<RobotPeer>();
+
+	// Broad phase for the bullet collision detection
+	private CollisionGrid collisionGrid;
+
 	// Initial robot setups (if any)
 	private RobotSetup[] initialRobotSetups;
 
+	// Random number generator of this battle. If null, the shared generator of the RandomFactory is used
+	private Random random;
+
+	// Set when this battle runs concurrently with other battles, and hence must not touch state shared between battles
+	private boolean isolated;
+
+	// Budget of CPU time per robot and turn. If null, the time is measured as wall-clock time
+	private TurnTimeBudget turnTimeBudget;
+
+	// Sleep counts of the robots released at the same time by wakeupParallel(), in the order of release
+	private int[] releasedSleepCounts = new int[0];
+
 	public Battle(ISettingsManager properties, IBattleManager battleManager, IHostManager hostManager, ICpuManager cpuManager, BattleEventDispatcher eventDispatcher) { // NO_UCD (unused code)
 		super(
 				properties, battleManager, eventDispatcher);
 		this.hostManager = hostManager;
 		this.cpuConstant = cpuManager.getCpuConstant();
+
+		if (properties.getCpuTimeBudgetEnabled() && TurnTimeBudget.isSupported()) {
+			turnTimeBudget = new TurnTimeBudget(properties.getCpuTimeDebtTurns(), properties.getCpuTimeFirstTurnFactor());
+		}
+	}
+
+	/**
+	 * Makes this battle run isolated from other battles running in the same JVM.
+	 * Must be called before {@link #setup(RobotSpecification[], BattleProperties, boolean)}.
+	 *
+	 * @param random the random number generator that must be used by this battle only.
+	 */
+	void setIsolated(Random random) {
+		this.isolated = true;
+		this.random = random;
+	}
+
+	/**
+	 * Returns the random number generator used for this battle.
+	 *
+	 * @return the random number generator of this battle, which is the shared RandomFactory generator
+	 *         unless the battle is isolated.
+	 */
+	public Random getRandom() {
+		return (random != null) ? random : RandomFactory.getRandom();
 	}
 
 	void setup(RobotSpecification[] battlingRobotsList, BattleProperties battleProps, boolean paused) {
@@ -94,6 +144,7 @@ public final class Battle extends BaseBattle {
 				battleProps.getNumRounds(), battleProps.getGunCoolingRate(), battleProps.getInactivityTime(),
 				battleProps.getHideEnemyNames(), battleProps.getSentryBorderSize());
 		robotsCount = battlingRobotsList.length;
+		collisionGrid = new CollisionGrid(battleRules.getBattlefieldWidth(), battleRules.getBattlefieldHeight());
 		computeInitialPositions(battleProps.getInitialPositions());
 		createPeers(battlingRobotsList);
 	}
@@ -279,16 +330,43 @@ public final class Battle extends BaseBattle {
 			robots = null;
 		}
 
+		outerRobotsAtRandom.clear();
+		innerRobotsAtRandom.clear();
+		outerBulletsAtRandom.clear();
+		innerBulletsAtRandom.clear();
+		deathRobotsAtRandom.clear();
+
 		super.cleanup();
 
 		battleManager = null;
 
-		// Request garbage collecting
-		for (int i = 4; i >= 0; i--) { // Make sure it is run
+		// Request garbage collecting only when memory is getting scarce. The robot classes and their static data
+		// will be collected by the JVM anyway, so there is no reason to stall every battle with full collections
+		final Runtime runtime = Runtime.getRuntime();
+
+		if (runtime.totalMemory() - runtime.freeMemory() > runtime.maxMemory() / 2) {
 			System.gc();
 		}
 	}
 
+	/**
+	 * Cleans up a battle that has been set up, but will never be run.
+	 */
+	void discard() {
+		if (robots != null) {
+			for (RobotPeer robotPeer : robots) {
+				robotPeer.cleanup();
+			}
+		}
+		cleanup();
+	}
+
+	@Override
+	protected boolean isManagedTPS() {
+		// Isolated battles are never shown, and hence must run at full speed
+		return !isolated && super.isManagedTPS();
+	}
+
 	@Override
 	protected void initializeBattle() {
 		super.initializeBattle();
@@ -296,7 +374,7 @@ public final class Battle extends BaseBattle {
 		parallelOn = System.getProperty("PARALLEL", "false").equals("true");
 		if (parallelOn) {
 			// how could robots share CPUs ?
-			double parallelConstant = robots.size() / Runtime.getRuntime().availableProcessors();
+			double parallelConstant = (double) robots.size() / Runtime.getRuntime().availableProcessors();
 
 			// four CPUs can't run two single threaded robot faster than two CPUs
 			if (parallelConstant < 1) {
@@ -313,6 +391,10 @@ public final class Battle extends BaseBattle {
 		if (nanoWait == 0) {
 			nanoWait = 1;
 		}
+		if (turnTimeBudget != null) {
+			// CPU time is not shared between robots, so parallel robots get the same budget as serial robots
+			turnTimeBudget.setTurnNanos(cpuConstant);
+		}
 	}
 
 	@Override
@@ -324,9 +406,12 @@ public final class Battle extends BaseBattle {
 		}
 
 		for (RobotPeer robotPeer : robots) {
+			if (robotPeer.getSkippedTurns() > 0) {
+				Logger.logMessage(robotPeer.getName() + " skipped " + robotPeer.getSkippedTurns() + " turns in total");
+			}
+			// Each robot unregisters its own threads, as the thread manager is shared with other running battles
 			robotPeer.cleanup();
 		}
-		hostManager.resetThreadManager();
 
 		super.finalizeBattle();
 	}
@@ -404,7 +489,9 @@ public final class Battle extends BaseBattle {
 	protected void initializeTurn() {
 		super.initializeTurn();
 
-		eventDispatcher.onTurnStarted(new TurnStartedEvent());
+		if (eventDispatcher.isTurnStartedConsumed()) {
+			eventDispatcher.onTurnStarted(new TurnStartedEvent());
+		}
 	}
 
 	@Override
@@ -496,7 +583,14 @@ public final class Battle extends BaseBattle {
 
 	@Override
 	protected void finalizeTurn() {
-		eventDispatcher.onTurnEnded(new TurnEndedEvent(new TurnSnapshot(this, robots, bullets, true)));
+		if (eventDispatcher.isTurnEndedConsumed()) {
+			eventDispatcher.onTurnEnded(new TurnEndedEvent(new TurnSnapshot(this, robots, bullets, true)));
+		} else {
+			// Nobody reads the turn snapshots, e.g. in headless battles, so the robot output is just dropped
+			for (RobotPeer robotPeer : robots) {
+				robotPeer.discardOutText();
+			}
+		}
 
 		super.finalizeTurn();
 	}
@@ -528,38 +622,54 @@ public final class Battle extends BaseBattle {
 	 * checks if a robot has won, is dead, etc.
 	 * This method was introduced as two equal robots like sample.RamFire got different scores even
 	 * though the code was exactly the same.
+	 * <p/>
+	 * The returned list is a reused buffer, which is only valid until the next call of this method.
+	 * Use {@link #getInnerRobotsAtRandom()} for loops nested inside a loop over this list.
 	 *
 	 * @return a list of robot peers.
 	 */
 	private List<RobotPeer> getRobotsAtRandom() {
-		List<RobotPeer> shuffledList = new ArrayList<RobotPeer>(robots);
+		return outerRobotsAtRandom.shuffle(robots, getRandom());
+	}
 
-		Collections.shuffle(shuffledList, RandomFactory.getRandom());
-		return shuffledList;
+	/**
+	 * Returns a list of all robots in random order for use inside a loop over {@link #getRobotsAtRandom()}
+	 * or {@link #getBulletsAtRandom()}. The returned list is only valid until the next call of this method.
+	 *
+	 * @return a list of robot peers.
+	 */
+	private List<RobotPeer> getInnerRobotsAtRandom() {
+		return innerRobotsAtRandom.shuffle(robots, getRandom());
 	}
 
 	/**
 	 * Returns a list of all bullets in random order. This method is used to gain fair play in Robocode.
+	 * The returned list is a reused buffer, which is only valid until the next call of this method.
 	 *
 	 * @return a list of bullet peers.
 	 */
 	private List<BulletPeer> getBulletsAtRandom() {
-		List<BulletPeer> shuffledList = new ArrayList<BulletPeer>(bullets);
+		return outerBulletsAtRandom.shuffle(bullets, getRandom());
+	}
 
-		Collections.shuffle(shuffledList, RandomFactory.getRandom());
-		return shuffledList;
+	/**
+	 * Returns a list of all bullets in random order for use inside a loop over {@link #getBulletsAtRandom()}.
+	 * The returned list is only valid until the next call of this method.
+	 *
+	 * @return a list of bullet peers.
+	 */
+	private List<BulletPeer> getInnerBulletsAtRandom() {
+		return innerBulletsAtRandom.shuffle(bullets, getRandom());
 	}
 
 	/**
 	 * Returns a list of all death robots in random order. This method is used to gain fair play in Robocode.
+	 * The returned list is a reused buffer, which is only valid until the next call of this method.
 	 *
 	 * @return a list of robot peers.
 	 */
 	private List<RobotPeer> getDeathRobotsAtRandom() {
-		List<RobotPeer> shuffledList = new ArrayList<RobotPeer>(deathRobots);
-
-		Collections.shuffle(shuffledList, RandomFactory.getRandom());
-		return shuffledList;
+		return deathRobotsAtRandom.shuffle(deathRobots, getRandom());
 	}
 
 	private void loadCommands() {
@@ -570,8 +680,14 @@ public final class Battle extends BaseBattle {
 	}
 
 	private void updateBullets() {
-		for (BulletPeer bullet : getBulletsAtRandom()) {
-			bullet.update(getRobotsAtRandom(), getBulletsAtRandom());
+		collisionGrid.rebuild(robots, bullets);
+
+		final List<BulletPeer> bulletsAtRandom = getBulletsAtRandom();
+
+		for (int i = 0; i < bulletsAtRandom.size(); i++) {
+			BulletPeer bullet = bulletsAtRandom.get(i);
+
+			bullet.update(getInnerRobotsAtRandom(), getInnerBulletsAtRandom(), collisionGrid);
 			if (bullet.getState() == BulletState.INACTIVE) {
 				bullets.remove(bullet);
 			}
@@ -584,19 +700,27 @@ public final class Battle extends BaseBattle {
 		final double zapEnergy = isAborted() ? 5 : zap ? .1 : 0;
 
 		// Move all bots
-		for (RobotPeer robotPeer : getRobotsAtRandom()) {
-			robotPeer.performMove(getRobotsAtRandom(), zapEnergy);
+		List<RobotPeer> robotsAtRandom = getRobotsAtRandom();
+
+		for (int i = 0; i < robotsAtRandom.size(); i++) {
+			robotsAtRandom.get(i).performMove(getInnerRobotsAtRandom(), zapEnergy);
 		}
 
 		// Scan after moved all
-		for (RobotPeer robotPeer : getRobotsAtRandom()) {
-			robotPeer.performScan(getRobotsAtRandom());
+		robotsAtRandom = getRobotsAtRandom();
+
+		for (int i = 0; i < robotsAtRandom.size(); i++) {
+			robotsAtRandom.get(i).performScan(getInnerRobotsAtRandom());
 		}
 	}
 
 	private void handleDeadRobots() {
 
-		for (RobotPeer deadRobot : getDeathRobotsAtRandom()) {
+		final List<RobotPeer> deadRobotsAtRandom = getDeathRobotsAtRandom();
+
+		for (int i = 0; i < deadRobotsAtRandom.size(); i++) {
+			RobotPeer deadRobot = deadRobotsAtRandom.get(i);
+
 			// Compute scores for dead robots
 			if (deadRobot.getTeamPeer() == null) {
 				deadRobot.getRobotStatistics().scoreRobotDeath(getActiveContestantCount(deadRobot));
@@ -615,7 +739,7 @@ public final class Battle extends BaseBattle {
 			}
 
 			// Publish death to live robots
-			for (RobotPeer robotPeer : getRobotsAtRandom()) {
+			for (RobotPeer robotPeer : getInnerRobotsAtRandom()) {
 				if (robotPeer.isAlive()) {
 					robotPeer.addEvent(new RobotDeathEvent(robotPeer.getNameForEvent(deadRobot)));
 
@@ -670,38 +794,57 @@ public final class Battle extends BaseBattle {
 				robotPeer.waitWakeup();
 
 				if (robotPeer.isAlive()) {
-					if (isDebugging() || robotPeer.isPaintEnabled()) {
-						robotPeer.waitSleeping(DEBUG_TURN_WAIT_MILLIS, 1);
-					} else if (currentTime == 1) {
-						robotPeer.waitSleeping(millisWait * 10, 1);
-					} else {
-						robotPeer.waitSleeping(millisWait, nanoWait);
-					}
+					waitSleeping(robotPeer);
 				}
 			}
 		}
 	}
 
 	private void wakeupParallel(List<RobotPeer> robotsAtRandom) {
-		for (RobotPeer robotPeer : robotsAtRandom) {
+		final int count = robotsAtRandom.size();
+
+		if (releasedSleepCounts.length < count) {
+			releasedSleepCounts = new int[count];
+		}
+		// Release all robots at once, so that they run their turns at the same time
+		for (int i = 0; i < count; i++) {
+			RobotPeer robotPeer = robotsAtRandom.get(i);
+
 			if (robotPeer.isRunning()) {
-				// This call blocks until the robot's thread actually wakes up.
-				robotPeer.waitWakeup();
+				releasedSleepCounts[i] = robotPeer.releaseTurn(turnTimeBudget != null);
 			}
 		}
-		for (RobotPeer robotPeer : robotsAtRandom) {
+		// All robots share the same deadline, so the turn takes as long as the slowest robot
+		final long startNanos = System.nanoTime();
+		final long turnNanos = (currentTime == 1) ? millisWait * 10 * 1000000 : millisWait * 1000000 + nanoWait;
+
+		for (int i = 0; i < count; i++) {
+			RobotPeer robotPeer = robotsAtRandom.get(i);
+
 			if (robotPeer.isRunning() && robotPeer.isAlive()) {
 				if (isDebugging() || robotPeer.isPaintEnabled()) {
-					robotPeer.waitSleeping(DEBUG_TURN_WAIT_MILLIS, 1);
-				} else if (currentTime == 1) {
-					robotPeer.waitSleeping(millisWait * 10, 1);
+					robotPeer.waitTurnDone(releasedSleepCounts[i], startNanos + DEBUG_TURN_WAIT_MILLIS * 1000000L);
+				} else if (turnTimeBudget != null) {
+					robotPeer.waitTurnDone(turnTimeBudget, currentTime == 1, releasedSleepCounts[i]);
 				} else {
-					robotPeer.waitSleeping(millisWait, nanoWait);
+					robotPeer.waitTurnDone(releasedSleepCounts[i], startNanos + turnNanos);
 				}
 			}
 		}
 	}
 
+	private void waitSleeping(RobotPeer robotPeer) {
+		if (isDebugging() || robotPeer.isPaintEnabled()) {
+			robotPeer.waitSleeping(DEBUG_TURN_WAIT_MILLIS, 1);
+		} else if (turnTimeBudget != null) {
+			robotPeer.waitSleeping(turnTimeBudget, currentTime == 1);
+		} else if (currentTime == 1) {
+			robotPeer.waitSleeping(millisWait * 10, 1);
+		} else {
+			robotPeer.waitSleeping(millisWait, nanoWait);
+		}
+	}
+
 	private int getActiveContestantCount(RobotPeer peer) {
 		int count = 0;
 
@@ -753,7 +896,7 @@ public final class Battle extends BaseBattle {
 		for (int i = 0; i < positions.size(); i++) {
 			coords = positions.get(i).split(",");
 
-			Random random = RandomFactory.getRandom();
+			Random random = getRandom();
 
 			x = RobotPeer.WIDTH + random.nextDouble() * (battleRules.getBattlefieldWidth() - 2 * RobotPeer.WIDTH);
 			y = RobotPeer.HEIGHT + random.nextDouble() * (battleRules.getBattlefieldHeight() - 2 * RobotPeer.HEIGHT);
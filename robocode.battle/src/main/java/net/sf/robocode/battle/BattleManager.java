@@ -31,6 +31,12 @@ import robocode.control.events.BattleResumedEvent;
 import robocode.control.events.IBattleListener;
 
 import java.io.*;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 
@@ -51,6 +57,7 @@ public class BattleManager implements IBattleManager {
 
 	private volatile IBattle battle;
 	private Thread battleThread;
+	private final List<Battle> isolatedBattles = new CopyOnWriteArrayList<Battle>();
 	private BattleProperties battleProperties = new BattleProperties();
 
 	private final BattleEventDispatcher battleEventDispatcher;
@@ -72,6 +79,9 @@ public class BattleManager implements IBattleManager {
 	}
 
 	public synchronized void cleanup() {
+		for (Battle isolatedBattle : isolatedBattles) {
+			isolatedBattle.stop(true);
+		}
 		if (battle != null) {
 			battle.waitTillOver();
 			battle.cleanup();
@@ -89,7 +99,187 @@ public class BattleManager implements IBattleManager {
 
 	// Called from the RobocodeEngine
 	public void startNewBattle(BattleSpecification spec, String initialPositions, boolean waitTillOver, boolean enableCLIRecording) {
-		battleProperties = new BattleProperties();
+		battleProperties = createBattleProperties(spec, initialPositions);
+
+		final RobotSpecification[] robots = repositoryManager.loadSelectedRobots(spec.getRobots());
+
+		startNewBattleImpl(robots, waitTillOver, enableCLIRecording);
+	}
+
+	// Called from the RobocodeEngine, possibly from several threads at the same time
+	public void runIsolatedBattle(BattleSpecification spec, String initialPositions, IBattleListener listener) {
+		runIsolatedBattle(prepareIsolatedBattle(spec, initialPositions, listener));
+	}
+
+	// Called from the RobocodeEngine, possibly from several threads at the same time
+	public void runIsolatedBattles(BattleSpecification[] specs, String initialPositions, IBattleListener listener) {
+		if (specs.length == 0) {
+			return;
+		}
+		FutureTask<Battle> next = prepareIsolatedBattleInBackground(specs[0], initialPositions, listener);
+
+		for (int i = 0; i < specs.length; i++) {
+			final Battle isolatedBattle;
+
+			try {
+				isolatedBattle = next.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				discardPreparedBattle(next);
+				return;
+			} catch (ExecutionException e) {
+				final Throwable cause = e.getCause();
+
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new RuntimeException(cause);
+			}
+
+			// The next battle is set up, i.e. its robots are resolved and their classes loaded, while this one runs
+			next = (i + 1 < specs.length)
+					? prepareIsolatedBattleInBackground(specs[i + 1], initialPositions, listener)
+					: null;
+			try {
+				runIsolatedBattle(isolatedBattle);
+			} catch (RuntimeException e) {
+				discardPreparedBattle(next);
+				throw e;
+			} catch (Error e) {
+				discardPreparedBattle(next);
+				throw e;
+			}
+			if (Thread.currentThread().isInterrupted()) {
+				discardPreparedBattle(next);
+				return;
+			}
+		}
+	}
+
+	private FutureTask<Battle> prepareIsolatedBattleInBackground(final BattleSpecification spec,
+			final String initialPositions, final IBattleListener listener) {
+		final FutureTask<Battle> task = new FutureTask<Battle>(new Callable<Battle>() {
+			public Battle call() {
+				return prepareIsolatedBattle(spec, initialPositions, listener);
+			}
+		});
+		// The thread is registered as safe thread explicitly, and unregistered when done, as safe threads found by their
+		// thread group are remembered for good
+		final Thread thread = new Thread(Thread.currentThread().getThreadGroup(), new Runnable() {
+			public void run() {
+				try {
+					task.run();
+				} finally {
+					if (RobocodeProperties.isSecurityOn()) {
+						hostManager.removeSafeThread(Thread.currentThread());
+					}
+				}
+			}
+		});
+
+		thread.setName("Battle Preparation Thread");
+		if (RobocodeProperties.isSecurityOn()) {
+			hostManager.addSafeThread(thread);
+		}
+		thread.start();
+		return task;
+	}
+
+	private static void discardPreparedBattle(FutureTask<Battle> preparedBattle) {
+		if (preparedBattle == null) {
+			return;
+		}
+		// Wait for the preparation to finish, even when interrupted, as the robots must be cleaned up after being set up
+		boolean interrupted = false;
+
+		try {
+			while (true) {
+				try {
+					preparedBattle.get().discard();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} catch (ExecutionException ignore) {// Nothing was set up, so there is nothing to clean up
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private Battle prepareIsolatedBattle(BattleSpecification spec, String initialPositions, IBattleListener listener) {
+		final BattleProperties isolatedBattleProperties = createBattleProperties(spec, initialPositions);
+
+		// Each isolated battle has its own event dispatcher, so listeners only receive the events of their own battle
+		final BattleEventDispatcher isolatedEventDispatcher = new BattleEventDispatcher();
+
+		if (listener != null) {
+			isolatedEventDispatcher.addListener(listener);
+		}
+
+		// Each isolated battle has its own random number generator, which is deterministic if a seed has been given
+		final String seed = System.getProperty("RANDOMSEED", "none");
+		final Random random = seed.equals("none") ? new Random() : new Random(Long.valueOf(seed));
+
+		// Make sure the CPU constant is calculated once, before any robot thread is started
+		cpuManager.getCpuConstant();
+
+		final Battle isolatedBattle = new Battle(properties, this, hostManager, cpuManager, isolatedEventDispatcher);
+
+		isolatedBattle.setIsolated(random);
+
+		// The battle counts as running from now on, as the jar connections used for loading the robot classes must not
+		// be garbage collected when another battle ends in the meantime
+		isolatedBattle.countAsRunning();
+		try {
+			final RobotSpecification[] robots;
+
+			synchronized (repositoryManager) {
+				robots = repositoryManager.loadSelectedRobots(spec.getRobots());
+			}
+			isolatedBattle.setup(robots, isolatedBattleProperties, false);
+		} catch (RuntimeException e) {
+			isolatedBattle.discard();
+			throw e;
+		} catch (Error e) {
+			isolatedBattle.discard();
+			throw e;
+		}
+		return isolatedBattle;
+	}
+
+	private void runIsolatedBattle(Battle isolatedBattle) {
+		final Thread isolatedBattleThread = new Thread(Thread.currentThread().getThreadGroup(), isolatedBattle);
+
+		isolatedBattleThread.setPriority(Thread.NORM_PRIORITY);
+		isolatedBattleThread.setName("Isolated Battle Thread");
+		isolatedBattle.setBattleThread(isolatedBattleThread);
+
+		if (RobocodeProperties.isSecurityOn()) {
+			hostManager.addSafeThread(isolatedBattleThread);
+		}
+		isolatedBattles.add(isolatedBattle);
+		try {
+			isolatedBattleThread.start();
+
+			isolatedBattle.waitTillStarted();
+			isolatedBattle.waitTillOver();
+		} finally {
+			isolatedBattles.remove(isolatedBattle);
+			if (RobocodeProperties.isSecurityOn()) {
+				hostManager.removeSafeThread(isolatedBattleThread);
+			}
+		}
+	}
+
+	private static BattleProperties createBattleProperties(BattleSpecification spec, String initialPositions) {
+		BattleProperties battleProperties = new BattleProperties();
+
 		battleProperties.setBattlefieldWidth(spec.getBattlefield().getWidth());
 		battleProperties.setBattlefieldHeight(spec.getBattlefield().getHeight());
 		battleProperties.setGunCoolingRate(spec.getGunCoolingRate());
@@ -105,10 +295,7 @@ public class BattleManager implements IBattleManager {
 		} else {
 			battleProperties.setInitialPositions(initialPositions);
 		}
-
-		final RobotSpecification[] robots = repositoryManager.loadSelectedRobots(spec.getRobots());
-
-		startNewBattleImpl(robots, waitTillOver, enableCLIRecording);
+		return battleProperties;
 	}
 
 	private void startNewBattleImpl(RobotSpecification[] battlingRobotsList, boolean waitTillOver, boolean enableCLIRecording) {
@@ -378,6 +565,12 @@ public class BattleManager implements IBattleManager {
 		}
 	}
 
+	public synchronized void seekTurn(int round, int turn) {
+		if (battle != null && battle.isRunning() && battle instanceof BattlePlayer) {
+			((BattlePlayer) battle).seek(round, turn);
+		}
+	}
+
 	public synchronized void killRobot(int robotIndex) {
 		if (battle != null && battle.isRunning() && battle instanceof Battle) {
 			((Battle) battle).killRobot(robotIndex);
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.battle;
+
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Random;
+import java.util.RandomAccess;
+
+
+/**
+ * A reusable list holding a random permutation of another collection.
+ * <p/>
+ * The backing array is kept between calls to {@link #shuffle(Collection, Random)}, so refilling the buffer every
+ * turn does not create garbage once the array has grown to the size of the largest source. The permutation is
+ * produced with exactly the same random draws as {@link java.util.Collections#shuffle(java.util.List, Random)},
+ * which means that battles using a deterministic {@link robocode.control.RandomFactory} seed play out the same.
+ * <p/>
+ * This class is not thread-safe and is meant to be owned by the battle thread.
+ *
+ * @param <T> the type of elements.
+ */
+public final class ShuffleBuffer<T> extends AbstractList<T> implements RandomAccess {
+
+	private Object[] elements;
+	private int size;
+
+	public ShuffleBuffer() {
+		this(16);
+	}
+
+	public ShuffleBuffer(int initialCapacity) {
+		elements = new Object[Math.max(initialCapacity, 1)];
+	}
+
+	/**
+	 * Replaces the content of this buffer with the elements of the specified collection in random order.
+	 *
+	 * @param source the collection to copy the elements from. The collection must not contain {@code null}.
+	 * @param random the random number generator used for shuffling the elements.
+	 * @return this buffer.
+	 */
+	public ShuffleBuffer<T> shuffle(Collection<? extends T> source, Random random) {
+		fill(source);
+
+		final Object[] arr = elements;
+
+		for (int i = size; i > 1; i--) {
+			int j = random.nextInt(i);
+			Object tmp = arr[i - 1];
+
+			arr[i - 1] = arr[j];
+			arr[j] = tmp;
+		}
+		return this;
+	}
+
+	/**
+	 * Removes all elements from this buffer, but keeps the backing array for reuse.
+	 * Stale references are dropped so that the buffer does not keep peers alive between battles.
+	 */
+	@Override
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			elements[i] = null;
+		}
+		size = 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T get(int index) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return (T) elements[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	private void fill(Collection<? extends T> source) {
+		final int oldSize = size;
+
+		// Grow ahead of time, as toArray() would otherwise allocate an array of the exact size
+		int sourceSize = source.size();
+
+		if (sourceSize > elements.length) {
+			elements = new Object[Math.max(sourceSize, elements.length * 2)];
+		}
+
+		// Copies into the existing array when it is large enough. Otherwise a new array is returned.
+		// Collection.toArray(T[]) takes a consistent snapshot, also for concurrent collections
+		Object[] result = source.toArray(elements);
+
+		if (result != elements) {
+			elements = result;
+			size = result.length;
+			return;
+		}
+		// The element following the last copied one is set to null when the array has room to spare
+		int newSize = 0;
+
+		while (newSize < result.length && result[newSize] != null) {
+			newSize++;
+		}
+		size = newSize;
+
+		// Drop references left from a previous, larger content
+		for (int i = newSize + 1; i < oldSize; i++) {
+			elements[i] = null;
+		}
+	}
+}
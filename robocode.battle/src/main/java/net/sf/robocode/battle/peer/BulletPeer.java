@@ -56,6 +56,14 @@ public class BulletPeer {
 
 	private final Line2D.Double boundingLine = new Line2D.Double();
 
+	// Cells occupied by this bullet in the collision grid
+	int gridMinColumn;
+	int gridMinRow;
+	int gridMaxColumn;
+	int gridMaxRow;
+	boolean gridRegistered;
+	boolean gridHeadingIndexed;
+
 	protected int frame; // Do not set to -1
 
 	private final int color;
@@ -71,9 +79,12 @@ public class BulletPeer {
 		color = owner.getBulletColor(); // Store current bullet color set on robot
 	}
 
-	private void checkBulletCollision(List<BulletPeer> bullets) {
-		for (BulletPeer b : bullets) {
-			if (b != null && b != this && b.isActive() && intersect(b.boundingLine)) {
+	private void checkBulletCollision(List<BulletPeer> bullets, CollisionGrid grid) {
+		for (int i = 0; i < bullets.size(); i++) {
+			BulletPeer b = bullets.get(i);
+
+			if (b != null && b != this && b.isActive() && (grid == null || CollisionGrid.mayIntersect(this, b))
+					&& intersect(b.boundingLine)) {
 				// Check if one of the bullets belongs to a sentry robot and is within the safe zone
 				if (owner.isSentryRobot() || b.getOwner().isSentryRobot()) {
 					int sentryBorderSize = battleRules.getSentryBorderSize();
@@ -120,25 +131,16 @@ public class BulletPeer {
 		return otherRobot.getName();
 	}
 
-	// Workaround for http://bugs.sun.com/bugdatabase/view_bug.do?bug_id=6457965
 	private boolean intersect(Line2D.Double line) {
-		double x1 = line.x1, x2 = line.x2, x3 = boundingLine.x1, x4 = boundingLine.x2;
-		double y1 = line.y1, y2 = line.y2, y3 = boundingLine.y1, y4 = boundingLine.y2;
-
-		double dx13 = (x1 - x3), dx21 = (x2 - x1), dx43 = (x4 - x3);
-		double dy13 = (y1 - y3), dy21 = (y2 - y1), dy43 = (y4 - y3);
-
-		double dn = dy43 * dx21 - dx43 * dy21;
-
-		double ua = (dx43 * dy13 - dy43 * dx13) / dn;
-		double ub = (dx21 * dy13 - dy21 * dx13) / dn;
-
-		return (ua >= 0 && ua <= 1) && (ub >= 0 && ub <= 1);
+		return CollisionGrid.intersect(line, boundingLine);
 	}
 
-	private void checkRobotCollision(List<RobotPeer> robots) {
-		for (RobotPeer otherRobot : robots) {
+	private void checkRobotCollision(List<RobotPeer> robots, CollisionGrid grid) {
+		for (int i = 0; i < robots.size(); i++) {
+			RobotPeer otherRobot = robots.get(i);
+
 			if (!(otherRobot == null || otherRobot == owner || otherRobot.isDead())
+					&& (grid == null || CollisionGrid.mayIntersect(this, otherRobot))
 					&& otherRobot.getBoundingBox().intersectsLine(boundingLine)) {
 
 				state = BulletState.HIT_VICTIM;
@@ -305,16 +307,31 @@ public class BulletPeer {
 		state = newState;
 	}
 
-	public void update(List<RobotPeer> robots, List<BulletPeer> bullets) {
+	/**
+	 * Updates this bullet for a new turn.
+	 *
+	 * @param robots  the robots to check for collision in the order they must be checked.
+	 * @param bullets the bullets to check for collision in the order they must be checked, or {@code null}.
+	 * @param grid    the collision grid used for skipping robots and bullets that cannot be hit, or {@code null}
+	 *                for checking all of them.
+	 */
+	public void update(List<RobotPeer> robots, List<BulletPeer> bullets, CollisionGrid grid) {
 		frame++;
 		if (isActive()) {
 			updateMovement();
 			checkWallCollision();
-			if (isActive()) {
-				checkRobotCollision(robots);
+
+			boolean hasCandidates = true;
+
+			if (grid != null) {
+				grid.update(this);
+				hasCandidates = grid.hasCandidates(this);
 			}
-			if (isActive() && bullets != null) {
-				checkBulletCollision(bullets);
+			if (isActive() && hasCandidates) {
+				checkRobotCollision(robots, grid);
+			}
+			if (isActive() && hasCandidates && bullets != null) {
+				checkBulletCollision(bullets, grid);
 			}
 		}
 		updateBulletState();
@@ -356,6 +373,10 @@ public class BulletPeer {
 		boundingLine.setLine(lastX, lastY, x, y);
 	}
 
+	Line2D.Double getBoundingLine() {
+		return boundingLine;
+	}
+
 	public int getExplosionImageIndex() {
 		return explosionImageIndex;
 	}
@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.battle.peer;
+
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Broad phase for the collision detection of bullets against robots and other bullets.
+ * <p/>
+ * The battlefield is divided into a uniform grid, where each cell counts the robots and active bullets overlapping
+ * it. The grid is rebuilt at the beginning of each turn, and bullets are moved within the grid as they are updated.
+ * A bullet that has no other robot or bullet in its cells can skip the narrow phase entirely, and otherwise only
+ * the candidates passing {@link #mayIntersect(BulletPeer, RobotPeer)} or {@link #mayIntersect(BulletPeer, BulletPeer)}
+ * need to be checked exactly.
+ * <p/>
+ * The broad phase is conservative: it never rejects a pair for which the narrow phase would report a collision.
+ * Hence the collisions found and the order in which they are processed are exactly the same as without the grid.
+ * Note that {@link #intersect(Line2D.Double, Line2D.Double)} can report collisions between almost parallel bullet
+ * paths that are far apart due to rounding errors. Such bullets are always treated as candidates.
+ *
+ * @see BulletPeer#update(List, List, CollisionGrid)
+ */
+public final class CollisionGrid {
+
+	// Larger than the longest bullet path per turn, and larger than a robot
+	private static final double CELL_SIZE = 64;
+
+	// Extra distance added around bounds in order to absorb rounding errors
+	private static final double MARGIN = 1;
+
+	// Bullet paths with headings closer than this (in radians) are considered to be parallel
+	private static final double PARALLEL_TOLERANCE = 1e-5;
+
+	private final int columns;
+	private final int rows;
+	private final int[] counts;
+
+	// Headings of the active bullets in the range [0, PI), sorted in ascending order
+	private double[] headings = new double[64];
+	private int headingsCount;
+
+	public CollisionGrid(double battlefieldWidth, double battlefieldHeight) {
+		columns = (int) Math.ceil(battlefieldWidth / CELL_SIZE) + 1;
+		rows = (int) Math.ceil(battlefieldHeight / CELL_SIZE) + 1;
+		counts = new int[columns * rows];
+	}
+
+	/**
+	 * Rebuilds the grid from the current positions of the robots and bullets.
+	 *
+	 * @param robots the robots of the battle.
+	 * @param bullets the bullets of the battle.
+	 */
+	public void rebuild(List<RobotPeer> robots, List<BulletPeer> bullets) {
+		Arrays.fill(counts, 0);
+		headingsCount = 0;
+
+		for (int i = 0; i < robots.size(); i++) {
+			RobotPeer robot = robots.get(i);
+
+			if (robot.isAlive()) {
+				Rectangle2D box = robot.getBoundingBox();
+
+				add(column(box.getMinX()), row(box.getMinY()), column(box.getMaxX()), row(box.getMaxY()), 1);
+			}
+		}
+
+		if (headings.length < bullets.size()) {
+			headings = new double[Math.max(bullets.size(), headings.length * 2)];
+		}
+		for (int i = 0; i < bullets.size(); i++) {
+			BulletPeer bullet = bullets.get(i);
+
+			bullet.gridRegistered = false;
+			bullet.gridHeadingIndexed = false;
+			if (bullet.isActive()) {
+				register(bullet);
+				headings[headingsCount++] = parallelHeading(bullet.getHeading());
+				bullet.gridHeadingIndexed = true;
+			}
+		}
+		Arrays.sort(headings, 0, headingsCount);
+	}
+
+	/**
+	 * Moves a bullet within the grid after its path has been updated.
+	 *
+	 * @param bullet the bullet that has moved.
+	 */
+	void update(BulletPeer bullet) {
+		if (bullet.gridRegistered) {
+			add(bullet.gridMinColumn, bullet.gridMinRow, bullet.gridMaxColumn, bullet.gridMaxRow, -1);
+		}
+		register(bullet);
+	}
+
+	/**
+	 * Checks if the grid contains any other robot or bullet that the specified bullet could collide with.
+	 *
+	 * @param bullet the bullet to check, which must have been updated to its current path.
+	 * @return {@code true} if the bullet could collide with a robot or another bullet; {@code false} if it
+	 *         cannot collide with anything at all.
+	 */
+	boolean hasCandidates(BulletPeer bullet) {
+		final Line2D.Double line = bullet.getBoundingLine();
+
+		int minColumn = column(Math.min(line.x1, line.x2) - MARGIN);
+		int minRow = row(Math.min(line.y1, line.y2) - MARGIN);
+		int maxColumn = column(Math.max(line.x1, line.x2) + MARGIN);
+		int maxRow = row(Math.max(line.y1, line.y2) + MARGIN);
+
+		int count = 0;
+
+		for (int r = minRow; r <= maxRow; r++) {
+			int offset = r * columns;
+
+			for (int c = minColumn; c <= maxColumn; c++) {
+				count += counts[offset + c];
+			}
+		}
+		// Subtract the bullet itself, as its own cells are always within the queried cells
+		if (bullet.gridRegistered) {
+			count -= (bullet.gridMaxColumn - bullet.gridMinColumn + 1) * (bullet.gridMaxRow - bullet.gridMinRow + 1);
+		}
+		return count > 0 || countParallel(bullet.getHeading()) > (bullet.gridHeadingIndexed ? 1 : 0);
+	}
+
+	/**
+	 * Checks if a bullet could hit a robot. If this method returns {@code false}, the robot bounding box is
+	 * guaranteed not to intersect the bullet path.
+	 *
+	 * @param bullet the bullet.
+	 * @param robot the robot.
+	 * @return {@code true} if the bullet path and robot must be checked for collision; {@code false} otherwise.
+	 */
+	static boolean mayIntersect(BulletPeer bullet, RobotPeer robot) {
+		final Line2D.Double line = bullet.getBoundingLine();
+		final Rectangle2D box = robot.getBoundingBox();
+
+		return Math.max(line.x1, line.x2) + MARGIN >= box.getMinX()
+				&& Math.min(line.x1, line.x2) - MARGIN <= box.getMaxX()
+				&& Math.max(line.y1, line.y2) + MARGIN >= box.getMinY()
+				&& Math.min(line.y1, line.y2) - MARGIN <= box.getMaxY();
+	}
+
+	/**
+	 * Checks if two bullets could hit each other. If this method returns {@code false}, then
+	 * {@link #intersect(Line2D.Double, Line2D.Double)} is guaranteed to return {@code false} for the bullet paths.
+	 *
+	 * @param bullet the bullet.
+	 * @param other the other bullet.
+	 * @return {@code true} if the bullet paths must be checked for collision; {@code false} otherwise.
+	 */
+	static boolean mayIntersect(BulletPeer bullet, BulletPeer other) {
+		return mayIntersect(bullet.getBoundingLine(), bullet.getHeading(), other.getBoundingLine(), other.getHeading());
+	}
+
+	static boolean mayIntersect(Line2D.Double line, double heading, Line2D.Double otherLine, double otherHeading) {
+		if (Math.max(line.x1, line.x2) + MARGIN >= Math.min(otherLine.x1, otherLine.x2)
+				&& Math.min(line.x1, line.x2) - MARGIN <= Math.max(otherLine.x1, otherLine.x2)
+				&& Math.max(line.y1, line.y2) + MARGIN >= Math.min(otherLine.y1, otherLine.y2)
+				&& Math.min(line.y1, line.y2) - MARGIN <= Math.max(otherLine.y1, otherLine.y2)) {
+			return true;
+		}
+		double delta = Math.abs(parallelHeading(heading) - parallelHeading(otherHeading));
+
+		return Math.min(delta, Math.PI - delta) <= PARALLEL_TOLERANCE;
+	}
+
+	// Workaround for http://bugs.sun.com/bugdatabase/view_bug.do?bug_id=6457965
+	static boolean intersect(Line2D.Double line, Line2D.Double boundingLine) {
+		double x1 = line.x1, x2 = line.x2, x3 = boundingLine.x1, x4 = boundingLine.x2;
+		double y1 = line.y1, y2 = line.y2, y3 = boundingLine.y1, y4 = boundingLine.y2;
+
+		double dx13 = (x1 - x3), dx21 = (x2 - x1), dx43 = (x4 - x3);
+		double dy13 = (y1 - y3), dy21 = (y2 - y1), dy43 = (y4 - y3);
+
+		double dn = dy43 * dx21 - dx43 * dy21;
+
+		double ua = (dx43 * dy13 - dy43 * dx13) / dn;
+		double ub = (dx21 * dy13 - dy21 * dx13) / dn;
+
+		return (ua >= 0 && ua <= 1) && (ub >= 0 && ub <= 1);
+	}
+
+	private void register(BulletPeer bullet) {
+		final Line2D.Double line = bullet.getBoundingLine();
+
+		bullet.gridMinColumn = column(Math.min(line.x1, line.x2));
+		bullet.gridMinRow = row(Math.min(line.y1, line.y2));
+		bullet.gridMaxColumn = column(Math.max(line.x1, line.x2));
+		bullet.gridMaxRow = row(Math.max(line.y1, line.y2));
+		bullet.gridRegistered = true;
+
+		add(bullet.gridMinColumn, bullet.gridMinRow, bullet.gridMaxColumn, bullet.gridMaxRow, 1);
+	}
+
+	private void add(int minColumn, int minRow, int maxColumn, int maxRow, int delta) {
+		for (int r = minRow; r <= maxRow; r++) {
+			int offset = r * columns;
+
+			for (int c = minColumn; c <= maxColumn; c++) {
+				counts[offset + c] += delta;
+			}
+		}
+	}
+
+	private int countParallel(double heading) {
+		double h = parallelHeading(heading);
+
+		int count = countInRange(h - PARALLEL_TOLERANCE, h + PARALLEL_TOLERANCE);
+
+		// Headings close to 0 are parallel with headings close to PI
+		if (h - PARALLEL_TOLERANCE < 0) {
+			count += countInRange(h - PARALLEL_TOLERANCE + Math.PI, Math.PI);
+		}
+		if (h + PARALLEL_TOLERANCE >= Math.PI) {
+			count += countInRange(0, h + PARALLEL_TOLERANCE - Math.PI);
+		}
+		return count;
+	}
+
+	private int countInRange(double from, double to) {
+		int start = Arrays.binarySearch(headings, 0, headingsCount, from);
+
+		if (start < 0) {
+			start = -start - 1;
+		}
+		// binarySearch returns any of several equal keys, so move to the first one
+		while (start > 0 && headings[start - 1] >= from) {
+			start--;
+		}
+		int end = start;
+
+		while (end < headingsCount && headings[end] <= to) {
+			end++;
+		}
+		return end - start;
+	}
+
+	private static double parallelHeading(double heading) {
+		double h = heading % Math.PI;
+
+		if (h < 0) {
+			h += Math.PI;
+		}
+		return (h >= Math.PI) ? 0 : h;
+	}
+
+	private int column(double x) {
+		int c = (int) Math.floor(x / CELL_SIZE);
+
+		return (c < 0) ? 0 : (c >= columns) ? columns - 1 : c;
+	}
+
+	private int row(double y) {
+		int r = (int) Math.floor(y / CELL_SIZE);
+
+		return (r < 0) ? 0 : (r >= rows) ? rows - 1 : r;
+	}
+}
@@ -52,6 +52,14 @@ interface IRobotPeerBattle extends ContestantPeer {
 
 	void waitSleeping(long millisWait, int nanosWait);
 
+	void waitSleeping(TurnTimeBudget budget, boolean isFirstTurn);
+
+	int releaseTurn(boolean measureCpuTime);
+
+	void waitTurnDone(int releasedSleepCount, long deadlineNanos);
+
+	void waitTurnDone(TurnTimeBudget budget, boolean isFirstTurn, int releasedSleepCount);
+
 	void waitForStop();
 
 	void setWinner(boolean newWinner);
@@ -17,12 +17,12 @@ import net.sf.robocode.host.events.EventManager;
 import net.sf.robocode.host.events.EventQueue;
 import net.sf.robocode.host.proxies.IHostingRobotProxy;
 import net.sf.robocode.io.Logger;
+import net.sf.robocode.io.RobocodeProperties;
 import net.sf.robocode.peer.*;
 import net.sf.robocode.repository.IRobotItem;
 import net.sf.robocode.security.HiddenAccess;
 import net.sf.robocode.serialization.RbSerializer;
 import robocode.*;
-import robocode.control.RandomFactory;
 import robocode.control.RobotSetup;
 import robocode.control.RobotSpecification;
 import robocode.control.snapshot.BulletState;
@@ -75,6 +75,9 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 	private static final int MAX_SKIPPED_TURNS = 30;
 	private static final int MAX_SKIPPED_TURNS_WITH_IO = 240;
 
+	// Time the battle thread spins before blocking, when waiting for a robot with pooled robot threads
+	private static final long SPIN_WAIT_NANOS = 50000;
+
 	private Battle battle;
 	private RobotStatistics statistics;
 	private final TeamPeer teamPeer;
@@ -89,6 +92,15 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 	private AtomicReference<List<BulletStatus>> bulletUpdates = new AtomicReference<List<BulletStatus>>(
 			new ArrayList<BulletStatus>());
 
+	// Double buffers exchanged with the robot thread. The results, and the commands and lists within them, are
+	// owned by the robot from the return of executeImpl() until its next call, where they are swapped back in as
+	// the spare buffers that are filled by the battle on the next turn.
+	private final ExecResults execResults = new ExecResults(null, null, null, null, null, false, false, false);
+	private ExecCommands spareCommands;
+	private EventQueue spareEvents = new EventQueue();
+	private List<TeamMessage> spareTeamMessages = new ArrayList<TeamMessage>();
+	private List<BulletStatus> spareBulletUpdates = new ArrayList<BulletStatus>();
+
 	// thread is running
 	private final AtomicBoolean isRunning = new AtomicBoolean(false);
 
@@ -127,6 +139,14 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 	private int lastExecutionTime = -1;
 	private int currentExecutionTime;
 
+	// turns skipped during the battle, and CPU time spent above the turn budget
+	private int skippedTurns;
+	private long cpuTimeDebt;
+
+	// number of times the robot has gone to sleep, which tells when a robot released in parallel has ended its turn
+	private int sleepCount;
+	private long releaseCpuTime = -1;
+
 	private boolean isExecFinishedAndDisabled;
 	private boolean isEnergyDrained;
 	private boolean isWinner;
@@ -202,6 +222,17 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		}
 	}
 
+	/**
+	 * Drops the output text of the robot, which is used instead of {@link #readOutText()} when no turn snapshots
+	 * are made, as the text would otherwise pile up for the entire battle.
+	 */
+	public void discardOutText() {
+		synchronized (proxyText) {
+			battleText.setLength(0);
+			proxyText.setLength(0);
+		}
+	}
+
 	public RobotStatistics getRobotStatistics() {
 		return statistics;
 	}
@@ -455,10 +486,11 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 
 	public final ExecResults executeImpl(ExecCommands newCommands) {
 		validateCommands(newCommands);
+		recycleResults();
 
 		if (!isExecFinishedAndDisabled) {
 			// from robot to battle
-			commands.set(new ExecCommands(newCommands, true));
+			publishCommands(newCommands);
 			print(newCommands.getOutputText());
 		} else {
 			// slow down spammer
@@ -492,33 +524,39 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		checkSkippedTurn();
 
 		// from battle to robot
-		final ExecCommands resCommands = new ExecCommands(this.commands.get(), false);
+		final ExecCommands resCommands = readoutCommands();
 		final RobotStatus resStatus = status.get();
 
 		final boolean shouldWait = battle.isAborted() || (battle.isLastRound() && isWinner());
 
-		return new ExecResults(resCommands, resStatus, readoutEvents(), readoutTeamMessages(), readoutBullets(),
-				isHalt(), shouldWait, isPaintEnabled());
+		execResults.set(resCommands, resStatus, readoutEvents(), readoutTeamMessages(), readoutBullets(), isHalt(),
+				shouldWait, isPaintEnabled());
+		return execResults;
 	}
 
 	public final ExecResults waitForBattleEndImpl(ExecCommands newCommands) {
+		recycleResults();
+
 		if (!isHalt()) {
 			// from robot to battle
-			commands.set(new ExecCommands(newCommands, true));
+			publishCommands(newCommands);
 			print(newCommands.getOutputText());
 
 			waitForNextTurn();
 		}
 		// from battle to robot
-		final ExecCommands resCommands = new ExecCommands(this.commands.get(), false);
+		final ExecCommands resCommands = readoutCommands();
 		final RobotStatus resStatus = status.get();
 
 		final boolean shouldWait = battle.isAborted() || (battle.isLastRound() && !isWinner());
 
-		readoutTeamMessages(); // throw away
-		
-		return new ExecResults(resCommands, resStatus, readoutEvents(), new ArrayList<TeamMessage>(), readoutBullets(),
-				isHalt(), shouldWait, false);
+		final List<TeamMessage> resTeamMessages = readoutTeamMessages();
+
+		resTeamMessages.clear(); // throw away
+
+		execResults.set(resCommands, resStatus, readoutEvents(), resTeamMessages, readoutBullets(), isHalt(),
+				shouldWait, false);
+		return execResults;
 	}
 
 	private void validateCommands(ExecCommands newCommands) {
@@ -533,16 +571,59 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		newCommands.setMaxVelocity(Math.min(abs(newCommands.getMaxVelocity()), Rules.MAX_VELOCITY));
 	}
 
+	private void publishCommands(ExecCommands newCommands) {
+		final ExecCommands oldCommands = commands.getAndSet(newCommands);
+
+		// The robot passes the same commands again, if its last call did not return any results
+		if (oldCommands != newCommands) {
+			spareCommands = oldCommands;
+		}
+	}
+
+	private ExecCommands readoutCommands() {
+		ExecCommands resCommands = spareCommands;
+
+		spareCommands = null;
+		if (resCommands == null) {
+			return new ExecCommands(commands.get(), false);
+		}
+		resCommands.reset(commands.get());
+		return resCommands;
+	}
+
+	// The robot is done with the results of its last call, when it calls again
+	private void recycleResults() {
+		if (execResults.getEvents() != null) {
+			spareEvents = (EventQueue) execResults.getEvents();
+			spareEvents.clear();
+			spareTeamMessages = execResults.getTeamMessages();
+			spareTeamMessages.clear();
+			spareBulletUpdates = execResults.getBulletUpdates();
+			spareBulletUpdates.clear();
+
+			execResults.set(null, null, null, null, null, false, false, false);
+		}
+	}
+
 	private List<Event> readoutEvents() {
-		return events.getAndSet(new EventQueue());
+		final EventQueue spare = spareEvents;
+
+		spareEvents = null;
+		return events.getAndSet(spare != null ? spare : new EventQueue());
 	}
 
 	private List<TeamMessage> readoutTeamMessages() {
-		return teamMessages.getAndSet(new ArrayList<TeamMessage>());
+		final List<TeamMessage> spare = spareTeamMessages;
+
+		spareTeamMessages = null;
+		return teamMessages.getAndSet(spare != null ? spare : new ArrayList<TeamMessage>());
 	}
 
 	private List<BulletStatus> readoutBullets() {
-		return bulletUpdates.getAndSet(new ArrayList<BulletStatus>());
+		final List<BulletStatus> spare = spareBulletUpdates;
+
+		spareBulletUpdates = null;
+		return bulletUpdates.getAndSet(spare != null ? spare : new ArrayList<BulletStatus>());
 	}
 
 	private void waitForNextTurn() {
@@ -551,6 +632,7 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 			// This ends any pending wait() call in battle.runRound().
 			// Should not actually take place until we release the lock in wait(), below.
 			isSleeping.set(true);
+			sleepCount++;
 			isSleeping.notifyAll();
 			// Notifying battle that we're asleep
 			// Sleeping and waiting for battle to wake us up.
@@ -600,6 +682,15 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 	}
 
 	public void waitSleeping(long millisWait, int nanosWait) {
+		if (RobocodeProperties.isPooledThreadsOn()) {
+			// Most robots finish their turn within microseconds, which is much less than the time it takes to block
+			// on the monitor and being notified again
+			final long spinDeadline = System.nanoTime() + Math.min(SPIN_WAIT_NANOS, millisWait * 1000000 + nanosWait);
+
+			while (!isSleeping() && isRunning() && System.nanoTime() < spinDeadline) {
+				Thread.yield();
+			}
+		}
 		synchronized (isSleeping) {
 			// It's quite possible for simple robots to
 			// complete their processing before we get here,
@@ -623,6 +714,145 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		}
 	}
 
+	/**
+	 * Waits for the robot to finish its turn, where the time is measured as CPU time spent by the robot thread.
+	 *
+	 * @param budget the turn time budget.
+	 * @param isFirstTurn {@code true} if this is the first turn of the round.
+	 */
+	public void waitSleeping(TurnTimeBudget budget, boolean isFirstTurn) {
+		waitTurnDone(budget, isFirstTurn, -1, TurnTimeBudget.getCpuTime(robotProxy.getRobotThread()));
+	}
+
+	/**
+	 * Wakes up the robot without waiting for its thread to actually wake up. This is used for releasing all robots
+	 * at the same time in parallel battles, where {@link #waitTurnDone(int, long)} must be used for waiting for the
+	 * robot to finish its turn.
+	 *
+	 * @param measureCpuTime {@code true} if the CPU time of the robot thread must be measured from now on.
+	 * @return the sleep count of the robot at the time of the release.
+	 */
+	public int releaseTurn(boolean measureCpuTime) {
+		final int releasedSleepCount;
+
+		synchronized (isSleeping) {
+			releasedSleepCount = sleepCount;
+			if (isSleeping()) {
+				isSleeping.notifyAll();
+			}
+		}
+		releaseCpuTime = measureCpuTime ? TurnTimeBudget.getCpuTime(robotProxy.getRobotThread()) : -1;
+
+		return releasedSleepCount;
+	}
+
+	/**
+	 * Waits for a robot released with {@link #releaseTurn(boolean)} to finish its turn, i.e. to go to sleep again.
+	 *
+	 * @param releasedSleepCount the sleep count returned when the robot was released.
+	 * @param deadlineNanos the {@link System#nanoTime()} where the turn ends for all robots.
+	 */
+	public void waitTurnDone(int releasedSleepCount, long deadlineNanos) {
+		synchronized (isSleeping) {
+			try {
+				while (!isTurnDone(releasedSleepCount) && isRunning()) {
+					final long remaining = deadlineNanos - System.nanoTime();
+
+					if (remaining <= 0) {
+						break;
+					}
+					isSleeping.wait(remaining / 1000000, (int) Math.max(1, remaining % 1000000));
+				}
+			} catch (InterruptedException e) {
+				// Immediately reasserts the exception by interrupting the caller thread itself
+				Thread.currentThread().interrupt();
+
+				logMessage("Wait for " + getName() + " interrupted.");
+			}
+		}
+	}
+
+	/**
+	 * Waits for a robot released with {@link #releaseTurn(boolean)} to finish its turn, where the time is measured
+	 * as CPU time spent by the robot thread since the release.
+	 *
+	 * @param budget the turn time budget.
+	 * @param isFirstTurn {@code true} if this is the first turn of the round.
+	 * @param releasedSleepCount the sleep count returned when the robot was released.
+	 */
+	public void waitTurnDone(TurnTimeBudget budget, boolean isFirstTurn, int releasedSleepCount) {
+		waitTurnDone(budget, isFirstTurn, releasedSleepCount, releaseCpuTime);
+	}
+
+	private void waitTurnDone(TurnTimeBudget budget, boolean isFirstTurn, int releasedSleepCount, long startCpuTime) {
+		final Thread robotThread = robotProxy.getRobotThread();
+		final long allowedNanos = budget.getAllowedNanos(cpuTimeDebt, isFirstTurn);
+		final long wallClockNanos = budget.getWallClockNanos(isFirstTurn);
+
+		if (startCpuTime < 0 || !TurnTimeBudget.isOnlyThread(robotThread)) {
+			// The robot thread has not been started or has died, or the robot runs threads of its own, where the CPU
+			// time of these is not measured, so fall back to wall-clock time
+			if (releasedSleepCount < 0) {
+				waitSleeping(wallClockNanos / 1000000, (int) Math.max(1, wallClockNanos % 1000000));
+			} else {
+				waitTurnDone(releasedSleepCount, System.nanoTime() + wallClockNanos);
+			}
+			return;
+		}
+		final long startNanos = System.nanoTime();
+		final long wallClockDeadline = startNanos + budget.getMaxWallClockNanos(isFirstTurn);
+
+		synchronized (isSleeping) {
+			try {
+				while (!isTurnDone(releasedSleepCount) && isRunning()) {
+					final long cpuTime = TurnTimeBudget.getCpuTime(robotThread);
+
+					if (cpuTime < 0) {
+						break;
+					}
+					// The robot cannot use more CPU time than the elapsed time, so wait for the remaining CPU time
+					long remaining = Math.min(allowedNanos - (cpuTime - startCpuTime),
+							wallClockDeadline - System.nanoTime());
+
+					if (!TurnTimeBudget.isOnlyThread(robotThread)) {
+						// The robot has started a thread during the turn, so the turn is limited in wall-clock time
+						remaining = Math.min(remaining, startNanos + wallClockNanos - System.nanoTime());
+					}
+					if (remaining <= 0) {
+						break;
+					}
+					// Look for threads started by the robot at least once per turn budget
+					final long wait = Math.min(remaining, wallClockNanos);
+
+					isSleeping.wait(wait / 1000000, (int) Math.max(1, wait % 1000000));
+				}
+			} catch (InterruptedException e) {
+				// Immediately reasserts the exception by interrupting the caller thread itself
+				Thread.currentThread().interrupt();
+
+				logMessage("Wait for " + getName() + " interrupted.");
+			}
+		}
+		final long endCpuTime = TurnTimeBudget.getCpuTime(robotThread);
+
+		if (endCpuTime >= 0) {
+			cpuTimeDebt = budget.updateDebt(cpuTimeDebt, endCpuTime - startCpuTime, isFirstTurn);
+		}
+	}
+
+	// Must be called while holding the isSleeping lock
+	private boolean isTurnDone(int releasedSleepCount) {
+		// A negative sleep count means that the robot has been woken up with waitWakeup(), so it is awake now
+		return (releasedSleepCount < 0) ? isSleeping() : sleepCount != releasedSleepCount;
+	}
+
+	/**
+	 * Returns the number of turns skipped by the robot during the battle.
+	 */
+	public int getSkippedTurns() {
+		return skippedTurns;
+	}
+
 	public void checkSkippedTurn() {
 		// Store last and current execution time for detecting skipped turns
 		lastExecutionTime = currentExecutionTime;
@@ -630,6 +860,7 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 
 		int numSkippedTurns = (currentExecutionTime - lastExecutionTime) - 1;
 		if (numSkippedTurns >= 1) {
+			skippedTurns += numSkippedTurns;
 			events.get().clear(false);
 
 			if (isAlive()) {
@@ -671,7 +902,7 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		}
 
 		if (!valid) {
-			final Random random = RandomFactory.getRandom();
+			final Random random = battle.getRandom();
 
 			double maxWidth = battleRules.getBattlefieldWidth() - RobotPeer.WIDTH;
 			double maxHeight = battleRules.getBattlefieldHeight() - RobotPeer.HEIGHT;
@@ -753,6 +984,7 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		scanArc.setFrame(-100, -100, 1, 1);
 
 		lastExecutionTime = -1;
+		cpuTimeDebt = 0;
 
 		status = new AtomicReference<RobotStatus>();
 
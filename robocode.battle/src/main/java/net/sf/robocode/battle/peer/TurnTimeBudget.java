@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.battle.peer;
+
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+
+/**
+ * Policy for the time a robot may spend on a turn, where the time is measured as the CPU time of the robot thread
+ * instead of wall-clock time.
+ * <p/>
+ * Wall-clock time includes the time where the robot thread is waiting for a CPU, which makes robots skip turns
+ * randomly on a loaded machine, or when several battles are running at the same time. The CPU time of the robot
+ * thread only includes the time actually spent by the robot.
+ * <p/>
+ * Each robot may spend the turn budget on every turn, and a larger budget on the first turn where the robot is
+ * usually initializing. Time spent above the turn budget is added to a debt, which is paid back on turns where the
+ * robot spends less than the turn budget. A robot may exceed the turn budget as long as its debt stays below the
+ * debt budget. The battle never waits more than {@link #MAX_WALL_CLOCK_FACTOR} times the turn budget in wall-clock
+ * time, so robots that are blocked without using CPU time still skip their turns. The debt budget does not extend
+ * this wall-clock limit.
+ * <p/>
+ * Only the CPU time of the robot thread is measured. A robot that runs threads of its own gets the turn budget in
+ * wall-clock time, as without the CPU time budget.
+ *
+ * @see RobotPeer#waitSleeping(TurnTimeBudget, boolean)
+ */
+public final class TurnTimeBudget {
+
+	static final int MAX_WALL_CLOCK_FACTOR = 10;
+
+	private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+	private final int debtTurns;
+	private final int firstTurnFactor;
+
+	private long turnNanos = 1;
+
+	/**
+	 * Creates a new turn time budget.
+	 *
+	 * @param debtTurns the debt budget as number of turn budgets.
+	 * @param firstTurnFactor the budget of the first turn as multiple of the turn budget.
+	 */
+	public TurnTimeBudget(int debtTurns, int firstTurnFactor) {
+		this.debtTurns = Math.max(0, debtTurns);
+		this.firstTurnFactor = Math.max(1, firstTurnFactor);
+	}
+
+	/**
+	 * Checks if the CPU time of threads can be measured on this JVM, and enables the measurement if needed.
+	 *
+	 * @return {@code true} if the CPU time of threads can be measured; {@code false} otherwise.
+	 */
+	public static boolean isSupported() {
+		try {
+			if (!threadMXBean.isThreadCpuTimeSupported()) {
+				return false;
+			}
+			if (!threadMXBean.isThreadCpuTimeEnabled()) {
+				threadMXBean.setThreadCpuTimeEnabled(true);
+			}
+			return true;
+		} catch (UnsupportedOperationException e) {
+			return false;
+		} catch (SecurityException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Sets the CPU time a robot may spend on a normal turn.
+	 *
+	 * @param turnNanos the turn budget in nanoseconds.
+	 */
+	public void setTurnNanos(long turnNanos) {
+		this.turnNanos = Math.max(1, turnNanos);
+	}
+
+	public long getTurnNanos() {
+		return turnNanos;
+	}
+
+	/**
+	 * Returns the CPU time a robot may spend on the current turn.
+	 *
+	 * @param debt the current debt of the robot in nanoseconds.
+	 * @param isFirstTurn {@code true} if this is the first turn of the round.
+	 * @return the allowed CPU time in nanoseconds.
+	 */
+	long getAllowedNanos(long debt, boolean isFirstTurn) {
+		return getTurnNanos(isFirstTurn) + Math.max(0, debtTurns * turnNanos - debt);
+	}
+
+	/**
+	 * Returns the wall-clock time the battle waits at most for a robot on the current turn.
+	 *
+	 * @param isFirstTurn {@code true} if this is the first turn of the round.
+	 * @return the max. wall-clock time in nanoseconds.
+	 */
+	long getMaxWallClockNanos(boolean isFirstTurn) {
+		return MAX_WALL_CLOCK_FACTOR * getTurnNanos(isFirstTurn);
+	}
+
+	/**
+	 * Returns the wall-clock time a robot may spend on the current turn, when its CPU time cannot be measured.
+	 *
+	 * @param isFirstTurn {@code true} if this is the first turn of the round.
+	 * @return the allowed wall-clock time in nanoseconds.
+	 */
+	long getWallClockNanos(boolean isFirstTurn) {
+		return getTurnNanos(isFirstTurn);
+	}
+
+	/**
+	 * Returns the new debt of a robot after a turn.
+	 *
+	 * @param debt the debt of the robot before the turn in nanoseconds.
+	 * @param usedNanos the CPU time used by the robot on the turn.
+	 * @param isFirstTurn {@code true} if this is the first turn of the round.
+	 * @return the new debt in nanoseconds.
+	 */
+	long updateDebt(long debt, long usedNanos, boolean isFirstTurn) {
+		return Math.max(0, debt + usedNanos - getTurnNanos(isFirstTurn));
+	}
+
+	/**
+	 * Checks if the robot thread is the only thread of a robot. Only the CPU time of the robot thread is measured, so
+	 * a robot that runs threads of its own must be given wall-clock time instead.
+	 *
+	 * @param robotThread the robot thread.
+	 * @return {@code true} if the thread group of the robot thread contains no other threads; {@code false} otherwise,
+	 *         or if the robot thread is not alive.
+	 */
+	static boolean isOnlyThread(Thread robotThread) {
+		final ThreadGroup threadGroup = (robotThread != null) ? robotThread.getThreadGroup() : null;
+
+		return threadGroup != null && threadGroup.activeCount() <= 1;
+	}
+
+	/**
+	 * Returns the CPU time of a thread.
+	 *
+	 * @param thread the thread.
+	 * @return the CPU time in nanoseconds, or -1 if the thread is not alive.
+	 */
+	static long getCpuTime(Thread thread) {
+		return (thread != null) ? threadMXBean.getThreadCpuTime(thread.getId()) : -1;
+	}
+
+	private long getTurnNanos(boolean isFirstTurn) {
+		return isFirstTurn ? firstTurnFactor * turnNanos : turnNanos;
+	}
+}
@@ -20,6 +20,11 @@ import robocode.control.snapshot.BulletState;
 import robocode.control.snapshot.IBulletSnapshot;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_BYTE;
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_DOUBLE;
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_INT;
 
 
 /**
@@ -357,4 +362,109 @@ final class BulletSnapshot implements java.io.Serializable, IXmlSerializable, IB
 			}
 		});
 	}
+
+	/**
+	 * Returns the number of bytes needed for writing the specified bullets with {@link #writeColumns}.
+	 */
+	static int sizeOfColumns(BulletSnapshot[] bullets) {
+		return bullets.length * (2 * SIZEOF_BYTE + 6 * SIZEOF_DOUBLE + 6 * SIZEOF_INT);
+	}
+
+	/**
+	 * Writes the specified bullets column by column, i.e. the same field of all bullets is written in sequence.
+	 */
+	static void writeColumns(ByteBuffer buffer, BulletSnapshot[] bullets) {
+		for (BulletSnapshot b : bullets) {
+			buffer.put((byte) b.state.ordinal());
+		}
+		for (BulletSnapshot b : bullets) {
+			buffer.put((byte) (b.isExplosion ? 1 : 0));
+		}
+		for (BulletSnapshot b : bullets) {
+			buffer.putDouble(b.power);
+		}
+		for (BulletSnapshot b : bullets) {
+			buffer.putDouble(b.x);
+		}
+		for (BulletSnapshot b : bullets) {
+			buffer.putDouble(b.y);
+		}
+		for (BulletSnapshot b : bullets) {
+			buffer.putDouble(b.paintX);
+		}
+		for (BulletSnapshot b : bullets) {
+			buffer.putDouble(b.paintY);
+		}
+		for (BulletSnapshot b : bullets) {
+			buffer.putDouble(b.heading);
+		}
+		for (BulletSnapshot b : bullets) {
+			buffer.putInt(b.color);
+		}
+		for (BulletSnapshot b : bullets) {
+			buffer.putInt(b.frame);
+		}
+		for (BulletSnapshot b : bullets) {
+			buffer.putInt(b.explosionImageIndex);
+		}
+		for (BulletSnapshot b : bullets) {
+			buffer.putInt(b.bulletId);
+		}
+		for (BulletSnapshot b : bullets) {
+			buffer.putInt(b.victimIndex);
+		}
+		for (BulletSnapshot b : bullets) {
+			buffer.putInt(b.ownerIndex);
+		}
+	}
+
+	/**
+	 * Reads bullets written with {@link #writeColumns} into the specified, newly created bullets.
+	 */
+	static void readColumns(ByteBuffer buffer, BulletSnapshot[] bullets) {
+		final BulletState[] states = BulletState.values();
+
+		for (BulletSnapshot b : bullets) {
+			b.state = states[buffer.get()];
+		}
+		for (BulletSnapshot b : bullets) {
+			b.isExplosion = buffer.get() != 0;
+		}
+		for (BulletSnapshot b : bullets) {
+			b.power = buffer.getDouble();
+		}
+		for (BulletSnapshot b : bullets) {
+			b.x = buffer.getDouble();
+		}
+		for (BulletSnapshot b : bullets) {
+			b.y = buffer.getDouble();
+		}
+		for (BulletSnapshot b : bullets) {
+			b.paintX = buffer.getDouble();
+		}
+		for (BulletSnapshot b : bullets) {
+			b.paintY = buffer.getDouble();
+		}
+		for (BulletSnapshot b : bullets) {
+			b.heading = buffer.getDouble();
+		}
+		for (BulletSnapshot b : bullets) {
+			b.color = buffer.getInt();
+		}
+		for (BulletSnapshot b : bullets) {
+			b.frame = buffer.getInt();
+		}
+		for (BulletSnapshot b : bullets) {
+			b.explosionImageIndex = buffer.getInt();
+		}
+		for (BulletSnapshot b : bullets) {
+			b.bulletId = buffer.getInt();
+		}
+		for (BulletSnapshot b : bullets) {
+			b.victimIndex = buffer.getInt();
+		}
+		for (BulletSnapshot b : bullets) {
+			b.ownerIndex = buffer.getInt();
+		}
+	}
 }
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.battle.snapshot;
+
+
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_CHAR;
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_INT;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Helpers for writing the variable sized values of snapshots into binary columns.
+ * Strings and byte arrays are prefixed with their length, where a length of -1 means {@code null}.
+ */
+final class ColumnBuffers {
+
+	private ColumnBuffers() {}
+
+	static int sizeOf(String value) {
+		return (value == null) ? SIZEOF_INT : SIZEOF_INT + value.length() * SIZEOF_CHAR;
+	}
+
+	static void putString(ByteBuffer buffer, String value) {
+		if (value == null) {
+			buffer.putInt(-1);
+		} else {
+			final int length = value.length();
+
+			buffer.putInt(length);
+			for (int i = 0; i < length; i++) {
+				buffer.putChar(value.charAt(i));
+			}
+		}
+	}
+
+	static String getString(ByteBuffer buffer) {
+		final int length = buffer.getInt();
+
+		if (length == -1) {
+			return null;
+		}
+		final char[] chars = new char[length];
+
+		buffer.asCharBuffer().get(chars);
+		buffer.position(buffer.position() + length * SIZEOF_CHAR);
+		return new String(chars);
+	}
+
+	static int sizeOf(byte[] value) {
+		return (value == null) ? SIZEOF_INT : SIZEOF_INT + value.length;
+	}
+
+	static void putBytes(ByteBuffer buffer, byte[] value) {
+		if (value == null) {
+			buffer.putInt(-1);
+		} else {
+			buffer.putInt(value.length);
+			buffer.put(value);
+		}
+	}
+
+	static byte[] getBytes(ByteBuffer buffer) {
+		final int length = buffer.getInt();
+
+		if (length == -1) {
+			return null;
+		}
+		final byte[] bytes = new byte[length];
+
+		buffer.get(bytes);
+		return bytes;
+	}
+}
@@ -22,9 +22,15 @@ import robocode.control.snapshot.RobotState;
 import java.awt.geom.Arc2D;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_BYTE;
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_DOUBLE;
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_INT;
+
 
 /**
  * A snapshot of a robot at a specific time instant in a battle.
@@ -39,6 +45,34 @@ public final class RobotSnapshot implements Serializable, IXmlSerializable, IRob
 
 	private static final long serialVersionUID = 2L;
 
+	// Bits of the flags column written by writeColumns()
+	private static final int FLAG_DROID = 1;
+	private static final int FLAG_SENTRY_ROBOT = 2;
+	private static final int FLAG_PAINT_ROBOT = 4;
+	private static final int FLAG_PAINT_ENABLED = 8;
+	private static final int FLAG_SG_PAINT_ENABLED = 16;
+	private static final int FLAG_SCAN_ARC = 32;
+
+	// Bits of the change mask written by writeDelta()
+	private static final int CHANGED_NAMES = 1;
+	private static final int CHANGED_INDEXES = 1 << 1;
+	private static final int CHANGED_ENERGY = 1 << 2;
+	private static final int CHANGED_VELOCITY = 1 << 3;
+	private static final int CHANGED_GUN_HEAT = 1 << 4;
+	private static final int CHANGED_BODY_HEADING = 1 << 5;
+	private static final int CHANGED_GUN_HEADING = 1 << 6;
+	private static final int CHANGED_RADAR_HEADING = 1 << 7;
+	private static final int CHANGED_X = 1 << 8;
+	private static final int CHANGED_Y = 1 << 9;
+	private static final int CHANGED_COLORS = 1 << 10;
+	private static final int CHANGED_SCAN_ARC = 1 << 11;
+	private static final int CHANGED_GRAPHICS_CALLS = 1 << 12;
+	private static final int CHANGED_DEBUG_PROPERTIES = 1 << 13;
+	private static final int CHANGED_OUTPUT = 1 << 14;
+	private static final int CHANGED_SCORE = 1 << 15;
+	private static final int CHANGED_DOUBLES = CHANGED_ENERGY | CHANGED_VELOCITY | CHANGED_GUN_HEAT
+			| CHANGED_BODY_HEADING | CHANGED_GUN_HEADING | CHANGED_RADAR_HEADING | CHANGED_X | CHANGED_Y;
+
 	/** The name of the robot */
 	private String name;
 
@@ -694,6 +728,550 @@ public final class RobotSnapshot implements Serializable, IXmlSerializable, IRob
 		});
 	}
 
+	/**
+	 * Returns the number of bytes needed for writing the specified robots with {@link #writeColumns}.
+	 */
+	static int sizeOfColumns(RobotSnapshot[] robots) {
+		int size = robots.length * (2 * SIZEOF_BYTE + 6 * SIZEOF_INT + 8 * SIZEOF_DOUBLE);
+
+		for (RobotSnapshot r : robots) {
+			if (r.scanArc != null) {
+				size += 6 * SIZEOF_DOUBLE + SIZEOF_INT;
+			}
+			size += ColumnBuffers.sizeOf(r.name);
+			size += ColumnBuffers.sizeOf(r.shortName);
+			size += ColumnBuffers.sizeOf(r.veryShortName);
+			size += ColumnBuffers.sizeOf(r.teamName);
+			size += ColumnBuffers.sizeOf(r.outputStreamSnapshot);
+			size += ColumnBuffers.sizeOf(getGraphicsCallsBytes(r));
+			size += sizeOfDebugProperties(r.debugProperties);
+		}
+		return size + ScoreSnapshot.sizeOfColumns(getScores(robots));
+	}
+
+	/**
+	 * Writes the specified robots column by column, i.e. the same field of all robots is written in sequence.
+	 * Fixed sized fields come first, so that they can be read without decoding the names and debug data.
+	 */
+	static void writeColumns(ByteBuffer buffer, RobotSnapshot[] robots) {
+		for (RobotSnapshot r : robots) {
+			buffer.put((byte) r.state.ordinal());
+		}
+		for (RobotSnapshot r : robots) {
+			buffer.put((byte) getFlags(r));
+		}
+		for (RobotSnapshot r : robots) {
+			buffer.putInt(r.robotIndex);
+		}
+		for (RobotSnapshot r : robots) {
+			buffer.putInt(r.teamIndex);
+		}
+		for (RobotSnapshot r : robots) {
+			buffer.putInt(r.bodyColor);
+		}
+		for (RobotSnapshot r : robots) {
+			buffer.putInt(r.gunColor);
+		}
+		for (RobotSnapshot r : robots) {
+			buffer.putInt(r.radarColor);
+		}
+		for (RobotSnapshot r : robots) {
+			buffer.putInt(r.scanColor);
+		}
+		for (RobotSnapshot r : robots) {
+			buffer.putDouble(r.energy);
+		}
+		for (RobotSnapshot r : robots) {
+			buffer.putDouble(r.velocity);
+		}
+		for (RobotSnapshot r : robots) {
+			buffer.putDouble(r.gunHeat);
+		}
+		for (RobotSnapshot r : robots) {
+			buffer.putDouble(r.bodyHeading);
+		}
+		for (RobotSnapshot r : robots) {
+			buffer.putDouble(r.gunHeading);
+		}
+		for (RobotSnapshot r : robots) {
+			buffer.putDouble(r.radarHeading);
+		}
+		for (RobotSnapshot r : robots) {
+			buffer.putDouble(r.x);
+		}
+		for (RobotSnapshot r : robots) {
+			buffer.putDouble(r.y);
+		}
+		for (RobotSnapshot r : robots) {
+			putScanArc(buffer, r.scanArc);
+		}
+		ScoreSnapshot.writeColumns(buffer, getScores(robots));
+
+		for (RobotSnapshot r : robots) {
+			ColumnBuffers.putString(buffer, r.name);
+		}
+		for (RobotSnapshot r : robots) {
+			ColumnBuffers.putString(buffer, r.shortName);
+		}
+		for (RobotSnapshot r : robots) {
+			ColumnBuffers.putString(buffer, r.veryShortName);
+		}
+		for (RobotSnapshot r : robots) {
+			ColumnBuffers.putString(buffer, r.teamName);
+		}
+		for (RobotSnapshot r : robots) {
+			ColumnBuffers.putString(buffer, r.outputStreamSnapshot);
+		}
+		for (RobotSnapshot r : robots) {
+			ColumnBuffers.putBytes(buffer, getGraphicsCallsBytes(r));
+		}
+		for (RobotSnapshot r : robots) {
+			putDebugProperties(buffer, r.debugProperties);
+		}
+	}
+
+	/**
+	 * Reads robots written with {@link #writeColumns} into the specified, newly created robots.
+	 */
+	static void readColumns(ByteBuffer buffer, RobotSnapshot[] robots) {
+		final RobotState[] states = RobotState.values();
+
+		for (RobotSnapshot r : robots) {
+			r.state = states[buffer.get()];
+		}
+		final byte[] flags = new byte[robots.length];
+
+		buffer.get(flags);
+		for (int i = 0; i < robots.length; i++) {
+			setFlags(robots[i], flags[i]);
+		}
+		for (RobotSnapshot r : robots) {
+			r.robotIndex = buffer.getInt();
+		}
+		for (RobotSnapshot r : robots) {
+			r.teamIndex = buffer.getInt();
+		}
+		for (RobotSnapshot r : robots) {
+			r.bodyColor = buffer.getInt();
+		}
+		for (RobotSnapshot r : robots) {
+			r.gunColor = buffer.getInt();
+		}
+		for (RobotSnapshot r : robots) {
+			r.radarColor = buffer.getInt();
+		}
+		for (RobotSnapshot r : robots) {
+			r.scanColor = buffer.getInt();
+		}
+		for (RobotSnapshot r : robots) {
+			r.energy = buffer.getDouble();
+		}
+		for (RobotSnapshot r : robots) {
+			r.velocity = buffer.getDouble();
+		}
+		for (RobotSnapshot r : robots) {
+			r.gunHeat = buffer.getDouble();
+		}
+		for (RobotSnapshot r : robots) {
+			r.bodyHeading = buffer.getDouble();
+		}
+		for (RobotSnapshot r : robots) {
+			r.gunHeading = buffer.getDouble();
+		}
+		for (RobotSnapshot r : robots) {
+			r.radarHeading = buffer.getDouble();
+		}
+		for (RobotSnapshot r : robots) {
+			r.x = buffer.getDouble();
+		}
+		for (RobotSnapshot r : robots) {
+			r.y = buffer.getDouble();
+		}
+		for (int i = 0; i < robots.length; i++) {
+			if ((flags[i] & FLAG_SCAN_ARC) != 0) {
+				robots[i].scanArc = getScanArc(buffer);
+			}
+		}
+		final ScoreSnapshot[] scores = new ScoreSnapshot[robots.length];
+
+		for (int i = 0; i < robots.length; i++) {
+			scores[i] = new ScoreSnapshot();
+			robots[i].robotScoreSnapshot = scores[i];
+		}
+		ScoreSnapshot.readColumns(buffer, scores);
+
+		for (RobotSnapshot r : robots) {
+			r.name = ColumnBuffers.getString(buffer);
+		}
+		for (RobotSnapshot r : robots) {
+			r.shortName = ColumnBuffers.getString(buffer);
+		}
+		for (RobotSnapshot r : robots) {
+			r.veryShortName = ColumnBuffers.getString(buffer);
+		}
+		for (RobotSnapshot r : robots) {
+			r.teamName = ColumnBuffers.getString(buffer);
+		}
+		for (RobotSnapshot r : robots) {
+			r.outputStreamSnapshot = ColumnBuffers.getString(buffer);
+		}
+		for (RobotSnapshot r : robots) {
+			r.graphicsCalls = ColumnBuffers.getBytes(buffer);
+		}
+		for (RobotSnapshot r : robots) {
+			r.debugProperties = getDebugProperties(buffer);
+		}
+	}
+
+	/**
+	 * Returns the number of bytes needed for writing the changes of a robot with {@link #writeDelta}.
+	 */
+	static int sizeOfDelta(RobotSnapshot robot, RobotSnapshot previous) {
+		final int changes = getChanges(robot, previous);
+
+		int size = 2 * SIZEOF_BYTE + SIZEOF_INT;
+
+		if ((changes & CHANGED_NAMES) != 0) {
+			size += ColumnBuffers.sizeOf(robot.name) + ColumnBuffers.sizeOf(robot.shortName)
+					+ ColumnBuffers.sizeOf(robot.veryShortName) + ColumnBuffers.sizeOf(robot.teamName);
+		}
+		if ((changes & CHANGED_INDEXES) != 0) {
+			size += 2 * SIZEOF_INT;
+		}
+		size += Integer.bitCount(changes & CHANGED_DOUBLES) * SIZEOF_DOUBLE;
+		if ((changes & CHANGED_COLORS) != 0) {
+			size += 4 * SIZEOF_INT;
+		}
+		if ((changes & CHANGED_SCAN_ARC) != 0 && robot.scanArc != null) {
+			size += 6 * SIZEOF_DOUBLE + SIZEOF_INT;
+		}
+		if ((changes & CHANGED_GRAPHICS_CALLS) != 0) {
+			size += ColumnBuffers.sizeOf(getGraphicsCallsBytes(robot));
+		}
+		if ((changes & CHANGED_DEBUG_PROPERTIES) != 0) {
+			size += sizeOfDebugProperties(robot.debugProperties);
+		}
+		if ((changes & CHANGED_OUTPUT) != 0) {
+			size += ColumnBuffers.sizeOf(robot.outputStreamSnapshot);
+		}
+		if ((changes & CHANGED_SCORE) != 0) {
+			size += ScoreSnapshot.sizeOfColumns(new ScoreSnapshot[] { getScore(robot) });
+		}
+		return size;
+	}
+
+	/**
+	 * Writes the fields of a robot that have changed since the previous snapshot of the same robot.
+	 * The state and flags are always written, as they are cheap and the flags can be modified by the replay.
+	 */
+	static void writeDelta(ByteBuffer buffer, RobotSnapshot robot, RobotSnapshot previous) {
+		final int changes = getChanges(robot, previous);
+
+		buffer.put((byte) robot.state.ordinal());
+		buffer.put((byte) getFlags(robot));
+		buffer.putInt(changes);
+
+		if ((changes & CHANGED_NAMES) != 0) {
+			ColumnBuffers.putString(buffer, robot.name);
+			ColumnBuffers.putString(buffer, robot.shortName);
+			ColumnBuffers.putString(buffer, robot.veryShortName);
+			ColumnBuffers.putString(buffer, robot.teamName);
+		}
+		if ((changes & CHANGED_INDEXES) != 0) {
+			buffer.putInt(robot.robotIndex);
+			buffer.putInt(robot.teamIndex);
+		}
+		if ((changes & CHANGED_ENERGY) != 0) {
+			buffer.putDouble(robot.energy);
+		}
+		if ((changes & CHANGED_VELOCITY) != 0) {
+			buffer.putDouble(robot.velocity);
+		}
+		if ((changes & CHANGED_GUN_HEAT) != 0) {
+			buffer.putDouble(robot.gunHeat);
+		}
+		if ((changes & CHANGED_BODY_HEADING) != 0) {
+			buffer.putDouble(robot.bodyHeading);
+		}
+		if ((changes & CHANGED_GUN_HEADING) != 0) {
+			buffer.putDouble(robot.gunHeading);
+		}
+		if ((changes & CHANGED_RADAR_HEADING) != 0) {
+			buffer.putDouble(robot.radarHeading);
+		}
+		if ((changes & CHANGED_X) != 0) {
+			buffer.putDouble(robot.x);
+		}
+		if ((changes & CHANGED_Y) != 0) {
+			buffer.putDouble(robot.y);
+		}
+		if ((changes & CHANGED_COLORS) != 0) {
+			buffer.putInt(robot.bodyColor);
+			buffer.putInt(robot.gunColor);
+			buffer.putInt(robot.radarColor);
+			buffer.putInt(robot.scanColor);
+		}
+		if ((changes & CHANGED_SCAN_ARC) != 0) {
+			putScanArc(buffer, robot.scanArc);
+		}
+		if ((changes & CHANGED_GRAPHICS_CALLS) != 0) {
+			ColumnBuffers.putBytes(buffer, getGraphicsCallsBytes(robot));
+		}
+		if ((changes & CHANGED_DEBUG_PROPERTIES) != 0) {
+			putDebugProperties(buffer, robot.debugProperties);
+		}
+		if ((changes & CHANGED_OUTPUT) != 0) {
+			ColumnBuffers.putString(buffer, robot.outputStreamSnapshot);
+		}
+		if ((changes & CHANGED_SCORE) != 0) {
+			ScoreSnapshot.writeColumns(buffer, new ScoreSnapshot[] { getScore(robot) });
+		}
+	}
+
+	/**
+	 * Reads a robot written with {@link #writeDelta}, where unchanged fields are taken from the previous snapshot.
+	 */
+	static RobotSnapshot readDelta(ByteBuffer buffer, RobotSnapshot previous) {
+		final RobotSnapshot robot = new RobotSnapshot();
+
+		robot.state = RobotState.values()[buffer.get()];
+		final int flags = buffer.get();
+
+		setFlags(robot, flags);
+		final int changes = buffer.getInt();
+
+		if ((changes & CHANGED_NAMES) != 0) {
+			robot.name = ColumnBuffers.getString(buffer);
+			robot.shortName = ColumnBuffers.getString(buffer);
+			robot.veryShortName = ColumnBuffers.getString(buffer);
+			robot.teamName = ColumnBuffers.getString(buffer);
+		} else {
+			robot.name = previous.name;
+			robot.shortName = previous.shortName;
+			robot.veryShortName = previous.veryShortName;
+			robot.teamName = previous.teamName;
+		}
+		if ((changes & CHANGED_INDEXES) != 0) {
+			robot.robotIndex = buffer.getInt();
+			robot.teamIndex = buffer.getInt();
+		} else {
+			robot.robotIndex = previous.robotIndex;
+			robot.teamIndex = previous.teamIndex;
+		}
+		robot.energy = ((changes & CHANGED_ENERGY) != 0) ? buffer.getDouble() : previous.energy;
+		robot.velocity = ((changes & CHANGED_VELOCITY) != 0) ? buffer.getDouble() : previous.velocity;
+		robot.gunHeat = ((changes & CHANGED_GUN_HEAT) != 0) ? buffer.getDouble() : previous.gunHeat;
+		robot.bodyHeading = ((changes & CHANGED_BODY_HEADING) != 0) ? buffer.getDouble() : previous.bodyHeading;
+		robot.gunHeading = ((changes & CHANGED_GUN_HEADING) != 0) ? buffer.getDouble() : previous.gunHeading;
+		robot.radarHeading = ((changes & CHANGED_RADAR_HEADING) != 0) ? buffer.getDouble() : previous.radarHeading;
+		robot.x = ((changes & CHANGED_X) != 0) ? buffer.getDouble() : previous.x;
+		robot.y = ((changes & CHANGED_Y) != 0) ? buffer.getDouble() : previous.y;
+
+		if ((changes & CHANGED_COLORS) != 0) {
+			robot.bodyColor = buffer.getInt();
+			robot.gunColor = buffer.getInt();
+			robot.radarColor = buffer.getInt();
+			robot.scanColor = buffer.getInt();
+		} else {
+			robot.bodyColor = previous.bodyColor;
+			robot.gunColor = previous.gunColor;
+			robot.radarColor = previous.radarColor;
+			robot.scanColor = previous.scanColor;
+		}
+		if ((changes & CHANGED_SCAN_ARC) != 0) {
+			robot.scanArc = ((flags & FLAG_SCAN_ARC) != 0) ? getScanArc(buffer) : null;
+		} else {
+			robot.scanArc = previous.scanArc;
+		}
+		robot.graphicsCalls = ((changes & CHANGED_GRAPHICS_CALLS) != 0)
+				? ColumnBuffers.getBytes(buffer)
+				: previous.graphicsCalls;
+		robot.debugProperties = ((changes & CHANGED_DEBUG_PROPERTIES) != 0)
+				? getDebugProperties(buffer)
+				: previous.debugProperties;
+		robot.outputStreamSnapshot = ((changes & CHANGED_OUTPUT) != 0)
+				? ColumnBuffers.getString(buffer)
+				: previous.outputStreamSnapshot;
+		if ((changes & CHANGED_SCORE) != 0) {
+			final ScoreSnapshot[] score = { new ScoreSnapshot() };
+
+			ScoreSnapshot.readColumns(buffer, score);
+			robot.robotScoreSnapshot = score[0];
+		} else {
+			robot.robotScoreSnapshot = previous.robotScoreSnapshot;
+		}
+
+		return robot;
+	}
+
+	private static int getChanges(RobotSnapshot r, RobotSnapshot p) {
+		int changes = 0;
+
+		if (!equals(r.name, p.name) || !equals(r.shortName, p.shortName)
+				|| !equals(r.veryShortName, p.veryShortName) || !equals(r.teamName, p.teamName)) {
+			changes |= CHANGED_NAMES;
+		}
+		if (r.robotIndex != p.robotIndex || r.teamIndex != p.teamIndex) {
+			changes |= CHANGED_INDEXES;
+		}
+		changes |= changed(r.energy, p.energy, CHANGED_ENERGY);
+		changes |= changed(r.velocity, p.velocity, CHANGED_VELOCITY);
+		changes |= changed(r.gunHeat, p.gunHeat, CHANGED_GUN_HEAT);
+		changes |= changed(r.bodyHeading, p.bodyHeading, CHANGED_BODY_HEADING);
+		changes |= changed(r.gunHeading, p.gunHeading, CHANGED_GUN_HEADING);
+		changes |= changed(r.radarHeading, p.radarHeading, CHANGED_RADAR_HEADING);
+		changes |= changed(r.x, p.x, CHANGED_X);
+		changes |= changed(r.y, p.y, CHANGED_Y);
+
+		if (r.bodyColor != p.bodyColor || r.gunColor != p.gunColor || r.radarColor != p.radarColor
+				|| r.scanColor != p.scanColor) {
+			changes |= CHANGED_COLORS;
+		}
+		if (!equals(r.scanArc, p.scanArc)) {
+			changes |= CHANGED_SCAN_ARC;
+		}
+		if (!Arrays.equals(getGraphicsCallsBytes(r), getGraphicsCallsBytes(p))) {
+			changes |= CHANGED_GRAPHICS_CALLS;
+		}
+		if (!equals(r.debugProperties, p.debugProperties)) {
+			changes |= CHANGED_DEBUG_PROPERTIES;
+		}
+		if (!equals(r.outputStreamSnapshot, p.outputStreamSnapshot)) {
+			changes |= CHANGED_OUTPUT;
+		}
+		if (!getScore(r).isSameScore(getScore(p))) {
+			changes |= CHANGED_SCORE;
+		}
+		return changes;
+	}
+
+	private static int changed(double value, double previous, int bit) {
+		// Compares the bits, so that NaN values and negative zeros are handled exactly
+		return (Double.doubleToRawLongBits(value) != Double.doubleToRawLongBits(previous)) ? bit : 0;
+	}
+
+	private static boolean equals(Object o1, Object o2) {
+		return (o1 == null) ? (o2 == null) : o1.equals(o2);
+	}
+
+	private static boolean equals(SerializableArc a1, SerializableArc a2) {
+		if (a1 == null || a2 == null) {
+			return a1 == a2;
+		}
+		return a1.type == a2.type && changed(a1.x, a2.x, 1) == 0 && changed(a1.y, a2.y, 1) == 0
+				&& changed(a1.w, a2.w, 1) == 0 && changed(a1.h, a2.h, 1) == 0 && changed(a1.start, a2.start, 1) == 0
+				&& changed(a1.extent, a2.extent, 1) == 0;
+	}
+
+	private static boolean equals(DebugProperty[] p1, DebugProperty[] p2) {
+		if (p1 == null || p2 == null) {
+			return p1 == p2;
+		}
+		if (p1.length != p2.length) {
+			return false;
+		}
+		for (int i = 0; i < p1.length; i++) {
+			if (!equals(p1[i].getKey(), p2[i].getKey()) || !equals(p1[i].getValue(), p2[i].getValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int getFlags(RobotSnapshot robot) {
+		return (robot.isDroid ? FLAG_DROID : 0) | (robot.isSentryRobot ? FLAG_SENTRY_ROBOT : 0)
+				| (robot.isPaintRobot ? FLAG_PAINT_ROBOT : 0) | (robot.isPaintEnabled ? FLAG_PAINT_ENABLED : 0)
+				| (robot.isSGPaintEnabled ? FLAG_SG_PAINT_ENABLED : 0) | (robot.scanArc != null ? FLAG_SCAN_ARC : 0);
+	}
+
+	private static void setFlags(RobotSnapshot robot, int flags) {
+		robot.isDroid = (flags & FLAG_DROID) != 0;
+		robot.isSentryRobot = (flags & FLAG_SENTRY_ROBOT) != 0;
+		robot.isPaintRobot = (flags & FLAG_PAINT_ROBOT) != 0;
+		robot.isPaintEnabled = (flags & FLAG_PAINT_ENABLED) != 0;
+		robot.isSGPaintEnabled = (flags & FLAG_SG_PAINT_ENABLED) != 0;
+	}
+
+	private static void putScanArc(ByteBuffer buffer, SerializableArc arc) {
+		if (arc != null) {
+			buffer.putDouble(arc.x);
+			buffer.putDouble(arc.y);
+			buffer.putDouble(arc.w);
+			buffer.putDouble(arc.h);
+			buffer.putDouble(arc.start);
+			buffer.putDouble(arc.extent);
+			buffer.putInt(arc.type);
+		}
+	}
+
+	private static SerializableArc getScanArc(ByteBuffer buffer) {
+		return new SerializableArc(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+				buffer.getDouble(), buffer.getDouble(), buffer.getInt());
+	}
+
+	private static int sizeOfDebugProperties(DebugProperty[] properties) {
+		int size = SIZEOF_INT;
+
+		if (properties != null) {
+			for (DebugProperty property : properties) {
+				size += ColumnBuffers.sizeOf(property.getKey()) + ColumnBuffers.sizeOf(property.getValue());
+			}
+		}
+		return size;
+	}
+
+	private static void putDebugProperties(ByteBuffer buffer, DebugProperty[] properties) {
+		if (properties == null) {
+			buffer.putInt(-1);
+		} else {
+			buffer.putInt(properties.length);
+			for (DebugProperty property : properties) {
+				ColumnBuffers.putString(buffer, property.getKey());
+				ColumnBuffers.putString(buffer, property.getValue());
+			}
+		}
+	}
+
+	private static DebugProperty[] getDebugProperties(ByteBuffer buffer) {
+		final int count = buffer.getInt();
+
+		if (count < 0) {
+			return null;
+		}
+		final DebugProperty[] properties = new DebugProperty[count];
+
+		for (int i = 0; i < count; i++) {
+			properties[i] = new DebugProperty(ColumnBuffers.getString(buffer), ColumnBuffers.getString(buffer));
+		}
+		return properties;
+	}
+
+	private static ScoreSnapshot getScore(RobotSnapshot robot) {
+		final IScoreSnapshot score = robot.robotScoreSnapshot;
+
+		return (score instanceof ScoreSnapshot) ? (ScoreSnapshot) score : new ScoreSnapshot(robot.name);
+	}
+
+	private static byte[] getGraphicsCallsBytes(RobotSnapshot robot) {
+		final Object graphicsCalls = robot.graphicsCalls;
+
+		// The queued graphics calls are always serialized as a byte array, like ExecCommands does
+		if (graphicsCalls != null && !(graphicsCalls instanceof byte[])) {
+			throw new IllegalStateException("Graphics calls of type " + graphicsCalls.getClass().getName()
+					+ " cannot be serialized");
+		}
+		return (byte[]) graphicsCalls;
+	}
+
+	private static ScoreSnapshot[] getScores(RobotSnapshot[] robots) {
+		final ScoreSnapshot[] scores = new ScoreSnapshot[robots.length];
+
+		for (int i = 0; i < robots.length; i++) {
+			scores[i] = getScore(robots[i]);
+		}
+		return scores;
+	}
+
 	/**
 	 * Class used for serializing an Arc2D.double.
 	 * The purpose of this class is to overcome various serialization problems with Arc2D to cope with bug in Java 6:
@@ -722,6 +1300,16 @@ public final class RobotSnapshot implements Serializable, IXmlSerializable, IRob
 			type = arc.getArcType();
 		}
 
+		SerializableArc(double x, double y, double w, double h, double start, double extent, int type) {
+			this.x = x;
+			this.y = y;
+			this.w = w;
+			this.h = h;
+			this.start = start;
+			this.extent = extent;
+			this.type = type;
+		}
+
 		public Arc2D create() {
 			return new Arc2D.Double(x, y, w, h, start, extent, type);
 		}
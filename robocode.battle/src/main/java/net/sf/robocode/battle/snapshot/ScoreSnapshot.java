@@ -17,6 +17,10 @@ import robocode.control.snapshot.IScoreSnapshot;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_DOUBLE;
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_INT;
 
 
 /**
@@ -341,6 +345,163 @@ final class ScoreSnapshot implements Serializable, IXmlSerializable, IScoreSnaps
 		writer.endElement();
 	}
 
+	/**
+	 * Returns the number of bytes needed for writing the specified scores with {@link #writeColumns}.
+	 */
+	static int sizeOfColumns(ScoreSnapshot[] scores) {
+		int size = scores.length * (14 * SIZEOF_DOUBLE + 3 * SIZEOF_INT);
+
+		for (ScoreSnapshot score : scores) {
+			size += ColumnBuffers.sizeOf(score.name);
+		}
+		return size;
+	}
+
+	/**
+	 * Writes the specified scores column by column, i.e. the same field of all scores is written in sequence.
+	 */
+	static void writeColumns(ByteBuffer buffer, ScoreSnapshot[] scores) {
+		for (ScoreSnapshot s : scores) {
+			buffer.putDouble(s.totalScore);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putDouble(s.totalSurvivalScore);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putDouble(s.totalLastSurvivorBonus);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putDouble(s.totalBulletDamageScore);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putDouble(s.totalBulletKillBonus);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putDouble(s.totalRammingDamageScore);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putDouble(s.totalRammingKillBonus);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putInt(s.totalFirsts);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putInt(s.totalSeconds);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putInt(s.totalThirds);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putDouble(s.currentScore);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putDouble(s.currentSurvivalScore);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putDouble(s.currentSurvivalBonus);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putDouble(s.currentBulletDamageScore);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putDouble(s.currentBulletKillBonus);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putDouble(s.currentRammingDamageScore);
+		}
+		for (ScoreSnapshot s : scores) {
+			buffer.putDouble(s.currentRammingKillBonus);
+		}
+		for (ScoreSnapshot s : scores) {
+			ColumnBuffers.putString(buffer, s.name);
+		}
+	}
+
+	/**
+	 * Reads scores written with {@link #writeColumns} into the specified, newly created scores.
+	 */
+	static void readColumns(ByteBuffer buffer, ScoreSnapshot[] scores) {
+		for (ScoreSnapshot s : scores) {
+			s.totalScore = buffer.getDouble();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.totalSurvivalScore = buffer.getDouble();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.totalLastSurvivorBonus = buffer.getDouble();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.totalBulletDamageScore = buffer.getDouble();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.totalBulletKillBonus = buffer.getDouble();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.totalRammingDamageScore = buffer.getDouble();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.totalRammingKillBonus = buffer.getDouble();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.totalFirsts = buffer.getInt();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.totalSeconds = buffer.getInt();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.totalThirds = buffer.getInt();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.currentScore = buffer.getDouble();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.currentSurvivalScore = buffer.getDouble();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.currentSurvivalBonus = buffer.getDouble();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.currentBulletDamageScore = buffer.getDouble();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.currentBulletKillBonus = buffer.getDouble();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.currentRammingDamageScore = buffer.getDouble();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.currentRammingKillBonus = buffer.getDouble();
+		}
+		for (ScoreSnapshot s : scores) {
+			s.name = ColumnBuffers.getString(buffer);
+		}
+	}
+
+	/**
+	 * Checks if this score holds exactly the same values as another score.
+	 * Used for leaving out unchanged scores from delta encoded turns.
+	 */
+	boolean isSameScore(ScoreSnapshot other) {
+		return same(totalScore, other.totalScore) && same(totalSurvivalScore, other.totalSurvivalScore)
+				&& same(totalLastSurvivorBonus, other.totalLastSurvivorBonus)
+				&& same(totalBulletDamageScore, other.totalBulletDamageScore)
+				&& same(totalBulletKillBonus, other.totalBulletKillBonus)
+				&& same(totalRammingDamageScore, other.totalRammingDamageScore)
+				&& same(totalRammingKillBonus, other.totalRammingKillBonus) && totalFirsts == other.totalFirsts
+				&& totalSeconds == other.totalSeconds && totalThirds == other.totalThirds
+				&& same(currentScore, other.currentScore) && same(currentSurvivalScore, other.currentSurvivalScore)
+				&& same(currentSurvivalBonus, other.currentSurvivalBonus)
+				&& same(currentBulletDamageScore, other.currentBulletDamageScore)
+				&& same(currentBulletKillBonus, other.currentBulletKillBonus)
+				&& same(currentRammingDamageScore, other.currentRammingDamageScore)
+				&& same(currentRammingKillBonus, other.currentRammingKillBonus)
+				&& (name == null ? other.name == null : name.equals(other.name));
+	}
+
+	private static boolean same(double d1, double d2) {
+		return Double.doubleToRawLongBits(d1) == Double.doubleToRawLongBits(d2);
+	}
+
 	// allows loading of minimalistic XML
 	ScoreSnapshot(String contestantName) {
 		this.name = contestantName;
@@ -18,8 +18,11 @@ import net.sf.robocode.serialization.XmlWriter;
 import robocode.control.snapshot.*;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.*;
 
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_INT;
+
 
 /**
  * A snapshot of a battle turn at a specific time instant in a battle.
@@ -170,6 +173,171 @@ public final class TurnSnapshot implements java.io.Serializable, IXmlSerializabl
 		}
 	}
 
+	/**
+	 * Returns the number of bytes needed for writing this snapshot with {@link #writeBinary(ByteBuffer)}.
+	 *
+	 * @return the size of this snapshot in bytes.
+	 */
+	public int sizeOfBinary() {
+		return 5 * SIZEOF_INT + RobotSnapshot.sizeOfColumns(getRobotSnapshots())
+				+ BulletSnapshot.sizeOfColumns(getBulletSnapshots());
+	}
+
+	/**
+	 * Writes this snapshot in the compact binary format used by battle records.
+	 * The robots and bullets are written column by column, i.e. the same field of all robots or bullets is written
+	 * in sequence.
+	 *
+	 * @param buffer the buffer to write to, which must have {@link #sizeOfBinary()} bytes remaining.
+	 */
+	public void writeBinary(ByteBuffer buffer) {
+		final RobotSnapshot[] robotSnapshots = getRobotSnapshots();
+		final BulletSnapshot[] bulletSnapshots = getBulletSnapshots();
+
+		buffer.putInt(round);
+		buffer.putInt(turn);
+		buffer.putInt(tps);
+
+		buffer.putInt(robotSnapshots.length);
+		RobotSnapshot.writeColumns(buffer, robotSnapshots);
+
+		buffer.putInt(bulletSnapshots.length);
+		BulletSnapshot.writeColumns(buffer, bulletSnapshots);
+	}
+
+	/**
+	 * Reads a snapshot written with {@link #writeBinary(ByteBuffer)}.
+	 *
+	 * @param buffer the buffer to read from.
+	 * @return the snapshot read from the buffer.
+	 */
+	public static TurnSnapshot readBinary(ByteBuffer buffer) {
+		final TurnSnapshot snapshot = new TurnSnapshot();
+
+		snapshot.round = buffer.getInt();
+		snapshot.turn = buffer.getInt();
+		snapshot.tps = buffer.getInt();
+
+		final RobotSnapshot[] robotSnapshots = new RobotSnapshot[buffer.getInt()];
+
+		for (int i = 0; i < robotSnapshots.length; i++) {
+			robotSnapshots[i] = new RobotSnapshot();
+		}
+		RobotSnapshot.readColumns(buffer, robotSnapshots);
+		snapshot.robots = new ArrayList<IRobotSnapshot>(Arrays.asList(robotSnapshots));
+
+		final BulletSnapshot[] bulletSnapshots = new BulletSnapshot[buffer.getInt()];
+
+		for (int i = 0; i < bulletSnapshots.length; i++) {
+			bulletSnapshots[i] = new BulletSnapshot();
+		}
+		BulletSnapshot.readColumns(buffer, bulletSnapshots);
+		snapshot.bullets = new ArrayList<IBulletSnapshot>(Arrays.asList(bulletSnapshots));
+
+		return snapshot;
+	}
+
+	/**
+	 * Checks if this snapshot can be written as a delta against the specified snapshot with
+	 * {@link #writeBinaryDelta(ByteBuffer, TurnSnapshot)}, which requires the same robots within the same round.
+	 *
+	 * @param previous the previous snapshot, or {@code null}.
+	 * @return {@code true} if this snapshot can be delta encoded against the previous snapshot; {@code false} otherwise.
+	 */
+	public boolean canWriteBinaryDelta(TurnSnapshot previous) {
+		return previous != null && previous.round == round
+				&& previous.getRobotSnapshots().length == getRobotSnapshots().length;
+	}
+
+	/**
+	 * Returns the number of bytes needed for writing this snapshot with
+	 * {@link #writeBinaryDelta(ByteBuffer, TurnSnapshot)}.
+	 *
+	 * @param previous the previous snapshot to write the changes against.
+	 * @return the size of the delta in bytes.
+	 */
+	public int sizeOfBinaryDelta(TurnSnapshot previous) {
+		final RobotSnapshot[] robotSnapshots = getRobotSnapshots();
+		final RobotSnapshot[] previousRobotSnapshots = previous.getRobotSnapshots();
+
+		int size = 4 * SIZEOF_INT + BulletSnapshot.sizeOfColumns(getBulletSnapshots());
+
+		for (int i = 0; i < robotSnapshots.length; i++) {
+			size += RobotSnapshot.sizeOfDelta(robotSnapshots[i], previousRobotSnapshots[i]);
+		}
+		return size;
+	}
+
+	/**
+	 * Writes the changes of this snapshot compared to a previous snapshot of the same round.
+	 * Only the robot fields that have changed are written, whereas the bullets are always written in full, as most
+	 * of them move every turn anyway.
+	 * <p>
+	 * Deltas are only used for battle records. Battle listeners still receive fully built snapshots, and there is
+	 * no lazy snapshot view that decodes a delta on access.
+	 *
+	 * @param buffer the buffer to write to, which must have {@link #sizeOfBinaryDelta(TurnSnapshot)} bytes remaining.
+	 * @param previous the previous snapshot, for which {@link #canWriteBinaryDelta(TurnSnapshot)} must be true.
+	 */
+	public void writeBinaryDelta(ByteBuffer buffer, TurnSnapshot previous) {
+		final RobotSnapshot[] robotSnapshots = getRobotSnapshots();
+		final RobotSnapshot[] previousRobotSnapshots = previous.getRobotSnapshots();
+		final BulletSnapshot[] bulletSnapshots = getBulletSnapshots();
+
+		buffer.putInt(turn);
+		buffer.putInt(tps);
+
+		buffer.putInt(robotSnapshots.length);
+		for (int i = 0; i < robotSnapshots.length; i++) {
+			RobotSnapshot.writeDelta(buffer, robotSnapshots[i], previousRobotSnapshots[i]);
+		}
+
+		buffer.putInt(bulletSnapshots.length);
+		BulletSnapshot.writeColumns(buffer, bulletSnapshots);
+	}
+
+	/**
+	 * Reads a snapshot written with {@link #writeBinaryDelta(ByteBuffer, TurnSnapshot)}.
+	 *
+	 * @param buffer the buffer to read from.
+	 * @param previous the same previous snapshot as the delta was written against.
+	 * @return the snapshot read from the buffer.
+	 */
+	public static TurnSnapshot readBinaryDelta(ByteBuffer buffer, TurnSnapshot previous) {
+		final TurnSnapshot snapshot = new TurnSnapshot();
+		final RobotSnapshot[] previousRobotSnapshots = previous.getRobotSnapshots();
+
+		snapshot.round = previous.round;
+		snapshot.turn = buffer.getInt();
+		snapshot.tps = buffer.getInt();
+
+		final RobotSnapshot[] robotSnapshots = new RobotSnapshot[buffer.getInt()];
+
+		for (int i = 0; i < robotSnapshots.length; i++) {
+			robotSnapshots[i] = RobotSnapshot.readDelta(buffer, previousRobotSnapshots[i]);
+		}
+		snapshot.robots = new ArrayList<IRobotSnapshot>(Arrays.asList(robotSnapshots));
+
+		final BulletSnapshot[] bulletSnapshots = new BulletSnapshot[buffer.getInt()];
+
+		for (int i = 0; i < bulletSnapshots.length; i++) {
+			bulletSnapshots[i] = new BulletSnapshot();
+		}
+		BulletSnapshot.readColumns(buffer, bulletSnapshots);
+		snapshot.bullets = new ArrayList<IBulletSnapshot>(Arrays.asList(bulletSnapshots));
+
+		return snapshot;
+	}
+
+	private RobotSnapshot[] getRobotSnapshots() {
+		return (robots == null) ? new RobotSnapshot[0] : robots.toArray(new RobotSnapshot[robots.size()]);
+	}
+
+	private BulletSnapshot[] getBulletSnapshots() {
+		// Turns read from XML have no bullet list when there are no bullets
+		return (bullets == null) ? new BulletSnapshot[0] : bullets.toArray(new BulletSnapshot[bullets.size()]);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Writes the turns of a battle record with an {@link IndexedRecordWriter} on a dedicated writer thread, so the
+ * battle thread does not have to wait for the turns to be encoded and written to the file.
+ * <p/>
+ * The turns are handed over through a bounded ring buffer with a single producer, the battle thread, and a single
+ * consumer, the writer thread. The writer thread encodes all the turns that are available at a time, and flushes
+ * the file when a round ends. The battle thread only waits when the ring buffer is full.
+ */
+final class AsyncRecordWriter implements Closeable {
+
+	static final int DEFAULT_CAPACITY = 1024;
+
+	private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private final IndexedRecordWriter writer;
+	private final Thread writerThread;
+
+	private final TurnSnapshot[] turns;
+	private final int[] rounds;
+	private final int mask;
+
+	// The number of turns added by the battle thread, and the number of turns written by the writer thread
+	private final AtomicLong added = new AtomicLong();
+	private final AtomicLong written = new AtomicLong();
+
+	private volatile boolean writerWaiting;
+	private volatile Thread waitingBattleThread;
+	private volatile boolean closed;
+	private volatile IOException failure;
+
+	AsyncRecordWriter(File file) throws IOException {
+		this(file, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param file the file to write the record to.
+	 * @param capacity the number of turns that can be waiting to be written, which is rounded up to a power of 2.
+	 */
+	AsyncRecordWriter(File file, int capacity) throws IOException {
+		int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+
+		turns = new TurnSnapshot[size];
+		rounds = new int[size];
+		mask = size - 1;
+
+		writer = new IndexedRecordWriter(file);
+
+		writerThread = new Thread(new Runnable() {
+			public void run() {
+				writeTurns();
+			}
+		}, "Battle Recorder");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/**
+	 * Adds a turn to be written to the specified round. Turns must be added in order within each round.
+	 * This method only blocks when the writer thread is too far behind.
+	 *
+	 * @throws IOException if the writer thread has failed writing a previous turn.
+	 */
+	void writeTurn(TurnSnapshot turn, int round) throws IOException {
+		final long index = added.get();
+
+		while (index - written.get() >= turns.length) {
+			checkFailure();
+			waitingBattleThread = Thread.currentThread();
+			if (index - written.get() >= turns.length) {
+				LockSupport.parkNanos(this, PARK_NANOS);
+			}
+			waitingBattleThread = null;
+		}
+		checkFailure();
+
+		final int slot = (int) index & mask;
+
+		turns[slot] = turn;
+		rounds[slot] = round;
+		added.set(index + 1);
+
+		if (writerWaiting) {
+			LockSupport.unpark(writerThread);
+		}
+	}
+
+	/**
+	 * Waits for all added turns to be written, and then writes the index and closes the file.
+	 */
+	public void close() throws IOException {
+		closed = true;
+		LockSupport.unpark(writerThread);
+
+		boolean interrupted = false;
+
+		while (writerThread.isAlive()) {
+			try {
+				writerThread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			checkFailure();
+		} finally {
+			writer.close();
+		}
+	}
+
+	private void checkFailure() throws IOException {
+		final IOException e = failure;
+
+		if (e != null) {
+			throw e;
+		}
+	}
+
+	private void writeTurns() {
+		int previousRound = -1;
+
+		try {
+			while (true) {
+				final long start = written.get();
+				final long end = added.get();
+
+				if (start == end) {
+					if (closed) {
+						// Turns might have been added just before the record was closed
+						if (added.get() == start) {
+							break;
+						}
+						continue;
+					}
+					writerWaiting = true;
+					if (added.get() == start && !closed) {
+						LockSupport.parkNanos(this, PARK_NANOS);
+					}
+					writerWaiting = false;
+					continue;
+				}
+				for (long index = start; index < end; index++) {
+					final int slot = (int) index & mask;
+					final int round = rounds[slot];
+
+					if (round != previousRound && previousRound >= 0) {
+						writer.flush();
+					}
+					writer.writeTurn(turns[slot], round);
+					turns[slot] = null;
+					previousRound = round;
+				}
+				written.set(end);
+
+				final Thread battleThread = waitingBattleThread;
+
+				if (battleThread != null) {
+					LockSupport.unpark(battleThread);
+				}
+			}
+		} catch (IOException e) {
+			failure = e;
+		} catch (RuntimeException e) {
+			failure = new IOException(e.getMessage(), e);
+		}
+	}
+}
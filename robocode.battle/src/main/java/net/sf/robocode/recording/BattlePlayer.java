@@ -9,6 +9,7 @@ package net.sf.robocode.recording;
 
 
 import net.sf.robocode.battle.BaseBattle;
+import net.sf.robocode.battle.Command;
 import net.sf.robocode.battle.IBattleManager;
 import net.sf.robocode.battle.events.BattleEventDispatcher;
 import net.sf.robocode.battle.snapshot.RobotSnapshot;
@@ -30,6 +31,10 @@ public final class BattlePlayer extends BaseBattle {
 	private final RecordManager recordManager;
 	private boolean[] paint;
 
+	// Pending jump to another turn, where seekRound is -1 when there is none
+	private int seekRound = -1;
+	private int seekTurn;
+
 	public BattlePlayer(ISettingsManager properties, IBattleManager battleManager, RecordManager recordManager, BattleEventDispatcher eventDispatcher) { // NO_UCD (unused code)
 		super(
 				properties, battleManager, eventDispatcher);
@@ -72,7 +77,10 @@ public final class BattlePlayer extends BaseBattle {
 	protected void initializeRound() {
 		super.initializeRound();
 
-		final ITurnSnapshot snapshot = recordManager.readSnapshot(currentTime);
+		if (seekRound == getRoundNum()) {
+			applySeek();
+		}
+		final ITurnSnapshot snapshot = recordManager.readSnapshot(getRoundNum(), currentTime);
 
 		if (snapshot != null) {
 			eventDispatcher.onRoundStarted(new RoundStartedEvent(snapshot, getRoundNum()));
@@ -84,6 +92,11 @@ public final class BattlePlayer extends BaseBattle {
 		super.finalizeRound();
 
 		eventDispatcher.onRoundEnded(new RoundEndedEvent(getRoundNum(), getTime(), totalTurns));
+
+		if (seekRound >= 0 && seekRound != getRoundNum()) {
+			// Continue with the round to jump to, as the battle moves on to the next round
+			setRoundNum(seekRound - 1);
+		}
 	}
 
 	@Override
@@ -93,9 +106,18 @@ public final class BattlePlayer extends BaseBattle {
 		eventDispatcher.onTurnStarted(new TurnStartedEvent());
 	}
 
+	@Override
+	protected void runTurn() {
+		if (seekRound < 0) {
+			super.runTurn();
+		} else if (seekRound == getRoundNum()) {
+			applySeek();
+		}
+	}
+
 	@Override
 	protected void finalizeTurn() {
-		final ITurnSnapshot snapshot = recordManager.readSnapshot(currentTime);
+		final ITurnSnapshot snapshot = recordManager.readSnapshot(getRoundNum(), currentTime);
 
 		if (snapshot != null) {
 			final IRobotSnapshot[] robots = snapshot.getRobots();
@@ -113,6 +135,9 @@ public final class BattlePlayer extends BaseBattle {
 
 	@Override
 	protected boolean isRoundOver() {
+		if (seekRound >= 0 && seekRound != getRoundNum()) {
+			return true;
+		}
 		final boolean end = getTime() >= recordManager.recordInfo.turnsInRounds[getRoundNum()] - 1;
 
 		if (end) {
@@ -130,6 +155,44 @@ public final class BattlePlayer extends BaseBattle {
 		recordManager.cleanupStreams();
 	}
 
+	/**
+	 * Jumps to the specified turn of the record. The turn is read directly from the record, so jumping is equally
+	 * fast for any turn in any round.
+	 *
+	 * @param round the round to jump to, starting from 0.
+	 * @param turn the turn within the round to jump to, starting from 0.
+	 */
+	public void seek(int round, int turn) {
+		sendCommand(new SeekCommand(round, turn));
+		// Shows the turn to jump to, when paused
+		step();
+	}
+
+	private void applySeek() {
+		totalTurns += seekTurn - currentTime;
+		currentTime = seekTurn;
+		seekRound = -1;
+	}
+
+	private class SeekCommand extends Command {
+		final int round;
+		final int turn;
+
+		SeekCommand(int round, int turn) {
+			this.round = round;
+			this.turn = turn;
+		}
+
+		public void execute() {
+			final Integer[] turnsInRounds = recordManager.recordInfo.turnsInRounds;
+
+			if (round >= 0 && round < turnsInRounds.length && turn >= 0 && turn < turnsInRounds[round]) {
+				seekRound = round;
+				seekTurn = turn;
+			}
+		}
+	}
+
 	public void setPaintEnabled(int robotIndex, boolean enable) {
 		sendCommand(new EnableRobotPaintCommand(robotIndex, enable));
 	}
@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static net.sf.robocode.recording.IndexedRecordWriter.HEADER_SIZE;
+import static net.sf.robocode.recording.IndexedRecordWriter.MAGIC;
+import static net.sf.robocode.recording.IndexedRecordWriter.TRAILER_SIZE;
+import static net.sf.robocode.recording.IndexedRecordWriter.VERSION;
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_INT;
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_LONG;
+
+
+/**
+ * Reads battle records written by {@link IndexedRecordWriter}.
+ * <p/>
+ * The index is read when the file is opened, so any turn of any round can be read in constant time from the file
+ * channel without reading the turns before it. The file is not memory mapped, as a mapping cannot be released
+ * explicitly, and a mapped file cannot be deleted on some platforms until the mapping has been garbage collected.
+ * <p/>
+ * A delta turn is decoded from the nearest keyframe before it. The last decoded turn is kept, so that playing a
+ * round forwards decodes a single delta per turn. This class is not thread-safe.
+ */
+final class IndexedRecordReader implements Closeable {
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+
+	private final long[][] turnOffsets;
+	private final long infoOffset;
+
+	private int lastRound = -1;
+	private int lastTurn = -1;
+	private TurnSnapshot lastSnapshot;
+
+	IndexedRecordReader(File recordFile) throws IOException {
+		file = new RandomAccessFile(recordFile, "r");
+		channel = file.getChannel();
+
+		try {
+			final long size = channel.size();
+
+			if (size < HEADER_SIZE + TRAILER_SIZE) {
+				throw new IOException("Not an indexed battle record: " + recordFile);
+			}
+			final ByteBuffer header = read(0, HEADER_SIZE);
+
+			if (header.getInt() != MAGIC) {
+				throw new IOException("Not an indexed battle record: " + recordFile);
+			}
+			final int version = header.getInt();
+
+			if (version != VERSION) {
+				throw new IOException("Unsupported battle record version " + version + ": " + recordFile);
+			}
+			final ByteBuffer trailer = read(size - TRAILER_SIZE, TRAILER_SIZE);
+
+			infoOffset = trailer.getLong();
+			final long indexOffset = trailer.getLong();
+
+			if (trailer.getInt() != MAGIC || indexOffset < HEADER_SIZE || indexOffset > size - TRAILER_SIZE) {
+				throw new IOException("Incomplete battle record: " + recordFile);
+			}
+			final ByteBuffer index = read(indexOffset, (int) (size - TRAILER_SIZE - indexOffset));
+
+			turnOffsets = new long[index.getInt()][];
+			for (int round = 0; round < turnOffsets.length; round++) {
+				turnOffsets[round] = new long[index.getInt()];
+				index.asLongBuffer().get(turnOffsets[round]);
+				index.position(index.position() + turnOffsets[round].length * SIZEOF_LONG);
+			}
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		} catch (RuntimeException e) {
+			// Corrupt index
+			file.close();
+			throw new IOException("Corrupt battle record: " + recordFile, e);
+		}
+	}
+
+	/**
+	 * Checks if the specified file starts like an indexed battle record.
+	 */
+	static boolean isIndexedRecord(File recordFile) {
+		FileInputStream fis = null;
+
+		try {
+			fis = new FileInputStream(recordFile);
+			final byte[] magic = new byte[SIZEOF_INT];
+
+			return fis.read(magic) == SIZEOF_INT && ByteBuffer.wrap(magic).getInt() == MAGIC;
+		} catch (IOException e) {
+			return false;
+		} finally {
+			if (fis != null) {
+				try {
+					fis.close();
+				} catch (IOException ignore) {}
+			}
+		}
+	}
+
+	int getRoundsCount() {
+		return turnOffsets.length;
+	}
+
+	int getTurnsCount(int round) {
+		return (round >= 0 && round < turnOffsets.length) ? turnOffsets[round].length : 0;
+	}
+
+	/**
+	 * Reads the specified turn.
+	 *
+	 * @return the turn snapshot, or {@code null} if the record does not contain the turn.
+	 */
+	TurnSnapshot readTurn(int round, int turn) throws IOException {
+		if (turn < 0 || turn >= getTurnsCount(round)) {
+			return null;
+		}
+		if (round == lastRound && turn == lastTurn) {
+			return lastSnapshot;
+		}
+		// Find the turn to start decoding from, which is a keyframe or the turn following the last decoded turn
+		int start = turn;
+
+		while (readBlock(round, start).get() == IndexedRecordWriter.DELTA
+				&& !(round == lastRound && start - 1 == lastTurn)) {
+			if (--start < 0) {
+				throw new IOException("Battle record is missing a keyframe in round " + round);
+			}
+		}
+		TurnSnapshot snapshot = (round == lastRound && start - 1 == lastTurn) ? lastSnapshot : null;
+
+		for (int t = start; t <= turn; t++) {
+			final ByteBuffer buffer = readBlock(round, t);
+
+			if (buffer.get() == IndexedRecordWriter.KEYFRAME) {
+				snapshot = TurnSnapshot.readBinary(buffer);
+			} else {
+				snapshot = TurnSnapshot.readBinaryDelta(buffer, snapshot);
+			}
+		}
+		lastRound = round;
+		lastTurn = turn;
+		lastSnapshot = snapshot;
+
+		return snapshot;
+	}
+
+	private ByteBuffer readBlock(int round, int turn) throws IOException {
+		final long offset = turnOffsets[round][turn];
+		final int size = read(offset, SIZEOF_INT).getInt();
+
+		return read(offset + SIZEOF_INT, size);
+	}
+
+	/**
+	 * Reads the record info.
+	 *
+	 * @return the record info, or {@code null} if the record was written without record info.
+	 */
+	BattleRecordInfo readInfo() throws IOException, ClassNotFoundException {
+		if (infoOffset < 0) {
+			return null;
+		}
+		final int size = read(infoOffset, SIZEOF_INT).getInt();
+		final ByteBuffer bytes = read(infoOffset + SIZEOF_INT, size);
+		final ObjectInputStream ois = new ObjectInputStream(
+				new ByteArrayInputStream(bytes.array(), bytes.arrayOffset(), bytes.remaining()));
+
+		try {
+			return (BattleRecordInfo) ois.readObject();
+		} finally {
+			ois.close();
+		}
+	}
+
+	public void close() throws IOException {
+		file.close();
+	}
+
+	private ByteBuffer read(long position, int length) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(length);
+
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new EOFException();
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+}
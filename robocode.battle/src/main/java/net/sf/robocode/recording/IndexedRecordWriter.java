@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_BYTE;
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_INT;
+import static net.sf.robocode.serialization.RbSerializer.SIZEOF_LONG;
+
+
+/**
+ * Writes battle records in the indexed binary format, which can be read with random access by
+ * {@link IndexedRecordReader}.
+ * <p/>
+ * The file starts with a header holding a magic number and the format version, followed by one block per turn.
+ * Each turn block holds its size, its kind and the turn snapshot. A keyframe holds the full turn written with
+ * {@link TurnSnapshot#writeBinary}, whereas a delta holds only the changes since the previous turn written with
+ * {@link TurnSnapshot#writeBinaryDelta}. A keyframe is written for the first turn of each round and then every
+ * {@link #KEYFRAME_INTERVAL} turns, which bounds the number of deltas to decode when seeking to a turn.
+ * The record info block (optional) and the index with the file offset of every turn of every round follow the
+ * turns. The file ends with a trailer holding the offsets of the record info and the index, so that a reader can
+ * find any turn without reading the turns before it.
+ */
+final class IndexedRecordWriter implements Closeable {
+
+	static final int MAGIC = 0x52424958; // "RBIX"
+	static final int VERSION = 2;
+
+	static final byte KEYFRAME = 0;
+	static final byte DELTA = 1;
+	static final int KEYFRAME_INTERVAL = 32;
+
+	static final int HEADER_SIZE = 2 * SIZEOF_INT;
+	static final int TRAILER_SIZE = 2 * SIZEOF_LONG + SIZEOF_INT;
+
+	private final FileOutputStream stream;
+	private final FileChannel channel;
+
+	private ByteBuffer buffer = ByteBuffer.allocate(1024 * 1024);
+	private long flushedBytes;
+
+	private long[][] turnOffsets = new long[0][];
+	private int[] turnsCounts = new int[0];
+	private int roundsCount;
+	private long infoOffset = -1;
+
+	private TurnSnapshot previousTurn;
+	private int previousRound = -1;
+
+	IndexedRecordWriter(File file) throws IOException {
+		stream = new FileOutputStream(file);
+		channel = stream.getChannel();
+
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+	}
+
+	/**
+	 * Appends a turn to the specified round. Turns must be written in order within each round.
+	 */
+	void writeTurn(TurnSnapshot turn, int round) throws IOException {
+		final int index = (round < turnsCounts.length) ? turnsCounts[round] : 0;
+
+		addTurnOffset(round, getPosition());
+
+		if (index % KEYFRAME_INTERVAL == 0 || round != previousRound || !turn.canWriteBinaryDelta(previousTurn)) {
+			final int size = SIZEOF_BYTE + turn.sizeOfBinary();
+
+			ensureRemaining(SIZEOF_INT + size);
+			buffer.putInt(size);
+			buffer.put(KEYFRAME);
+			turn.writeBinary(buffer);
+		} else {
+			final int size = SIZEOF_BYTE + turn.sizeOfBinaryDelta(previousTurn);
+
+			ensureRemaining(SIZEOF_INT + size);
+			buffer.putInt(size);
+			buffer.put(DELTA);
+			turn.writeBinaryDelta(buffer, previousTurn);
+		}
+		previousTurn = turn;
+		previousRound = round;
+	}
+
+	void writeInfo(BattleRecordInfo recordInfo) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final ObjectOutputStream oos = new ObjectOutputStream(bytes);
+
+		oos.writeObject(recordInfo);
+		oos.close();
+
+		infoOffset = getPosition();
+		ensureRemaining(SIZEOF_INT + bytes.size());
+		buffer.putInt(bytes.size());
+		buffer.put(bytes.toByteArray());
+	}
+
+	/**
+	 * Writes the index and the trailer, and closes the file.
+	 */
+	public void close() throws IOException {
+		try {
+			final long indexOffset = getPosition();
+
+			ensureRemaining(SIZEOF_INT);
+			buffer.putInt(roundsCount);
+			for (int round = 0; round < roundsCount; round++) {
+				ensureRemaining(SIZEOF_INT);
+				buffer.putInt(turnsCounts[round]);
+				for (int turn = 0; turn < turnsCounts[round]; turn++) {
+					ensureRemaining(SIZEOF_LONG);
+					buffer.putLong(turnOffsets[round][turn]);
+				}
+			}
+			ensureRemaining(TRAILER_SIZE);
+			buffer.putLong(infoOffset);
+			buffer.putLong(indexOffset);
+			buffer.putInt(MAGIC);
+
+			flush();
+		} finally {
+			stream.close();
+		}
+	}
+
+	private long getPosition() {
+		return flushedBytes + buffer.position();
+	}
+
+	private void addTurnOffset(int round, long offset) {
+		if (round >= turnsCounts.length) {
+			final int capacity = Math.max(round + 1, turnsCounts.length * 2);
+			final long[][] newTurnOffsets = new long[capacity][];
+			final int[] newTurnsCounts = new int[capacity];
+
+			System.arraycopy(turnOffsets, 0, newTurnOffsets, 0, turnOffsets.length);
+			System.arraycopy(turnsCounts, 0, newTurnsCounts, 0, turnsCounts.length);
+			for (int i = turnOffsets.length; i < capacity; i++) {
+				newTurnOffsets[i] = new long[0];
+			}
+			turnOffsets = newTurnOffsets;
+			turnsCounts = newTurnsCounts;
+		}
+		long[] offsets = turnOffsets[round];
+		final int count = turnsCounts[round];
+
+		if (count == offsets.length) {
+			final long[] newOffsets = new long[Math.max(256, offsets.length * 2)];
+
+			System.arraycopy(offsets, 0, newOffsets, 0, count);
+			offsets = newOffsets;
+			turnOffsets[round] = offsets;
+		}
+		offsets[count] = offset;
+		turnsCounts[round] = count + 1;
+		roundsCount = Math.max(roundsCount, round + 1);
+	}
+
+	private void ensureRemaining(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush();
+			if (buffer.capacity() < bytes) {
+				buffer = ByteBuffer.allocate(Math.max(bytes, buffer.capacity() * 2));
+			}
+		}
+	}
+
+	void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			flushedBytes += channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
@@ -13,9 +13,7 @@ import net.sf.robocode.battle.snapshot.TurnSnapshot;
 import net.sf.robocode.io.FileUtil;
 import net.sf.robocode.io.Logger;
 import static net.sf.robocode.io.Logger.logError;
-import net.sf.robocode.serialization.IXmlSerializable;
 import net.sf.robocode.serialization.SerializableOptions;
-import net.sf.robocode.serialization.XmlReader;
 import net.sf.robocode.serialization.XmlWriter;
 import net.sf.robocode.settings.ISettingsManager;
 import robocode.BattleResults;
@@ -44,13 +42,13 @@ public class RecordManager implements IRecordManager {
 	private BattleRecorder recorder;
 
 	BattleRecordInfo recordInfo;
-	private FileOutputStream fileWriteStream;
-	private BufferedOutputStream bufferedWriteStream;
-	private ObjectOutputStream objectWriteStream;
+	private AsyncRecordWriter recordWriter;
+	private IndexedRecordReader recordReader;
 
-	private FileInputStream fileReadStream;
-	private BufferedInputStream bufferedReadStream;
-	private ObjectInputStream objectReadStream;
+	// Import of an XML record that is still running, or null
+	private volatile XmlRecordImport recordImport;
+	// True when the turns are replayed from the import, while it is running
+	private boolean replayingImport;
 
 	public RecordManager(ISettingsManager properties) { // NO_UCD (unused code)
 		this.properties = properties;
@@ -66,6 +64,7 @@ public class RecordManager implements IRecordManager {
 	}
 
 	private void cleanup() {
+		cancelImport();
 		cleanupStreams();
 		if (tempFile != null && tempFile.exists()) {
 			if (tempFile.delete() == false) {
@@ -77,19 +76,43 @@ public class RecordManager implements IRecordManager {
 	}
 
 	void cleanupStreams() {
-		FileUtil.cleanupStream(objectWriteStream);
-		objectWriteStream = null;
-		FileUtil.cleanupStream(bufferedWriteStream);
-		bufferedWriteStream = null;
-		FileUtil.cleanupStream(fileWriteStream);
-		fileWriteStream = null;
-
-		FileUtil.cleanupStream(objectReadStream);
-		objectReadStream = null;
-		FileUtil.cleanupStream(bufferedReadStream);
-		bufferedReadStream = null;
-		FileUtil.cleanupStream(fileReadStream);
-		fileReadStream = null;
+		// Closing the writer waits for the pending turns to be written, and completes the record with the turn index
+		FileUtil.cleanupStream(recordWriter);
+		recordWriter = null;
+
+		FileUtil.cleanupStream(recordReader);
+		recordReader = null;
+
+		final XmlRecordImport currentImport = recordImport;
+
+		if (currentImport != null) {
+			// The import continues without waiting for the replay
+			currentImport.stopReplay();
+		}
+		replayingImport = false;
+	}
+
+	// Waits for the XML record being imported to be completely written to the temp file
+	private void awaitImport() {
+		final XmlRecordImport currentImport = recordImport;
+
+		if (currentImport != null) {
+			try {
+				currentImport.awaitCompletion();
+			} catch (IOException e) {
+				logError(e);
+			}
+			recordImport = null;
+		}
+	}
+
+	private void cancelImport() {
+		final XmlRecordImport currentImport = recordImport;
+
+		if (currentImport != null) {
+			currentImport.close();
+			recordImport = null;
+		}
 	}
 
 	public void attachRecorder(BattleEventDispatcher battleEventDispatcher) {
@@ -101,14 +124,18 @@ public class RecordManager implements IRecordManager {
 	}
 
 	private void createTempFile() {
+		// The temp file is replaced, so any import into it is useless
+		cancelImport();
 		try {
 			if (tempFile == null) {
 				tempFile = File.createTempFile("robocode-battle-records", ".tmp");
 				tempFile.deleteOnExit();
+			} else if (!tempFile.delete()) {
+				// The file can still be in use by a previous replay on some platforms, so use a new one
+				Logger.logError("Could not delete temp file");
+				tempFile = File.createTempFile("robocode-battle-records", ".tmp");
+				tempFile.deleteOnExit();
 			} else {
-				if (!tempFile.delete()) {
-					Logger.logError("Could not delete temp file");
-				}
 				if (!tempFile.createNewFile()) {
 					throw new Error("Temp file creation failed");					
 				}
@@ -120,49 +147,62 @@ public class RecordManager implements IRecordManager {
 	}
 
 	void prepareInputStream() {
+		final XmlRecordImport currentImport = recordImport;
+
+		if (currentImport != null && currentImport.startReplay()) {
+			replayingImport = true;
+			return;
+		}
+		awaitImport();
 		try {
-			fileReadStream = new FileInputStream(tempFile);
-			bufferedReadStream = new BufferedInputStream(fileReadStream);
-			objectReadStream = new ObjectInputStream(bufferedReadStream);
-		} catch (FileNotFoundException e) {
-			logError(e);
-			fileReadStream = null;
-			bufferedReadStream = null;
-			objectReadStream = null;
+			recordReader = new IndexedRecordReader(tempFile);
 		} catch (IOException e) {
 			logError(e);
-			fileReadStream = null;
-			bufferedReadStream = null;
-			objectReadStream = null;
+			recordReader = null;
 		}
 	}
 
-	ITurnSnapshot readSnapshot(int currentTime) {
-		if (objectReadStream == null) {
+	ITurnSnapshot readSnapshot(int round, int turn) {
+		if (replayingImport) {
+			final XmlRecordImport currentImport = recordImport;
+			final ITurnSnapshot snapshot = currentImport != null ? currentImport.readTurn(round, turn) : null;
+
+			if (snapshot != null) {
+				return snapshot;
+			}
+			// The turn is not available from the import, so read it from the temp file, when it is complete
+			replayingImport = false;
+			prepareInputStream();
+		}
+		if (recordReader == null) {
 			return null;
 		}
 		try {
-			// TODO implement seek to currentTime, warn you. turns don't have same size in bytes
-			return (ITurnSnapshot) objectReadStream.readObject();
-		} catch (EOFException e) {
-			logError(e);
-			return null;
-		} catch (Exception e) {
+			return recordReader.readTurn(round, turn);
+		} catch (IOException e) {
 			logError(e);
 			return null;
 		}
 	}
 
 	public void loadRecord(String recordFilename, BattleRecordFormat format) {
+		cleanupStreams();
+
+		if (format == BattleRecordFormat.INDEXED || IndexedRecordReader.isIndexedRecord(new File(recordFilename))) {
+			loadIndexedRecord(recordFilename);
+			return;
+		}
+		if (format == BattleRecordFormat.XML || format == BattleRecordFormat.XML_ZIP) {
+			loadXmlRecord(recordFilename, format);
+			return;
+		}
+
 		FileInputStream fis = null;
 		BufferedInputStream bis = null;
 		ZipInputStream zis = null;
 		ObjectInputStream ois = null;
-		InputStream xis = null;
 
-		FileOutputStream fos = null;
-		BufferedOutputStream bos = null;
-		ObjectOutputStream oos = null;
+		IndexedRecordWriter writer = null;
 
 		try {
 			createTempFile();
@@ -175,43 +215,22 @@ public class RecordManager implements IRecordManager {
 				zis = new ZipInputStream(bis);
 				zis.getNextEntry();
 				ois = new ObjectInputStream(zis);
-			} else if (format == BattleRecordFormat.XML_ZIP) {
-				zis = new ZipInputStream(bis);
-				zis.getNextEntry();
-				xis = zis;
-			} else if (format == BattleRecordFormat.XML) {
-				xis = bis;
 			}
-			if (format == BattleRecordFormat.BINARY || format == BattleRecordFormat.BINARY_ZIP) {
-				recordInfo = (BattleRecordInfo) ois.readObject();
-				if (recordInfo.turnsInRounds != null) {
-					fos = new FileOutputStream(tempFile);
-					bos = new BufferedOutputStream(fos, 1024 * 1024);
-					oos = new ObjectOutputStream(bos);
-
-					for (int i = 0; i < recordInfo.turnsInRounds.length; i++) {
-						for (int j = recordInfo.turnsInRounds[i] - 1; j >= 0; j--) {
-							try {
-								ITurnSnapshot turn = (ITurnSnapshot) ois.readObject();
+			recordInfo = (BattleRecordInfo) ois.readObject();
+			if (recordInfo.turnsInRounds != null) {
+				writer = new IndexedRecordWriter(tempFile);
 
-								oos.writeObject(turn);
-							} catch (ClassNotFoundException e) {
-								logError(e);
-							}
+				for (int i = 0; i < recordInfo.turnsInRounds.length; i++) {
+					for (int j = recordInfo.turnsInRounds[i] - 1; j >= 0; j--) {
+						try {
+							TurnSnapshot turn = (TurnSnapshot) ois.readObject();
+
+							writer.writeTurn(turn, i);
+						} catch (ClassNotFoundException e) {
+							logError(e);
 						}
 					}
 				}
-			} else {
-				final RecordRoot root = new RecordRoot();
-
-				fos = new FileOutputStream(tempFile);
-				bos = new BufferedOutputStream(fos, 1024 * 1024);
-				root.oos = new ObjectOutputStream(bos);
-				XmlReader.deserialize(xis, root);
-				if (root.lastException != null) {
-					logError(root.lastException);
-				}
-				recordInfo = root.recordInfo;
 			}
 		} catch (IOException e) {
 			logError(e);
@@ -226,9 +245,7 @@ public class RecordManager implements IRecordManager {
 			createTempFile();
 			recordInfo = null;
 		} finally {
-			FileUtil.cleanupStream(oos);
-			FileUtil.cleanupStream(bos);
-			FileUtil.cleanupStream(fos);
+			FileUtil.cleanupStream(writer);
 			FileUtil.cleanupStream(ois);
 			FileUtil.cleanupStream(zis);
 			FileUtil.cleanupStream(bis);
@@ -236,56 +253,61 @@ public class RecordManager implements IRecordManager {
 		}
 	}
 
-	private static class RecordRoot implements IXmlSerializable {
-
-		public RecordRoot() {
-			me = this;
-		}
-
-		public ObjectOutputStream oos;
-		public IOException lastException;
-		public final RecordRoot me;
-		public BattleRecordInfo recordInfo;
+	private void loadIndexedRecord(String recordFilename) {
+		IndexedRecordReader reader = null;
 
-		public void writeXml(XmlWriter writer, SerializableOptions options) throws IOException {}
-
-		public XmlReader.Element readXml(XmlReader reader) {
-			return reader.expect("record", new XmlReader.Element() {
-				public IXmlSerializable read(final XmlReader reader) {
-
-					final XmlReader.Element element = (new BattleRecordInfo()).readXml(reader);
+		try {
+			// The record is copied as is, so that the original file can be overwritten while it is replayed
+			createTempFile();
+			FileUtil.copy(new File(recordFilename), tempFile);
 
-					reader.expect("recordInfo", new XmlReader.ElementClose() {
-						public IXmlSerializable read(XmlReader reader) {
-							recordInfo = (BattleRecordInfo) element.read(reader);
-							return recordInfo;
-						}
+			reader = new IndexedRecordReader(tempFile);
+			recordInfo = reader.readInfo();
+			if (recordInfo == null) {
+				throw new IOException("The battle record does not contain any record info: " + recordFilename);
+			}
+		} catch (IOException e) {
+			logError(e);
+			createTempFile();
+			recordInfo = null;
+		} catch (ClassNotFoundException e) {
+			logError(e);
+			createTempFile();
+			recordInfo = null;
+		} finally {
+			FileUtil.cleanupStream(reader);
+		}
+	}
 
-						public void close() {
-							reader.getContext().put("robots", recordInfo.robotCount);
-						}
-					});
+	// Only waits for the record info, and lets the turns be imported while the record is replayed
+	private void loadXmlRecord(String recordFilename, BattleRecordFormat format) {
+		FileInputStream fis = null;
+		InputStream xis = null;
 
-					reader.expect("turns", new XmlReader.ListElement() {
-						public IXmlSerializable read(XmlReader reader) {
-							// prototype
-							return new TurnSnapshot();
-						}
+		try {
+			createTempFile();
+			fis = new FileInputStream(recordFilename);
+			xis = new BufferedInputStream(fis, 1024 * 1024);
 
-						public void add(IXmlSerializable child) {
-							try {
-								me.oos.writeObject(child);
-							} catch (IOException e) {
-								me.lastException = e;
-							}
-						}
+			if (format == BattleRecordFormat.XML_ZIP) {
+				ZipInputStream zis = new ZipInputStream(xis);
 
-						public void close() {}
-					});
+				xis = zis;
+				zis.getNextEntry();
+			}
+			// The import closes the input stream
+			recordImport = new XmlRecordImport(xis, tempFile);
+			xis = null;
+			fis = null;
 
-					return me;
-				}
-			});
+			recordInfo = recordImport.awaitRecordInfo();
+		} catch (IOException e) {
+			logError(e);
+			createTempFile();
+			recordInfo = null;
+		} finally {
+			FileUtil.cleanupStream(xis);
+			FileUtil.cleanupStream(fis);
 		}
 	}
 
@@ -297,17 +319,23 @@ public class RecordManager implements IRecordManager {
 		OutputStreamWriter osw = null;
 		XmlWriter xwr = null;
 
-		FileInputStream fis = null;
-		BufferedInputStream bis = null;
-		ObjectInputStream ois = null;
+		IndexedRecordWriter writer = null;
+		IndexedRecordReader reader = null;
 
 		final boolean isbin = format == BattleRecordFormat.BINARY || format == BattleRecordFormat.BINARY_ZIP;
 		final boolean isxml = format == BattleRecordFormat.XML || format == BattleRecordFormat.XML_ZIP;
+		final boolean isindexed = format == BattleRecordFormat.INDEXED;
 		Calendar calendar = Calendar.getInstance();
 
+		awaitImport();
+
 		try {
-			fos = new FileOutputStream(recordFilename);
-			bos = new BufferedOutputStream(fos, 1024 * 1024);
+			if (isindexed) {
+				writer = new IndexedRecordWriter(new File(recordFilename));
+			} else {
+				fos = new FileOutputStream(recordFilename);
+				bos = new BufferedOutputStream(fos, 1024 * 1024);
+			}
 
 			if (format == BattleRecordFormat.BINARY) {
 				oos = new ObjectOutputStream(bos);
@@ -346,54 +374,55 @@ public class RecordManager implements IRecordManager {
 			}
 
 			if (recordInfo.turnsInRounds != null) {
-				fis = new FileInputStream(tempFile);
-				bis = new BufferedInputStream(fis, 1024 * 1024);
-				ois = new ObjectInputStream(bis);
+				reader = new IndexedRecordReader(tempFile);
 
 				for (int i = 0; i < recordInfo.turnsInRounds.length; i++) {
 					if (recordInfo.turnsInRounds[i] > 0) {
 						for (int j = 0; j <= recordInfo.turnsInRounds[i] - 1; j++) {
-							try {
-								TurnSnapshot turn = (TurnSnapshot) ois.readObject();
-
-								if (j != turn.getTurn()) {
-									throw new Error("Something rotten");
-								}
-
-								if (isbin) {
-									turn.stripDetails(options);
-									oos.writeObject(turn);
-								} else if (isxml) {
-									turn.writeXml(xwr, options);
-								}
-							} catch (ClassNotFoundException e) {
-								logError(e);
+							TurnSnapshot turn = reader.readTurn(i, j);
+
+							if (turn == null || j != turn.getTurn()) {
+								throw new Error("Something rotten");
+							}
+
+							if (isbin) {
+								turn.stripDetails(options);
+								oos.writeObject(turn);
+							} else if (isxml) {
+								turn.writeXml(xwr, options);
+							} else if (isindexed) {
+								turn.stripDetails(options);
+								writer.writeTurn(turn, i);
 							}
 						}
 						if (isbin) {
 							oos.flush();
 						} else if (isxml) {
-							osw.flush();
+							xwr.flush();
+						}
+						if (!isindexed) {
+							bos.flush();
+							fos.flush();
 						}
-						bos.flush();
-						fos.flush();
 					}
 				}
 				if (isxml) {
 					xwr.endElement(); // turns
 					xwr.endElement(); // record
-					osw.flush();
+					xwr.flush();
 				}
 			}
+			if (isindexed) {
+				writer.writeInfo(recordInfo);
+			}
 
 		} catch (IOException e) {
 			logError(e);
 			recorder = new BattleRecorder(this, properties);
 			createTempFile();
 		} finally {
-			FileUtil.cleanupStream(ois);
-			FileUtil.cleanupStream(bis);
-			FileUtil.cleanupStream(fis);
+			FileUtil.cleanupStream(reader);
+			FileUtil.cleanupStream(writer);
 			FileUtil.cleanupStream(oos);
 			FileUtil.cleanupStream(zos);
 			FileUtil.cleanupStream(bos);
@@ -410,9 +439,7 @@ public class RecordManager implements IRecordManager {
 		try {
 			createTempFile();
 
-			fileWriteStream = new FileOutputStream(tempFile);
-			bufferedWriteStream = new BufferedOutputStream(fileWriteStream, 1024 * 1024);
-			objectWriteStream = new ObjectOutputStream(bufferedWriteStream);
+			recordWriter = new AsyncRecordWriter(tempFile);
 		} catch (IOException e) {
 			logError(e);
 		}
@@ -435,14 +462,16 @@ public class RecordManager implements IRecordManager {
 			if (time != recordInfo.turnsInRounds[round]) {
 				throw new Error("Something rotten");
 			}
-			if (time == 0) {
-				objectWriteStream.reset();
-			}
 			recordInfo.turnsInRounds[round]++;
 			recordInfo.roundsCount = round + 1;
-			objectWriteStream.writeObject(turn);
+			if (recordWriter != null) {
+				recordWriter.writeTurn((TurnSnapshot) turn, round);
+			}
 		} catch (IOException e) {
 			logError(e);
+			// Stop recording, as the remaining turns cannot be written either
+			FileUtil.cleanupStream(recordWriter);
+			recordWriter = null;
 		}
 	}
 }
@@ -0,0 +1,316 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
+import net.sf.robocode.io.FileUtil;
+import net.sf.robocode.serialization.IXmlSerializable;
+import net.sf.robocode.serialization.SerializableOptions;
+import net.sf.robocode.serialization.XmlReader;
+import net.sf.robocode.serialization.XmlWriter;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CancellationException;
+
+
+/**
+ * Imports a battle record in the XML format into a file in the indexed format on a background thread, so a replay
+ * can start as soon as the record info has been read, instead of after the whole record has been imported.
+ * <p/>
+ * The imported turns are also handed to the replay through a window holding the latest imported turns. While a
+ * replay reads from the window, the import waits for the replay when it is a full window ahead of it. Turns that
+ * are no longer in the window, e.g. when jumping back to an earlier turn, must be read from the indexed file once
+ * the import has completed.
+ */
+final class XmlRecordImport implements Closeable {
+
+	static final int WINDOW_SIZE = 256;
+
+	private final InputStream input;
+	private final IndexedRecordWriter writer;
+	private final Thread importThread;
+
+	private final TurnSnapshot[] window;
+
+	// All fields below are guarded by this
+	private BattleRecordInfo recordInfo;
+	private boolean recordInfoRead;
+	private int[] roundStarts;
+
+	private long imported;
+	private long replayed;
+	private boolean replaying = true;
+	private boolean streamable = true;
+
+	private boolean completed;
+	private boolean cancelled;
+	private IOException failure;
+
+	/**
+	 * Starts importing a record.
+	 *
+	 * @param input the XML of the record, which is closed when the import has ended.
+	 * @param recordFile the file to write the record to in the indexed format.
+	 */
+	XmlRecordImport(InputStream input, File recordFile) throws IOException {
+		this(input, recordFile, WINDOW_SIZE);
+	}
+
+	XmlRecordImport(InputStream input, File recordFile, int windowSize) throws IOException {
+		this.input = input;
+		window = new TurnSnapshot[windowSize];
+		writer = new IndexedRecordWriter(recordFile);
+
+		importThread = new Thread(new Runnable() {
+			public void run() {
+				importRecord();
+			}
+		}, "Battle Record Import");
+		importThread.setDaemon(true);
+		importThread.start();
+	}
+
+	/**
+	 * Waits until the record info has been read.
+	 *
+	 * @return the record info, or {@code null} if the record does not contain any record info.
+	 * @throws IOException if the record could not be read.
+	 */
+	synchronized BattleRecordInfo awaitRecordInfo() throws IOException {
+		boolean interrupted = false;
+
+		while (!recordInfoRead && !completed) {
+			interrupted |= await();
+		}
+		restoreInterrupt(interrupted);
+		if (recordInfo == null && failure != null) {
+			throw failure;
+		}
+		return recordInfo;
+	}
+
+	/**
+	 * Waits until the whole record has been imported, and the indexed file is complete.
+	 *
+	 * @throws IOException if the record could not be imported completely.
+	 */
+	synchronized void awaitCompletion() throws IOException {
+		stopReplay();
+
+		boolean interrupted = false;
+
+		while (!completed) {
+			interrupted |= await();
+		}
+		restoreInterrupt(interrupted);
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Starts replaying the turns from the window.
+	 *
+	 * @return true if the turns can be replayed from the window; false if the import has already completed or has
+	 *         moved past the first turn, so the turns must be read from the indexed file.
+	 */
+	synchronized boolean startReplay() {
+		if (completed || !streamable || imported > window.length) {
+			return false;
+		}
+		replaying = true;
+		replayed = 0;
+		return true;
+	}
+
+	/**
+	 * Stops replaying the turns from the window, so the import does not have to wait for the replay anymore.
+	 */
+	synchronized void stopReplay() {
+		replaying = false;
+		notifyAll();
+	}
+
+	/**
+	 * Reads a turn from the window, and waits for it to be imported if the import has not reached it yet.
+	 *
+	 * @return the turn, or {@code null} if the turn is not in the window.
+	 */
+	synchronized TurnSnapshot readTurn(int round, int turn) {
+		if (!replaying || roundStarts == null || round < 0 || round >= roundStarts.length) {
+			return null;
+		}
+		final long index = roundStarts[round] + (long) turn;
+		boolean interrupted = false;
+
+		while (streamable && !completed && imported <= index) {
+			interrupted |= await();
+		}
+		restoreInterrupt(interrupted);
+		if (!streamable || index >= imported || index < imported - window.length) {
+			return null;
+		}
+		replayed = index;
+		notifyAll();
+
+		return window[(int) (index % window.length)];
+	}
+
+	/**
+	 * Cancels the import, and waits for the import thread to end.
+	 */
+	public void close() {
+		synchronized (this) {
+			cancelled = true;
+			notifyAll();
+		}
+		boolean interrupted = false;
+
+		while (importThread.isAlive()) {
+			try {
+				importThread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		restoreInterrupt(interrupted);
+	}
+
+	private void importRecord() {
+		IOException exception = null;
+
+		try {
+			XmlReader.deserialize(input, new RecordRoot());
+		} catch (IOException e) {
+			exception = e;
+		} catch (CancellationException ignore) {// Cancelled or failed while writing a turn
+		} finally {
+			FileUtil.cleanupStream(input);
+			try {
+				writer.close();
+			} catch (IOException e) {
+				exception = e;
+			}
+		}
+		synchronized (this) {
+			if (failure == null) {
+				failure = exception;
+			}
+			completed = true;
+			notifyAll();
+		}
+	}
+
+	private synchronized void setRecordInfo(BattleRecordInfo recordInfo) {
+		this.recordInfo = recordInfo;
+		recordInfoRead = true;
+
+		if (recordInfo.turnsInRounds != null) {
+			roundStarts = new int[recordInfo.turnsInRounds.length];
+			for (int i = 1; i < roundStarts.length; i++) {
+				roundStarts[i] = roundStarts[i - 1] + recordInfo.turnsInRounds[i - 1];
+			}
+		} else {
+			streamable = false;
+		}
+		notifyAll();
+	}
+
+	private void addTurn(TurnSnapshot turn) {
+		try {
+			writer.writeTurn(turn, turn.getRound());
+		} catch (IOException e) {
+			synchronized (this) {
+				failure = e;
+			}
+			throw new CancellationException();
+		}
+		synchronized (this) {
+			// The turns can only be replayed from the window when they are imported in the order given by the record info
+			if (roundStarts == null || turn.getRound() >= roundStarts.length
+					|| roundStarts[turn.getRound()] + (long) turn.getTurn() != imported) {
+				streamable = false;
+			}
+			boolean interrupted = false;
+
+			while (replaying && streamable && !cancelled && imported - replayed >= window.length) {
+				interrupted |= await();
+			}
+			restoreInterrupt(interrupted);
+			if (cancelled) {
+				throw new CancellationException();
+			}
+			window[(int) (imported % window.length)] = turn;
+			imported++;
+			notifyAll();
+		}
+	}
+
+	// Waits until notified, and returns true if the thread was interrupted while waiting
+	private boolean await() {
+		try {
+			wait();
+			return false;
+		} catch (InterruptedException e) {
+			return true;
+		}
+	}
+
+	private static void restoreInterrupt(boolean interrupted) {
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private class RecordRoot implements IXmlSerializable {
+
+		public void writeXml(XmlWriter writer, SerializableOptions options) throws IOException {}
+
+		public XmlReader.Element readXml(XmlReader reader) {
+			return reader.expect("record", new XmlReader.Element() {
+				public IXmlSerializable read(final XmlReader reader) {
+
+					final XmlReader.Element element = (new BattleRecordInfo()).readXml(reader);
+
+					reader.expect("recordInfo", new XmlReader.ElementClose() {
+						BattleRecordInfo recordInfo;
+
+						public IXmlSerializable read(XmlReader reader) {
+							recordInfo = (BattleRecordInfo) element.read(reader);
+							return recordInfo;
+						}
+
+						public void close() {
+							reader.getContext().put("robots", recordInfo.robotCount);
+							setRecordInfo(recordInfo);
+						}
+					});
+
+					reader.expect("turns", new XmlReader.ListElement() {
+						public IXmlSerializable read(XmlReader reader) {
+							// prototype
+							return new TurnSnapshot();
+						}
+
+						public void add(IXmlSerializable child) {
+							addTurn((TurnSnapshot) child);
+						}
+
+						public void close() {}
+					});
+
+					return RecordRoot.this;
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.battle;
+
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+
+public class ShuffleBufferTest {
+
+	@Test
+	public void sameOrderAsCollectionsShuffle() {
+		ShuffleBuffer<Integer> buffer = new ShuffleBuffer<Integer>(2);
+
+		Random expectedRandom = new Random(4711);
+		Random actualRandom = new Random(4711);
+
+		for (int size = 0; size < 100; size++) {
+			List<Integer> source = createSource(size);
+			List<Integer> expected = new ArrayList<Integer>(source);
+
+			Collections.shuffle(expected, expectedRandom);
+			buffer.shuffle(source, actualRandom);
+
+			Assert.assertEquals(expected, buffer);
+		}
+		// Both generators must have consumed the same amount of random numbers
+		Assert.assertEquals(expectedRandom.nextLong(), actualRandom.nextLong());
+	}
+
+	@Test
+	public void shrinkingSource() {
+		ShuffleBuffer<Integer> buffer = new ShuffleBuffer<Integer>();
+		Random random = new Random(1);
+
+		buffer.shuffle(createSource(50), random);
+		Assert.assertEquals(50, buffer.size());
+
+		buffer.shuffle(createSource(3), random);
+		Assert.assertEquals(3, buffer.size());
+		Assert.assertTrue(buffer.containsAll(createSource(3)));
+
+		buffer.shuffle(createSource(0), random);
+		Assert.assertTrue(buffer.isEmpty());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void getBeyondSize() {
+		ShuffleBuffer<Integer> buffer = new ShuffleBuffer<Integer>();
+
+		buffer.shuffle(createSource(50), new Random(1));
+		buffer.shuffle(createSource(10), new Random(1));
+		buffer.get(10);
+	}
+
+	@Test
+	public void noGarbageInSteadyState() {
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+		Assume.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+
+		com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+
+		Assume.assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+		allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+		// Simulates the bullet update loop of a 10 robot melee with 60 live bullets
+		List<Integer> robots = new CopyOnWriteArrayList<Integer>(createSource(10));
+		List<Integer> bullets = new CopyOnWriteArrayList<Integer>(createSource(60));
+
+		ShuffleBuffer<Integer> outerBullets = new ShuffleBuffer<Integer>();
+		ShuffleBuffer<Integer> innerRobots = new ShuffleBuffer<Integer>();
+		ShuffleBuffer<Integer> innerBullets = new ShuffleBuffer<Integer>();
+		Random random = new Random(42);
+
+		final int turns = 10000;
+
+		runTurns(turns, robots, bullets, outerBullets, innerRobots, innerBullets, random); // warm up
+
+		long threadId = Thread.currentThread().getId();
+		long before = allocationBean.getThreadAllocatedBytes(threadId);
+
+		runTurns(turns, robots, bullets, outerBullets, innerRobots, innerBullets, random);
+
+		long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+		// The old implementation allocated two lists per bullet per turn, i.e. more than 10 KB per turn
+		Assert.assertTrue("Allocated " + allocated + " bytes in " + turns + " turns", allocated < 64 * 1024);
+	}
+
+	private static void runTurns(int turns, List<Integer> robots, List<Integer> bullets,
+			ShuffleBuffer<Integer> outerBullets, ShuffleBuffer<Integer> innerRobots,
+			ShuffleBuffer<Integer> innerBullets, Random random) {
+		for (int turn = 0; turn < turns; turn++) {
+			outerBullets.shuffle(bullets, random);
+			for (int i = 0; i < outerBullets.size(); i++) {
+				innerRobots.shuffle(robots, random);
+				innerBullets.shuffle(bullets, random);
+			}
+		}
+	}
+
+	private static List<Integer> createSource(int size) {
+		List<Integer> source = new ArrayList<Integer>(size);
+
+		for (int i = 0; i < size; i++) {
+			source.add(i);
+		}
+		return source;
+	}
+}
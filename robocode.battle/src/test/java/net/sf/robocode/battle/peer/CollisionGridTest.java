@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.battle.peer;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.geom.Line2D;
+import java.util.Random;
+
+
+public class CollisionGridTest {
+
+	private static final double BATTLEFIELD_SIZE = 5000;
+
+	@Test
+	public void neverRejectsCrossingPaths() {
+		Random random = new Random(42);
+
+		for (int i = 0; i < 200000; i++) {
+			double x = random.nextDouble() * BATTLEFIELD_SIZE;
+			double y = random.nextDouble() * BATTLEFIELD_SIZE;
+
+			// Place the other bullet near the first one, so that a good share of the paths cross
+			double otherX = x + (random.nextDouble() - 0.5) * 60;
+			double otherY = y + (random.nextDouble() - 0.5) * 60;
+
+			assertConservative(random, x, y, otherX, otherY, random.nextDouble() * 2 * Math.PI);
+		}
+	}
+
+	@Test
+	public void neverRejectsParallelPaths() {
+		Random random = new Random(4711);
+
+		for (int i = 0; i < 200000; i++) {
+			double x = random.nextDouble() * BATTLEFIELD_SIZE;
+			double y = random.nextDouble() * BATTLEFIELD_SIZE;
+			double heading = random.nextDouble() * 2 * Math.PI;
+
+			// Collinear and almost parallel paths, possibly far apart and in opposite directions
+			double distance = random.nextDouble() * BATTLEFIELD_SIZE;
+			double otherX = x + Math.sin(heading) * distance;
+			double otherY = y + Math.cos(heading) * distance;
+			double otherHeading = heading + (random.nextInt(2) * Math.PI) + (random.nextDouble() - 0.5) * 1e-9;
+
+			assertConservative(random, x, y, otherX, otherY, otherHeading);
+		}
+	}
+
+	@Test
+	public void rejectsDistantPaths() {
+		Line2D.Double line = path(100, 100, 0, 19.7);
+		Line2D.Double otherLine = path(4000, 4000, Math.PI / 2, 11);
+
+		Assert.assertFalse(CollisionGrid.mayIntersect(line, 0, otherLine, Math.PI / 2));
+	}
+
+	private static void assertConservative(Random random, double x, double y, double otherX, double otherY,
+			double otherHeading) {
+		double heading = random.nextDouble() * 2 * Math.PI;
+
+		Line2D.Double line = path(x, y, heading, velocity(random));
+		Line2D.Double otherLine = path(otherX, otherY, otherHeading, velocity(random));
+
+		if (CollisionGrid.intersect(otherLine, line)) {
+			Assert.assertTrue(line + " vs " + otherLine, CollisionGrid.mayIntersect(line, heading, otherLine, otherHeading));
+		}
+	}
+
+	private static double velocity(Random random) {
+		// Bullet velocities range from 11 to 19.7
+		return 11 + random.nextDouble() * 8.7;
+	}
+
+	private static Line2D.Double path(double x, double y, double heading, double velocity) {
+		return new Line2D.Double(x - Math.sin(heading) * velocity, y - Math.cos(heading) * velocity, x, y);
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.battle.peer;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+
+public class TurnTimeBudgetTest {
+
+	@Test
+	public void allowsDebtBudgetOnTopOfTurnBudget() {
+		TurnTimeBudget budget = new TurnTimeBudget(3, 10);
+
+		budget.setTurnNanos(1000);
+
+		Assert.assertEquals(1000 + 3000, budget.getAllowedNanos(0, false));
+		Assert.assertEquals(10000 + 3000, budget.getAllowedNanos(0, true));
+		Assert.assertEquals(1000 + 1000, budget.getAllowedNanos(2000, false));
+		Assert.assertEquals(1000, budget.getAllowedNanos(5000, false));
+	}
+
+	@Test
+	public void wallClockTimeDoesNotDependOnDebtBudget() {
+		TurnTimeBudget budget = new TurnTimeBudget(3, 10);
+
+		budget.setTurnNanos(1000);
+
+		Assert.assertEquals(TurnTimeBudget.MAX_WALL_CLOCK_FACTOR * 1000, budget.getMaxWallClockNanos(false));
+		Assert.assertEquals(TurnTimeBudget.MAX_WALL_CLOCK_FACTOR * 10000, budget.getMaxWallClockNanos(true));
+		Assert.assertEquals(1000, budget.getWallClockNanos(false));
+		Assert.assertEquals(10000, budget.getWallClockNanos(true));
+	}
+
+	@Test
+	public void debtIsPaidBackOnCheapTurns() {
+		TurnTimeBudget budget = new TurnTimeBudget(3, 10);
+
+		budget.setTurnNanos(1000);
+
+		long debt = budget.updateDebt(0, 2500, false);
+
+		Assert.assertEquals(1500, debt);
+
+		debt = budget.updateDebt(debt, 200, false);
+		Assert.assertEquals(700, debt);
+
+		debt = budget.updateDebt(debt, 0, false);
+		Assert.assertEquals(0, debt);
+
+		// The first turn has a larger budget
+		Assert.assertEquals(0, budget.updateDebt(0, 9000, true));
+	}
+
+	@Test
+	public void measuresCpuTimeOfThreads() {
+		if (!TurnTimeBudget.isSupported()) {
+			return;
+		}
+		long start = TurnTimeBudget.getCpuTime(Thread.currentThread());
+		double d = 0;
+
+		for (int i = 0; i < 1000000; i++) {
+			d += Math.sqrt(i);
+		}
+		Assert.assertTrue(d > 0);
+		Assert.assertTrue(TurnTimeBudget.getCpuTime(Thread.currentThread()) > start);
+		Assert.assertEquals(-1, TurnTimeBudget.getCpuTime(null));
+	}
+
+	@Test
+	public void detectsThreadsStartedByRobot() throws InterruptedException {
+		final ThreadGroup robotThreadGroup = new ThreadGroup("robot");
+		final CountDownLatch release = new CountDownLatch(1);
+		final Runnable waitForRelease = new Runnable() {
+			public void run() {
+				try {
+					release.await();
+				} catch (InterruptedException ignore) {}
+			}
+		};
+		final Thread robotThread = new Thread(robotThreadGroup, waitForRelease);
+		final Thread helperThread = new Thread(robotThreadGroup, waitForRelease);
+
+		Assert.assertFalse(TurnTimeBudget.isOnlyThread(null));
+		robotThread.start();
+		try {
+			Assert.assertTrue(TurnTimeBudget.isOnlyThread(robotThread));
+
+			helperThread.start();
+			Assert.assertFalse(TurnTimeBudget.isOnlyThread(robotThread));
+		} finally {
+			release.countDown();
+			helperThread.join();
+			robotThread.join();
+		}
+	}
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.battle.snapshot;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+import robocode.control.snapshot.BulletState;
+import robocode.control.snapshot.RobotState;
+
+import java.nio.ByteBuffer;
+
+
+public class TurnSnapshotBinaryTest {
+
+	@Test
+	public void turnRoundTrip() {
+		ByteBuffer buffer = ByteBuffer.allocate(64);
+
+		buffer.putInt(3).putInt(42).putInt(250).putInt(0).putInt(0);
+		buffer.flip();
+
+		TurnSnapshot turn = TurnSnapshot.readBinary(buffer);
+
+		Assert.assertEquals(5 * 4, turn.sizeOfBinary());
+
+		ByteBuffer copyBuffer = ByteBuffer.allocate(turn.sizeOfBinary());
+
+		turn.writeBinary(copyBuffer);
+		Assert.assertEquals(0, copyBuffer.remaining());
+		copyBuffer.flip();
+
+		TurnSnapshot copy = TurnSnapshot.readBinary(copyBuffer);
+
+		Assert.assertEquals(3, copy.getRound());
+		Assert.assertEquals(42, copy.getTurn());
+		Assert.assertEquals(250, copy.getTPS());
+		Assert.assertEquals(0, copy.getRobots().length);
+		Assert.assertEquals(0, copy.getBullets().length);
+	}
+
+	@Test
+	public void robotColumnsRoundTrip() {
+		RobotSnapshot[] robots = {
+			new RobotSnapshot("sample.Fire", 0, RobotState.ACTIVE), new RobotSnapshot("Fire (2)", 1, RobotState.HIT_WALL)
+		};
+
+		robots[0].setOutputStreamSnapshot("Hello \u00e6\u00f8\u00e5");
+		robots[1].setPaintEnabled(true);
+
+		ByteBuffer buffer = ByteBuffer.allocate(RobotSnapshot.sizeOfColumns(robots));
+
+		RobotSnapshot.writeColumns(buffer, robots);
+		Assert.assertEquals(0, buffer.remaining());
+		buffer.flip();
+
+		RobotSnapshot[] copies = { new RobotSnapshot(), new RobotSnapshot() };
+
+		RobotSnapshot.readColumns(buffer, copies);
+		Assert.assertEquals(0, buffer.remaining());
+
+		Assert.assertEquals("sample.Fire", copies[0].getName());
+		Assert.assertEquals("Fire (2)", copies[1].getVeryShortName());
+		Assert.assertEquals(RobotState.ACTIVE, copies[0].getState());
+		Assert.assertEquals(RobotState.HIT_WALL, copies[1].getState());
+		Assert.assertEquals(1, copies[1].getRobotIndex());
+		Assert.assertEquals("Hello \u00e6\u00f8\u00e5", copies[0].getOutputStreamSnapshot());
+		Assert.assertNull(copies[1].getOutputStreamSnapshot());
+		Assert.assertFalse(copies[0].isPaintEnabled());
+		Assert.assertTrue(copies[1].isPaintEnabled());
+		Assert.assertNull(copies[0].getScanArc());
+		Assert.assertNull(copies[0].getDebugProperties());
+		Assert.assertEquals("Fire (2)", copies[1].getScoreSnapshot().getName());
+	}
+
+	@Test
+	public void deltaRoundTrip() {
+		RobotSnapshot[] previousRobots = {
+			new RobotSnapshot("sample.Fire", 0, RobotState.ACTIVE), new RobotSnapshot("sample.Walls", 1, RobotState.ACTIVE)
+		};
+		RobotSnapshot[] robots = {
+			new RobotSnapshot("sample.Fire", 0, RobotState.ACTIVE), new RobotSnapshot("sample.Walls", 1, RobotState.DEAD)
+		};
+
+		robots[0].setOutputStreamSnapshot("Fire!");
+		robots[1].setPaintEnabled(true);
+
+		TurnSnapshot previous = createTurn(5, 10, previousRobots);
+		TurnSnapshot turn = createTurn(5, 11, robots);
+
+		Assert.assertTrue(turn.canWriteBinaryDelta(previous));
+		Assert.assertFalse(turn.canWriteBinaryDelta(createTurn(6, 0, robots)));
+		Assert.assertFalse(turn.canWriteBinaryDelta(createTurn(5, 10, new RobotSnapshot[0])));
+
+		// Only the output of the first robot has changed, besides the state and flags
+		Assert.assertTrue(turn.sizeOfBinaryDelta(previous) < turn.sizeOfBinary() / 4);
+
+		ByteBuffer buffer = ByteBuffer.allocate(turn.sizeOfBinaryDelta(previous));
+
+		turn.writeBinaryDelta(buffer, previous);
+		Assert.assertEquals(0, buffer.remaining());
+		buffer.flip();
+
+		TurnSnapshot copy = TurnSnapshot.readBinaryDelta(buffer, previous);
+
+		Assert.assertEquals(0, buffer.remaining());
+		Assert.assertEquals(5, copy.getRound());
+		Assert.assertEquals(11, copy.getTurn());
+		Assert.assertEquals(2, copy.getRobots().length);
+		Assert.assertEquals("sample.Fire", copy.getRobots()[0].getName());
+		Assert.assertEquals("Fire!", copy.getRobots()[0].getOutputStreamSnapshot());
+		Assert.assertEquals(RobotState.DEAD, copy.getRobots()[1].getState());
+		Assert.assertTrue(copy.getRobots()[1].isPaintEnabled());
+		Assert.assertNull(copy.getRobots()[1].getOutputStreamSnapshot());
+		Assert.assertEquals("sample.Walls", copy.getRobots()[1].getScoreSnapshot().getName());
+
+		// Decoding against an unchanged turn gives the same turn
+		ByteBuffer emptyDelta = ByteBuffer.allocate(copy.sizeOfBinaryDelta(copy));
+
+		copy.writeBinaryDelta(emptyDelta, copy);
+		emptyDelta.flip();
+
+		TurnSnapshot unchanged = TurnSnapshot.readBinaryDelta(emptyDelta, copy);
+
+		Assert.assertEquals("Fire!", unchanged.getRobots()[0].getOutputStreamSnapshot());
+		Assert.assertEquals(RobotState.DEAD, unchanged.getRobots()[1].getState());
+	}
+
+	@Test
+	public void bulletColumnsRoundTrip() {
+		BulletSnapshot[] bullets = { new BulletSnapshot(), new BulletSnapshot() };
+
+		ByteBuffer buffer = ByteBuffer.allocate(BulletSnapshot.sizeOfColumns(bullets));
+
+		BulletSnapshot.writeColumns(buffer, bullets);
+		Assert.assertEquals(0, buffer.remaining());
+		buffer.flip();
+
+		BulletSnapshot[] copies = { new BulletSnapshot(), new BulletSnapshot() };
+
+		BulletSnapshot.readColumns(buffer, copies);
+		Assert.assertEquals(0, buffer.remaining());
+
+		for (BulletSnapshot copy : copies) {
+			Assert.assertEquals(BulletState.INACTIVE, copy.getState());
+			Assert.assertEquals(-1, copy.getOwnerIndex());
+			Assert.assertEquals(-1, copy.getVictimIndex());
+			Assert.assertTrue(Double.isNaN(copy.getHeading()));
+		}
+	}
+
+	private static TurnSnapshot createTurn(int round, int turn, RobotSnapshot[] robots) {
+		ByteBuffer buffer = ByteBuffer.allocate(5 * 4 + RobotSnapshot.sizeOfColumns(robots));
+
+		buffer.putInt(round).putInt(turn).putInt(30).putInt(robots.length);
+		RobotSnapshot.writeColumns(buffer, robots);
+		buffer.putInt(0);
+		buffer.flip();
+
+		return TurnSnapshot.readBinary(buffer);
+	}
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+
+public class IndexedRecordTest {
+
+	private static final int[] TURNS_IN_ROUNDS = { 300, 0, 1000, 17 };
+
+	private File file;
+
+	@Before
+	public void createFile() throws IOException {
+		file = File.createTempFile("robocode-indexed-record-test", ".br");
+	}
+
+	@After
+	public void deleteFile() {
+		if (!file.delete()) {
+			file.deleteOnExit();
+		}
+	}
+
+	@Test
+	public void readsTurnsInAnyOrder() throws IOException, ClassNotFoundException {
+		writeRecord(null);
+
+		IndexedRecordReader reader = new IndexedRecordReader(file);
+
+		try {
+			Assert.assertEquals(TURNS_IN_ROUNDS.length, reader.getRoundsCount());
+			for (int round = 0; round < TURNS_IN_ROUNDS.length; round++) {
+				Assert.assertEquals(TURNS_IN_ROUNDS[round], reader.getTurnsCount(round));
+			}
+			// Backwards from the last turn of the battle
+			for (int round = TURNS_IN_ROUNDS.length - 1; round >= 0; round--) {
+				for (int turn = TURNS_IN_ROUNDS[round] - 1; turn >= 0; turn--) {
+					assertTurn(reader.readTurn(round, turn), round, turn);
+				}
+			}
+			assertTurn(reader.readTurn(2, 999), 2, 999);
+			assertTurn(reader.readTurn(0, 0), 0, 0);
+
+			Assert.assertNull(reader.readTurn(1, 0));
+			Assert.assertNull(reader.readTurn(0, 300));
+			Assert.assertNull(reader.readTurn(4, 0));
+			Assert.assertNull(reader.readInfo());
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void readsDeltaTurnsInRandomOrder() throws IOException {
+		writeRecord(null);
+
+		IndexedRecordReader reader = new IndexedRecordReader(file);
+		Random random = new Random(42);
+
+		try {
+			for (int i = 0; i < 1000; i++) {
+				int round = random.nextInt(TURNS_IN_ROUNDS.length);
+
+				if (TURNS_IN_ROUNDS[round] > 0) {
+					int turn = random.nextInt(TURNS_IN_ROUNDS[round]);
+
+					assertTurn(reader.readTurn(round, turn), round, turn);
+					// Sequential reads continue from the last decoded turn
+					if (turn + 1 < TURNS_IN_ROUNDS[round]) {
+						assertTurn(reader.readTurn(round, turn + 1), round, turn + 1);
+					}
+				}
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void readsRecordInfo() throws IOException, ClassNotFoundException {
+		BattleRecordInfo info = new BattleRecordInfo();
+
+		info.robotCount = 5;
+		info.roundsCount = TURNS_IN_ROUNDS.length;
+		info.turnsInRounds = new Integer[] { 300, 0, 1000, 17 };
+		writeRecord(info);
+
+		Assert.assertTrue(IndexedRecordReader.isIndexedRecord(file));
+
+		IndexedRecordReader reader = new IndexedRecordReader(file);
+
+		try {
+			BattleRecordInfo readInfo = reader.readInfo();
+
+			Assert.assertEquals(5, readInfo.robotCount);
+			Assert.assertEquals(TURNS_IN_ROUNDS.length, readInfo.roundsCount);
+			Assert.assertArrayEquals(info.turnsInRounds, readInfo.turnsInRounds);
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void readsTurnsWrittenInBackground() throws IOException {
+		// A small ring buffer makes the battle thread wait for the writer thread
+		AsyncRecordWriter writer = new AsyncRecordWriter(file, 16);
+
+		try {
+			for (int round = 0; round < TURNS_IN_ROUNDS.length; round++) {
+				for (int turn = 0; turn < TURNS_IN_ROUNDS[round]; turn++) {
+					writer.writeTurn(createTurn(round, turn), round);
+				}
+			}
+		} finally {
+			writer.close();
+		}
+
+		IndexedRecordReader reader = new IndexedRecordReader(file);
+
+		try {
+			for (int round = 0; round < TURNS_IN_ROUNDS.length; round++) {
+				Assert.assertEquals(TURNS_IN_ROUNDS[round], reader.getTurnsCount(round));
+				for (int turn = 0; turn < TURNS_IN_ROUNDS[round]; turn++) {
+					assertTurn(reader.readTurn(round, turn), round, turn);
+				}
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsIncompleteRecord() throws IOException {
+		writeRecord(null);
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+
+		try {
+			raf.setLength(raf.length() - 1);
+		} finally {
+			raf.close();
+		}
+		new IndexedRecordReader(file).close();
+	}
+
+	@Test
+	public void detectsOtherFormats() throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+
+		try {
+			raf.writeInt(0xACED0005); // Java serialization stream
+		} finally {
+			raf.close();
+		}
+		Assert.assertFalse(IndexedRecordReader.isIndexedRecord(file));
+	}
+
+	private void writeRecord(BattleRecordInfo info) throws IOException {
+		IndexedRecordWriter writer = new IndexedRecordWriter(file);
+
+		try {
+			for (int round = 0; round < TURNS_IN_ROUNDS.length; round++) {
+				for (int turn = 0; turn < TURNS_IN_ROUNDS[round]; turn++) {
+					writer.writeTurn(createTurn(round, turn), round);
+				}
+			}
+			if (info != null) {
+				writer.writeInfo(info);
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static TurnSnapshot createTurn(int round, int turn) {
+		ByteBuffer buffer = ByteBuffer.allocate(64);
+
+		buffer.putInt(round);
+		buffer.putInt(turn);
+		buffer.putInt(30); // TPS
+		buffer.putInt(0); // robots
+		buffer.putInt(0); // bullets
+		buffer.flip();
+
+		return TurnSnapshot.readBinary(buffer);
+	}
+
+	private static void assertTurn(TurnSnapshot snapshot, int round, int turn) {
+		Assert.assertNotNull(snapshot);
+		Assert.assertEquals(round, snapshot.getRound());
+		Assert.assertEquals(turn, snapshot.getTurn());
+		Assert.assertEquals(30, snapshot.getTPS());
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
+import net.sf.robocode.serialization.SerializableOptions;
+import net.sf.robocode.serialization.XmlWriter;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+
+
+public class XmlRecordImportTest {
+
+	private static final int[] TURNS_IN_ROUNDS = { 300, 0, 50 };
+	private static final int WINDOW_SIZE = 8;
+
+	private File file;
+
+	@Before
+	public void createFile() throws IOException {
+		file = File.createTempFile("robocode-xml-import-test", ".br");
+	}
+
+	@After
+	public void deleteFile() {
+		if (!file.delete()) {
+			file.deleteOnExit();
+		}
+	}
+
+	@Test
+	public void replaysTurnsWhileImporting() throws IOException {
+		XmlRecordImport recordImport = new XmlRecordImport(createXmlRecord(), file, WINDOW_SIZE);
+
+		try {
+			BattleRecordInfo recordInfo = recordImport.awaitRecordInfo();
+
+			Assert.assertEquals(TURNS_IN_ROUNDS.length, recordInfo.turnsInRounds.length);
+			Assert.assertTrue(recordImport.startReplay());
+
+			for (int round = 0; round < TURNS_IN_ROUNDS.length; round++) {
+				for (int turn = 0; turn < TURNS_IN_ROUNDS[round]; turn++) {
+					assertTurn(recordImport.readTurn(round, turn), round, turn);
+					// The same turn is read more than once when a round starts
+					assertTurn(recordImport.readTurn(round, turn), round, turn);
+				}
+			}
+			// Turns that are not in the window anymore
+			Assert.assertNull(recordImport.readTurn(0, 0));
+
+			recordImport.awaitCompletion();
+		} finally {
+			recordImport.close();
+		}
+
+		IndexedRecordReader reader = new IndexedRecordReader(file);
+
+		try {
+			for (int round = 0; round < TURNS_IN_ROUNDS.length; round++) {
+				Assert.assertEquals(TURNS_IN_ROUNDS[round], reader.getTurnsCount(round));
+			}
+			assertTurn(reader.readTurn(0, 0), 0, 0);
+			assertTurn(reader.readTurn(2, 49), 2, 49);
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void importsWithoutReplay() throws IOException {
+		XmlRecordImport recordImport = new XmlRecordImport(createXmlRecord(), file, WINDOW_SIZE);
+
+		try {
+			recordImport.awaitCompletion();
+			Assert.assertFalse(recordImport.startReplay());
+		} finally {
+			recordImport.close();
+		}
+		IndexedRecordReader reader = new IndexedRecordReader(file);
+
+		try {
+			assertTurn(reader.readTurn(0, 299), 0, 299);
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void cancelsWhileWaitingForReplay() throws IOException {
+		XmlRecordImport recordImport = new XmlRecordImport(createXmlRecord(), file, WINDOW_SIZE);
+
+		recordImport.awaitRecordInfo();
+		recordImport.close();
+	}
+
+	private static ByteArrayInputStream createXmlRecord() throws IOException {
+		StringWriter out = new StringWriter();
+		XmlWriter writer = new XmlWriter(out, false);
+		SerializableOptions options = new SerializableOptions(false);
+
+		writer.startDocument();
+		writer.startElement("record");
+		writer.startElement("recordInfo");
+		writer.writeAttribute("robotCount", 0);
+		writer.writeAttribute("roundsCount", TURNS_IN_ROUNDS.length);
+		writer.startElement("rounds");
+		for (int turns : TURNS_IN_ROUNDS) {
+			writer.startElement("turns");
+			writer.writeAttribute("value", turns);
+			writer.endElement();
+		}
+		writer.endElement(); // rounds
+		writer.endElement(); // recordInfo
+		writer.startElement("turns");
+		for (int round = 0; round < TURNS_IN_ROUNDS.length; round++) {
+			for (int turn = 0; turn < TURNS_IN_ROUNDS[round]; turn++) {
+				createTurn(round, turn).writeXml(writer, options);
+			}
+		}
+		writer.endElement(); // turns
+		writer.endElement(); // record
+
+		return new ByteArrayInputStream(out.toString().getBytes("UTF-8"));
+	}
+
+	private static TurnSnapshot createTurn(int round, int turn) {
+		ByteBuffer buffer = ByteBuffer.allocate(64);
+
+		buffer.putInt(round);
+		buffer.putInt(turn);
+		buffer.putInt(30); // TPS
+		buffer.putInt(0); // robots
+		buffer.putInt(0); // bullets
+		buffer.flip();
+
+		return TurnSnapshot.readBinary(buffer);
+	}
+
+	private static void assertTurn(TurnSnapshot snapshot, int round, int turn) {
+		Assert.assertNotNull(snapshot);
+		Assert.assertEquals(round, snapshot.getRound());
+		Assert.assertEquals(turn, snapshot.getTurn());
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.control.BattleSpecification;
+import robocode.control.RobocodeEngine;
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.RoundEndedEvent;
+import robocode.control.events.TurnEndedEvent;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Runs complete battles between sample robots as fast as possible.
+ * <p/>
+ * The turns counter gives the turns per second (TPS) of the engine, which covers the whole turn loop including
+ * the robot threads, {@code RobotPeer.performMove()}, {@code RobotPeer.performScan()} and
+ * {@code BulletPeer.update()}. The peers depend on a running battle, so these hot paths are measured here rather
+ * than in isolation; the melee battle is dominated by scanning and robot collisions, and the one-on-one battle by
+ * bullets. With {@code snapshots} enabled a listener consumes the turn events, which adds the cost of creating the
+ * turn snapshots.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 10, time = 5)
+@Fork(1)
+public class BattleBenchmark {
+
+	@Param({ BenchmarkSupport.MELEE_ROBOTS, BenchmarkSupport.ONE_ON_ONE_ROBOTS })
+	public String robots;
+
+	@Param({ "false", "true" })
+	public boolean snapshots;
+
+	@Param({ "3" })
+	public int numRounds;
+
+	private RobocodeEngine engine;
+	private TurnCounter counter;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		engine = BenchmarkSupport.createEngine();
+		counter = snapshots ? new SnapshotTurnCounter() : new TurnCounter();
+		engine.addBattleListener(counter);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		engine.removeBattleListener(counter);
+		engine.close();
+	}
+
+	@Benchmark
+	public void battle(Turns turns) {
+		BattleSpecification battle = BenchmarkSupport.createBattle(engine, robots, numRounds);
+
+		counter.turns = 0;
+		engine.runBattle(battle, true);
+		turns.turns += counter.turns;
+	}
+
+	/**
+	 * Reports the number of turns played, i.e. the TPS when divided by the run time.
+	 */
+	@AuxCounters
+	@State(Scope.Thread)
+	public static class Turns {
+		public long turns;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			turns = 0;
+		}
+	}
+
+	private static class TurnCounter extends BattleAdaptor {
+		volatile int turns;
+
+		@Override
+		public void onRoundEnded(RoundEndedEvent event) {
+			turns += event.getTurns();
+		}
+	}
+
+	private static class SnapshotTurnCounter extends TurnCounter {
+		// Overriding onTurnEnded() makes the battle create the turn snapshots
+		@Override
+		public void onTurnEnded(TurnEndedEvent event) {}
+	}
+}
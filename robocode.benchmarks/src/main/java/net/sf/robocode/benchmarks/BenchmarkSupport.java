@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
+import net.sf.robocode.security.HiddenAccess;
+import robocode.BattleRules;
+import robocode.control.BattleSpecification;
+import robocode.control.BattlefieldSpecification;
+import robocode.control.RandomFactory;
+import robocode.control.RobocodeEngine;
+import robocode.control.RobotSpecification;
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.BattleStartedEvent;
+import robocode.control.events.TurnEndedEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Shared setup for the benchmarks.
+ * <p/>
+ * The benchmarks are meant to be run from the robocode.benchmarks directory, where the sample robots are unpacked
+ * into target/robots by the build. Another robot directory can be set with the ROBOTPATH system property.
+ * Each benchmark runs in its own forked JVM, so the static setup of the engine is done once per benchmark.
+ */
+public final class BenchmarkSupport {
+
+	/**
+	 * Sample robots for a melee battle, which stresses scanning, robot collisions and events.
+	 */
+	public static final String MELEE_ROBOTS = "sample.Corners,sample.Crazy,sample.Fire,sample.RamFire,sample.SpinBot,sample.Tracker,sample.TrackFire,sample.Walls";
+
+	/**
+	 * Sample robots for a one-on-one battle, which is dominated by bullets.
+	 */
+	public static final String ONE_ON_ONE_ROBOTS = "sample.SpinBot,sample.TrackFire";
+
+	private static final BattlefieldSpecification BATTLEFIELD = new BattlefieldSpecification(800, 600);
+
+	private BenchmarkSupport() {}
+
+	/**
+	 * Initializes the container without the engine class loader and security, which is needed by benchmarks using
+	 * the serialization and painting classes directly, i.e. without running a battle.
+	 */
+	public static void initContainer() {
+		System.setProperty("NOSECURITY", "true");
+		System.setProperty("WORKINGDIRECTORY", "target");
+		HiddenAccess.initContainer();
+	}
+
+	/**
+	 * Creates an engine that loads the robots from the robot directory of the benchmarks.
+	 *
+	 * @return the new engine, which must be closed by the caller.
+	 */
+	public static RobocodeEngine createEngine() {
+		System.setProperty("WORKINGDIRECTORY", "target");
+		if (System.getProperty("ROBOTPATH") == null) {
+			try {
+				System.setProperty("ROBOTPATH", new File("target/robots").getCanonicalPath());
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		return new RobocodeEngine();
+	}
+
+	/**
+	 * Creates a deterministic battle between the specified robots.
+	 *
+	 * @param engine the engine to look up the robots with.
+	 * @param robots a comma separated list of robot class names.
+	 * @param numRounds the number of rounds.
+	 * @return the battle specification.
+	 * @throws IllegalStateException if not all the robots were found.
+	 */
+	public static BattleSpecification createBattle(RobocodeEngine engine, String robots, int numRounds) {
+		RobotSpecification[] specifications = engine.getLocalRepository(robots);
+
+		if (specifications == null || specifications.length != robots.split(",").length) {
+			throw new IllegalStateException(
+					"Robots not found: " + robots + ", ROBOTPATH=" + System.getProperty("ROBOTPATH"));
+		}
+		RandomFactory.resetDeterministic(0);
+		return new BattleSpecification(numRounds, BATTLEFIELD, specifications);
+	}
+
+	/**
+	 * Runs a battle and keeps all its turn snapshots, which gives realistic input for the snapshot and record
+	 * benchmarks.
+	 *
+	 * @param robots a comma separated list of robot class names.
+	 * @param numRounds the number of rounds.
+	 * @return the recorded battle.
+	 */
+	public static RecordedBattle recordBattle(String robots, int numRounds) {
+		final RecordedBattle battle = new RecordedBattle();
+		RobocodeEngine engine = createEngine();
+
+		try {
+			engine.addBattleListener(new BattleAdaptor() {
+				@Override
+				public void onBattleStarted(BattleStartedEvent event) {
+					battle.rules = event.getBattleRules();
+					battle.robotCount = event.getRobotsCount();
+				}
+
+				@Override
+				public void onTurnEnded(TurnEndedEvent event) {
+					battle.turns.add((TurnSnapshot) event.getTurnSnapshot());
+				}
+			});
+			engine.runBattle(createBattle(engine, robots, numRounds), true);
+		} finally {
+			engine.close();
+		}
+		return battle;
+	}
+
+	/**
+	 * The turn snapshots of a battle that has been run.
+	 */
+	public static final class RecordedBattle {
+		public BattleRules rules;
+		public int robotCount;
+		public final List<TurnSnapshot> turns = new ArrayList<TurnSnapshot>();
+	}
+}
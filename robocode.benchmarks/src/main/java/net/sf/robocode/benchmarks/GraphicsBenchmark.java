@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import net.sf.robocode.robotpaint.Graphics2DSerialized;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Recording of robot paintings into {@link Graphics2DSerialized}, and the replay of the recorded calls onto an
+ * off-screen image, as done for every robot with painting enabled on every turn.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class GraphicsBenchmark {
+
+	private static final Font FONT = new Font("Dialog", Font.PLAIN, 10);
+
+	// Number of painted targets per turn, where each target is painted with a handful of calls
+	@Param({ "10", "100" })
+	public int targets;
+
+	private Graphics2DSerialized recorder;
+	private Graphics2DSerialized replayer;
+	private byte[] recordedCalls;
+
+	private BufferedImage image;
+	private Graphics2D imageGraphics;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		BenchmarkSupport.initContainer();
+
+		recorder = new Graphics2DSerialized();
+		recorder.setPaintingEnabled(true);
+
+		image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+		imageGraphics = image.createGraphics();
+
+		// Same setup as the battle view uses for replaying the paintings of a robot
+		replayer = new Graphics2DSerialized();
+		replayer.setPaintingEnabled(true);
+
+		recordedCalls = record();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		imageGraphics.dispose();
+	}
+
+	@Benchmark
+	public byte[] record() {
+		Graphics2D g = recorder;
+
+		for (int i = 0; i < targets; i++) {
+			double x = 20 + (i * 37) % 760;
+			double y = 20 + (i * 53) % 560;
+
+			g.setColor(Color.RED);
+			g.draw(new Line2D.Double(400, 300, x, y));
+			g.setColor(new Color(0, 255, 0, 128));
+			g.fill(new Ellipse2D.Double(x - 18, y - 18, 36, 36));
+			g.setStroke(new BasicStroke(2));
+			g.draw(new Arc2D.Double(x - 50, y - 50, 100, 100, 30, 60, Arc2D.PIE));
+			g.drawRect((int) x - 20, (int) y - 20, 40, 40);
+			g.setFont(FONT);
+			g.drawString("target " + i, (float) x, (float) y - 25);
+		}
+		return recorder.readoutQueuedCalls();
+	}
+
+	@Benchmark
+	public BufferedImage replay() {
+		replayer.processTo(imageGraphics, recordedCalls);
+		return image;
+	}
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import net.sf.robocode.peer.BulletCommand;
+import net.sf.robocode.peer.BulletStatus;
+import net.sf.robocode.peer.ExecCommands;
+import net.sf.robocode.peer.ExecResults;
+import net.sf.robocode.peer.TeamMessage;
+import net.sf.robocode.security.HiddenAccess;
+import net.sf.robocode.serialization.RbSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.Bullet;
+import robocode.Event;
+import robocode.HitByBulletEvent;
+import robocode.ScannedRobotEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Round-trips of the messages exchanged between a robot and its peer on every turn through {@link RbSerializer}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+	private RbSerializer serializer;
+	private ExecCommands commands;
+	private ExecResults results;
+	private ByteBuffer buffer;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		BenchmarkSupport.initContainer();
+		serializer = new RbSerializer();
+
+		commands = new ExecCommands();
+		commands.setBodyTurnRemaining(0.3);
+		commands.setGunTurnRemaining(-0.1);
+		commands.setRadarTurnRemaining(Math.PI);
+		commands.setDistanceRemaining(100);
+		commands.setOutputText("Turning the radar");
+		commands.setDebugProperty("target", "sample.Walls");
+		commands.getBullets().add(new BulletCommand(2.5, true, 1.234, 7));
+		commands.getTeamMessages().add(new TeamMessage("sample.Leader", null, new byte[64]));
+
+		List<Event> events = new ArrayList<Event>();
+
+		events.add(new ScannedRobotEvent("sample.Walls", 85.5, 0.25, 312.7, 1.57, 8, false));
+		events.add(new ScannedRobotEvent("sample.Crazy", 42.1, -1.25, 96.4, 3.1, -4, false));
+		events.add(new HitByBulletEvent(0.5, new Bullet(1.2, 100, 200, 1, "sample.Fire", null, true, 3)));
+
+		List<BulletStatus> bullets = new ArrayList<BulletStatus>();
+
+		bullets.add(new BulletStatus(7, 120.5, 340.25, null, true));
+		bullets.add(new BulletStatus(6, 410.5, 40.75, "sample.Walls", false));
+
+		results = new ExecResults(commands, HiddenAccess.createStatus(97.5, 400, 300, 1.5, 1.4, 0.3, 8, 0.1, 0.2, 0.3,
+				50, 0.4, 7, 0, 1, 10, 123), events, new ArrayList<TeamMessage>(commands.getTeamMessages()), bullets, false,
+				true, false);
+
+		buffer = ByteBuffer.allocateDirect(64 * 1024);
+	}
+
+	@Benchmark
+	public Object execCommandsRoundTrip() throws IOException {
+		return roundTrip(RbSerializer.ExecCommands_TYPE, commands);
+	}
+
+	@Benchmark
+	public Object execResultsRoundTrip() throws IOException {
+		return roundTrip(RbSerializer.ExecResults_TYPE, results);
+	}
+
+	@Benchmark
+	public Object execCommandsDeepCopy() {
+		return RbSerializer.deepCopy(RbSerializer.ExecCommands_TYPE, commands);
+	}
+
+	private Object roundTrip(byte type, Object object) throws IOException {
+		buffer.clear();
+		serializer.serializeToBuffer(buffer, type, object);
+		buffer.flip();
+		return serializer.deserialize(buffer);
+	}
+}
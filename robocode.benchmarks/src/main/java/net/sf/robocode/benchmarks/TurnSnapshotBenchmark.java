@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
+import net.sf.robocode.serialization.SerializableOptions;
+import net.sf.robocode.serialization.XmlWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Encoding and decoding of single turn snapshots of a melee battle, one turn per invocation.
+ * <p/>
+ * The snapshots are recorded from a real battle at setup, and every invocation works on the next turn, so that
+ * the delta encoding sees the same changes between turns as the battle recorder.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TurnSnapshotBenchmark {
+
+	private List<TurnSnapshot> turns;
+	private ByteBuffer[] binaryTurns;
+	private ByteBuffer[] deltaTurns;
+	private int index;
+
+	private ByteBuffer buffer;
+	private CharArrayWriter xmlBuffer;
+	private SerializableOptions xmlOptions;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		turns = BenchmarkSupport.recordBattle(BenchmarkSupport.MELEE_ROBOTS, 1).turns;
+
+		binaryTurns = new ByteBuffer[turns.size()];
+		deltaTurns = new ByteBuffer[turns.size()];
+
+		int maxSize = 0;
+		int deltaCount = 0;
+
+		for (int i = 0; i < turns.size(); i++) {
+			TurnSnapshot turn = turns.get(i);
+
+			binaryTurns[i] = ByteBuffer.allocate(turn.sizeOfBinary());
+			turn.writeBinary(binaryTurns[i]);
+			binaryTurns[i].flip();
+			maxSize = Math.max(maxSize, turn.sizeOfBinary());
+
+			if (i > 0) {
+				TurnSnapshot previous = turns.get(i - 1);
+
+				if (turn.canWriteBinaryDelta(previous)) {
+					deltaTurns[i] = ByteBuffer.allocate(turn.sizeOfBinaryDelta(previous));
+					turn.writeBinaryDelta(deltaTurns[i], previous);
+					deltaTurns[i].flip();
+					maxSize = Math.max(maxSize, deltaTurns[i].limit());
+					deltaCount++;
+				}
+			}
+		}
+		if (deltaCount == 0) {
+			throw new IllegalStateException("No delta encoded turns in the recorded battle");
+		}
+		buffer = ByteBuffer.allocate(maxSize);
+		xmlBuffer = new CharArrayWriter(64 * 1024);
+		xmlOptions = new SerializableOptions(false);
+	}
+
+	@Benchmark
+	public ByteBuffer writeBinary() {
+		TurnSnapshot turn = turns.get(nextIndex());
+
+		buffer.clear();
+		turn.writeBinary(buffer);
+		return buffer;
+	}
+
+	@Benchmark
+	public TurnSnapshot readBinary() {
+		ByteBuffer source = binaryTurns[nextIndex()];
+
+		source.rewind();
+		return TurnSnapshot.readBinary(source);
+	}
+
+	@Benchmark
+	public ByteBuffer writeBinaryDelta() {
+		int i = nextDeltaIndex();
+		TurnSnapshot turn = turns.get(i);
+
+		buffer.clear();
+		turn.writeBinaryDelta(buffer, turns.get(i - 1));
+		return buffer;
+	}
+
+	@Benchmark
+	public TurnSnapshot readBinaryDelta() {
+		int i = nextDeltaIndex();
+		ByteBuffer source = deltaTurns[i];
+
+		source.rewind();
+		return TurnSnapshot.readBinaryDelta(source, turns.get(i - 1));
+	}
+
+	@Benchmark
+	public CharArrayWriter writeXml() throws IOException {
+		TurnSnapshot turn = turns.get(nextIndex());
+
+		xmlBuffer.reset();
+		turn.writeXml(new XmlWriter(xmlBuffer, false), xmlOptions);
+		return xmlBuffer;
+	}
+
+	private int nextIndex() {
+		if (++index >= turns.size()) {
+			index = 0;
+		}
+		return index;
+	}
+
+	private int nextDeltaIndex() {
+		do {
+			nextIndex();
+		} while (deltaTurns[index] == null);
+		return index;
+	}
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
+import net.sf.robocode.benchmarks.BenchmarkSupport;
+import net.sf.robocode.serialization.IXmlSerializable;
+import net.sf.robocode.serialization.SerializableOptions;
+import net.sf.robocode.serialization.XmlReader;
+import net.sf.robocode.serialization.XmlWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Writing and reading of a complete battle record in the indexed binary format used while recording, and in the
+ * XML format used for exporting and importing records.
+ * <p/>
+ * This benchmark lives in the recording package, as the record readers and writers are package private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class RecordBenchmark {
+
+	private static final int NUM_ROUNDS = 2;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private List<TurnSnapshot> turns;
+	private BattleRecordInfo recordInfo;
+	private SerializableOptions options;
+
+	private File writeFile;
+	private File readFile;
+	private IndexedRecordReader reader;
+	private final Random random = new Random(42);
+
+	private ByteArrayOutputStream xmlOutput;
+	private byte[] xmlRecord;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		BenchmarkSupport.RecordedBattle battle = BenchmarkSupport.recordBattle(BenchmarkSupport.MELEE_ROBOTS,
+				NUM_ROUNDS);
+
+		turns = battle.turns;
+
+		recordInfo = new BattleRecordInfo();
+		recordInfo.robotCount = battle.robotCount;
+		recordInfo.roundsCount = NUM_ROUNDS;
+		recordInfo.battleRules = battle.rules;
+		recordInfo.turnsInRounds = new Integer[NUM_ROUNDS];
+		for (int i = 0; i < NUM_ROUNDS; i++) {
+			recordInfo.turnsInRounds[i] = 0;
+		}
+		for (TurnSnapshot turn : turns) {
+			recordInfo.turnsInRounds[turn.getRound()]++;
+		}
+
+		options = new SerializableOptions(false);
+
+		writeFile = File.createTempFile("robocode-benchmark", ".br");
+		readFile = File.createTempFile("robocode-benchmark", ".br");
+		writeIndexed(readFile);
+		reader = new IndexedRecordReader(readFile);
+
+		xmlOutput = new ByteArrayOutputStream(16 * 1024 * 1024);
+		xmlRecord = writeXml().toByteArray();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		reader.close();
+		if (!writeFile.delete()) {
+			writeFile.deleteOnExit();
+		}
+		if (!readFile.delete()) {
+			readFile.deleteOnExit();
+		}
+	}
+
+	@Benchmark
+	public File writeIndexed() throws IOException {
+		return writeIndexed(writeFile);
+	}
+
+	@Benchmark
+	public int readIndexedSequential() throws IOException {
+		int robots = 0;
+
+		for (int round = 0; round < NUM_ROUNDS; round++) {
+			for (int turn = 0; turn < recordInfo.turnsInRounds[round]; turn++) {
+				robots += reader.readTurn(round, turn).getRobots().length;
+			}
+		}
+		return robots;
+	}
+
+	@Benchmark
+	public TurnSnapshot readIndexedRandomTurn() throws IOException {
+		int round = random.nextInt(NUM_ROUNDS);
+
+		return reader.readTurn(round, random.nextInt(recordInfo.turnsInRounds[round]));
+	}
+
+	@Benchmark
+	public ByteArrayOutputStream writeXml() throws IOException {
+		xmlOutput.reset();
+
+		OutputStreamWriter osw = new OutputStreamWriter(xmlOutput, UTF8);
+		XmlWriter xwr = new XmlWriter(osw, false);
+
+		xwr.startDocument();
+		xwr.startElement("record");
+		recordInfo.writeXml(xwr, options);
+		xwr.startElement("turns");
+		for (TurnSnapshot turn : turns) {
+			turn.writeXml(xwr, options);
+		}
+		xwr.endElement(); // turns
+		xwr.endElement(); // record
+		xwr.flush();
+		return xmlOutput;
+	}
+
+	@Benchmark
+	public int readXml() throws IOException {
+		XmlRecord record = new XmlRecord();
+
+		XmlReader.deserialize(new ByteArrayInputStream(xmlRecord), record);
+		return record.turns;
+	}
+
+	private File writeIndexed(File file) throws IOException {
+		IndexedRecordWriter writer = new IndexedRecordWriter(file);
+
+		try {
+			for (TurnSnapshot turn : turns) {
+				writer.writeTurn(turn, turn.getRound());
+			}
+			writer.writeInfo(recordInfo);
+		} finally {
+			writer.close();
+		}
+		return file;
+	}
+
+	// Same structure as the record root used when importing XML records, but only counts the turns
+	private static class XmlRecord implements IXmlSerializable {
+		BattleRecordInfo recordInfo;
+		int turns;
+
+		public void writeXml(XmlWriter writer, SerializableOptions options) throws IOException {}
+
+		public XmlReader.Element readXml(XmlReader reader) {
+			return reader.expect("record", new XmlReader.Element() {
+				public IXmlSerializable read(final XmlReader reader) {
+					final XmlReader.Element element = (new BattleRecordInfo()).readXml(reader);
+
+					reader.expect("recordInfo", new XmlReader.ElementClose() {
+						public IXmlSerializable read(XmlReader reader) {
+							recordInfo = (BattleRecordInfo) element.read(reader);
+							return recordInfo;
+						}
+
+						public void close() {
+							reader.getContext().put("robots", recordInfo.robotCount);
+						}
+					});
+
+					reader.expect("turns", new XmlReader.ListElement() {
+						public IXmlSerializable read(XmlReader reader) {
+							return new TurnSnapshot();
+						}
+
+						public void add(IXmlSerializable child) {
+							turns++;
+						}
+
+						public void close() {}
+					});
+
+					return XmlRecord.this;
+				}
+			});
+		}
+	}
+}
@@ -58,6 +58,14 @@ public interface IBattleManager extends IBattleManagerBase {
 
 	void prevTurn();
 
+	/**
+	 * Jumps to the specified turn when a battle record is being replayed.
+	 *
+	 * @param round the round to jump to, starting from 0.
+	 * @param turn the turn within the round to jump to, starting from 0.
+	 */
+	void seekTurn(int round, int turn);
+
 	void pauseBattle();
 
 	void resumeBattle();
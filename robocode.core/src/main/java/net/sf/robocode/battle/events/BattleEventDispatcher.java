@@ -14,6 +14,8 @@ import net.sf.robocode.io.Logger;
 import robocode.control.events.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 
@@ -29,6 +31,10 @@ public class BattleEventDispatcher implements IBattleListener {
 	// then ConcurentModificationExceptions will occur from time to time.
 	private final List<IBattleListener> listeners = new CopyOnWriteArrayList<IBattleListener>();
 
+	// Caches if a listener class overrides the empty onTurnStarted() and onTurnEnded() methods of BattleAdaptor
+	private static final Map<Class<?>, Boolean> turnStartedOverrides = new ConcurrentHashMap<Class<?>, Boolean>();
+	private static final Map<Class<?>, Boolean> turnEndedOverrides = new ConcurrentHashMap<Class<?>, Boolean>();
+
 	public BattleEventDispatcher() {}
 
 	public void addListener(IBattleListener listener) {
@@ -42,6 +48,69 @@ public class BattleEventDispatcher implements IBattleListener {
 		listeners.remove(listener);
 	}
 
+	/**
+	 * Checks if any listener consumes turn started events. The battle does not need to create
+	 * {@link TurnStartedEvent}s if this method returns {@code false}.
+	 * <p/>
+	 * A listener extending {@link BattleAdaptor} declares that it is not interested in an event by not overriding
+	 * the corresponding empty method. Any other listener is assumed to consume all events.
+	 *
+	 * @return {@code true} if turn started events are consumed by some listener; {@code false} otherwise.
+	 */
+	public boolean isTurnStartedConsumed() {
+		for (IBattleListener listener : listeners) {
+			if (listener instanceof BattleEventDispatcher) {
+				if (((BattleEventDispatcher) listener).isTurnStartedConsumed()) {
+					return true;
+				}
+			} else if (overrides(listener, "onTurnStarted", TurnStartedEvent.class, turnStartedOverrides)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks if any listener consumes turn ended events. The battle does not need to create turn snapshots
+	 * and {@link TurnEndedEvent}s if this method returns {@code false}, which is typical for headless battles.
+	 *
+	 * @return {@code true} if turn ended events are consumed by some listener; {@code false} otherwise.
+	 * @see #isTurnStartedConsumed()
+	 */
+	public boolean isTurnEndedConsumed() {
+		for (IBattleListener listener : listeners) {
+			if (listener instanceof BattleEventDispatcher) {
+				if (((BattleEventDispatcher) listener).isTurnEndedConsumed()) {
+					return true;
+				}
+			} else if (overrides(listener, "onTurnEnded", TurnEndedEvent.class, turnEndedOverrides)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean overrides(IBattleListener listener, String methodName, Class<?> eventClass,
+			Map<Class<?>, Boolean> cache) {
+		if (!(listener instanceof BattleAdaptor)) {
+			return true;
+		}
+		final Class<?> listenerClass = listener.getClass();
+		Boolean overrides = cache.get(listenerClass);
+
+		if (overrides == null) {
+			try {
+				overrides = listenerClass.getMethod(methodName, eventClass).getDeclaringClass() != BattleAdaptor.class;
+			} catch (NoSuchMethodException e) {
+				overrides = true;
+			} catch (SecurityException e) {
+				overrides = true;
+			}
+			cache.put(listenerClass, overrides);
+		}
+		return overrides;
+	}
+
 	public void onBattleStarted(BattleStartedEvent event) {
 		for (IBattleListener listener : listeners) {
 			try {
@@ -32,6 +32,8 @@ public class URLJarCollector {
 	
 	private static HashMap<?, ?> fileCache;
 	private static HashMap<?, ?> urlCache;
+	// The lock used by the JarFileFactory when accessing its caches
+	private static Object jarFactoryLock = new Object();
 	private static Field jarFileURL;
 	private static final boolean sunJVM;
 	private static boolean enabled;
@@ -53,6 +55,16 @@ public class URLJarCollector {
 			urlCacheF.setAccessible(true);
 			urlCache = (HashMap<?, ?>) urlCacheF.get(null);
 
+			try {
+				final Field instanceF = jarFactory.getDeclaredField("instance");
+
+				instanceF.setAccessible(true);
+				jarFactoryLock = instanceF.get(null);
+			} catch (NoSuchFieldException e) {
+				// Older JarFileFactory implementations synchronize on the class
+				jarFactoryLock = jarFactory;
+			}
+
 			final Class<?> jarURLConnection = ClassLoader.getSystemClassLoader().loadClass(
 					"sun.net.www.protocol.jar.JarURLConnection");
 
@@ -70,7 +82,8 @@ public class URLJarCollector {
 		sunJVM = localSunJVM;
 	}
 
-	public static synchronized URLConnection openConnection(URL url) throws IOException {
+	// Not synchronized, as the repository reads several jar files in parallel
+	public static URLConnection openConnection(URL url) throws IOException {
 		// Logger.logMessage("Open connection to URL: " + url);
 		final URLConnection urlConnection = url.openConnection();
 
@@ -103,18 +116,18 @@ public class URLJarCollector {
 
 			// Remove all cache entries to temporary jar cache files created
 			// for connections using the jarjar protocol that get stuck up.
-			for (Iterator<?> it = fileCache.keySet().iterator(); it.hasNext();) {
-				Object urlJarFile = it.next();
+			synchronized (jarFactoryLock) {
+				for (Iterator<?> it = fileCache.keySet().iterator(); it.hasNext();) {
+					Object urlJarFile = it.next();
 
-				final JarFile jarFile = (JarFile) fileCache.get(urlJarFile);
+					final JarFile jarFile = (JarFile) fileCache.get(urlJarFile);
 
-				String filename = jarFile.getName();
+					String filename = jarFile.getName();
 
-				filename = filename.substring(filename.lastIndexOf(File.separatorChar) + 1).toLowerCase();
+					filename = filename.substring(filename.lastIndexOf(File.separatorChar) + 1).toLowerCase();
 
-				if (filename.startsWith("jar_cache")) {
-					it.remove();
-					synchronized (urlCache) {
+					if (filename.startsWith("jar_cache")) {
+						it.remove();
 						urlCache.remove(jarFile);
 					}
 				}
@@ -130,10 +143,8 @@ public class URLJarCollector {
 				try {
 					final URL url = (URL) jarFileURL.get(conn);
 
-					if (!urlsToClean.contains(url)) {
-						synchronized (urlsToClean) {
-							urlsToClean.add(url);
-						}
+					synchronized (urlsToClean) {
+						urlsToClean.add(url);
 					}
 				} catch (IllegalAccessException ignore) {}
 			}
@@ -142,33 +153,34 @@ public class URLJarCollector {
 
 	// Added due to bug fix [2867326] - Lockup on start if too many bots in robots dir (cont'd).
 	public synchronized static void closeJarURLConnection(URL url) {
-		if (url != null) {
-			for (Iterator<?> it = fileCache.keySet().iterator(); it.hasNext();) {
-				Object urlJarFile = it.next();
+		if (url != null && sunJVM) {
+			String urlPath = url.getPath();
 
-				final JarFile jarFile = (JarFile) fileCache.get(urlJarFile);
+			try {
+				urlPath = URLDecoder.decode(urlPath, "UTF-8");
+			} catch (java.io.UnsupportedEncodingException ignore) {}
 
-				String urlPath = url.getPath();
-
-				try {
-					urlPath = URLDecoder.decode(urlPath, "UTF-8");
-				} catch (java.io.UnsupportedEncodingException ignore) {}
+			final String urlFileName = new File(urlPath).getPath();
+			final List<JarFile> jarFilesToClose = new ArrayList<JarFile>();
 
-				File urlFile = new File(urlPath);
+			synchronized (jarFactoryLock) {
+				for (Iterator<?> it = fileCache.keySet().iterator(); it.hasNext();) {
+					Object urlJarFile = it.next();
 
-				String jarFileName = jarFile.getName();
-				String urlFileName = urlFile.getPath();
+					final JarFile jarFile = (JarFile) fileCache.get(urlJarFile);
 
-				if (urlFileName.equals(jarFileName)) {
-					it.remove();
-					synchronized (urlCache) {
+					if (urlFileName.equals(jarFile.getName())) {
+						it.remove();
 						urlCache.remove(jarFile);
+						jarFilesToClose.add(jarFile);
 					}
-					try {
-						jarFile.close();
-					} catch (IOException e) {
-						Logger.logError(e);
-					}
+				}
+			}
+			for (JarFile jarFile : jarFilesToClose) {
+				try {
+					jarFile.close();
+				} catch (IOException e) {
+					Logger.logError(e);
 				}
 			}
 		}
@@ -64,6 +64,40 @@ public final class ExecCommands implements Serializable {
 	}
 
 	public ExecCommands(ExecCommands origin, boolean fromRobot) {
+		copyMovement(origin);
+		if (fromRobot) {
+			debugProperties = origin.debugProperties; 
+			bullets = origin.bullets;
+			scan = origin.scan;
+			moved = origin.moved;
+			graphicsCalls = origin.graphicsCalls;
+			outputText = origin.outputText;
+			teamMessages = origin.teamMessages;
+			isTryingToPaint = origin.isTryingToPaint; 
+		}
+	}
+
+	/**
+	 * Reinitializes these commands as a copy of the battle state of the origin, which gives the same result as
+	 * {@code new ExecCommands(origin, false)}, but reuses the lists of this instance. The lists must no longer be
+	 * referenced by anyone else.
+	 *
+	 * @param origin the commands to copy the movement and colors from.
+	 */
+	public void reset(ExecCommands origin) {
+		copyMovement(origin);
+		moved = false;
+		scan = false;
+		isIORobot = false;
+		isTryingToPaint = false;
+		outputText = null;
+		graphicsCalls = null;
+		bullets.clear();
+		teamMessages.clear();
+		debugProperties.clear();
+	}
+
+	private void copyMovement(ExecCommands origin) {
 		bodyTurnRemaining = origin.bodyTurnRemaining;
 		radarTurnRemaining = origin.radarTurnRemaining;
 		gunTurnRemaining = origin.gunTurnRemaining;
@@ -75,16 +109,6 @@ public final class ExecCommands implements Serializable {
 		maxTurnRate = origin.maxTurnRate;
 		maxVelocity = origin.maxVelocity;
 		copyColors(origin);
-		if (fromRobot) {
-			debugProperties = origin.debugProperties; 
-			bullets = origin.bullets;
-			scan = origin.scan;
-			moved = origin.moved;
-			graphicsCalls = origin.graphicsCalls;
-			outputText = origin.outputText;
-			teamMessages = origin.teamMessages;
-			isTryingToPaint = origin.isTryingToPaint; 
-		}
 	}
 
 	public void copyColors(ExecCommands origin) {
@@ -35,6 +35,15 @@ public final class ExecResults implements Serializable {
 	private boolean paintEnabled;
 
 	public ExecResults(ExecCommands commands, RobotStatus status, List<Event> events, List<TeamMessage> teamMessages, List<BulletStatus> bulletUpdates, boolean halt, boolean shouldWait, boolean paintEnabled) {
+		set(commands, status, events, teamMessages, bulletUpdates, halt, shouldWait, paintEnabled);
+	}
+
+	private ExecResults() {}
+
+	/**
+	 * Replaces the content of these results, so that the same instance can be handed to the robot on every turn.
+	 */
+	public void set(ExecCommands commands, RobotStatus status, List<Event> events, List<TeamMessage> teamMessages, List<BulletStatus> bulletUpdates, boolean halt, boolean shouldWait, boolean paintEnabled) {
 		this.commands = commands;
 		this.status = status;
 		this.events = events;
@@ -45,8 +54,6 @@ public final class ExecResults implements Serializable {
 		this.paintEnabled = paintEnabled;
 	}
 
-	private ExecResults() {}
-
 	public ExecCommands getCommands() {
 		return commands;
 	}
@@ -32,6 +32,24 @@ public class TeamMessage implements Serializable {
 	public final String recipient;
 	public final byte[] message;
 
+	// The decoded message, if it is immutable and can be given to all recipients of this message
+	private transient volatile Serializable decodedMessage;
+
+	/**
+	 * Returns the decoded message shared by the recipients of this message, or null if the message has not been
+	 * decoded yet or cannot be shared.
+	 */
+	public Serializable getDecodedMessage() {
+		return decodedMessage;
+	}
+
+	/**
+	 * Sets the decoded message shared by the recipients of this message. Only immutable messages must be shared.
+	 */
+	public void setDecodedMessage(Serializable decodedMessage) {
+		this.decodedMessage = decodedMessage;
+	}
+
 	static ISerializableHelper createHiddenSerializer() {
 		return new SerializableHelper();
 	}
@@ -15,5 +15,12 @@ public enum BattleRecordFormat {
 	BINARY,
 	BINARY_ZIP,
 	XML,
-	XML_ZIP
+	XML_ZIP,
+
+	/**
+	 * Indexed binary format, where any turn can be read directly without reading the turns before it.
+	 *
+	 * @since 1.9.3.0
+	 */
+	INDEXED
 }
@@ -26,7 +26,14 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.text.AttributedCharacterIterator;
 import java.text.CharacterIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.UIManager;
 
@@ -39,6 +46,12 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 
 	private static final int INITIAL_BUFFER_SIZE = 2 * 1024;
 	private static final int MAX_BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_CACHED_OBJECTS = 256;
+	private static final int MAX_POOLED_CHUNKS = 256;
+
+	// Chunks of INITIAL_BUFFER_SIZE bytes for recording method calls, which are shared by all robots
+	private static final Queue<ByteBuffer> chunkPool = new ConcurrentLinkedQueue<ByteBuffer>();
+	private static final AtomicInteger pooledChunks = new AtomicInteger();
 
 	private final Method[] methods = Method.class.getEnumConstants();
 
@@ -139,9 +152,29 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 	// Byte buffer that works as a stack of method calls to this proxy
 	private ByteBuffer calls;
 
+	// Filled chunks of recorded method calls preceding the calls buffer, which is the chunk currently recorded into.
+	// A method call is never split between chunks.
+	private final List<ByteBuffer> recordedChunks = new ArrayList<ByteBuffer>();
+	private int recordedChunkBytes;
+
+	// Statistics of the method calls read out of this proxy
+	private int paintedTurns;
+	private long paintedBytes;
+	private int maxPaintedBytesPerTurn;
+
 	// Serializer for this proxy
 	private final RbSerializer serializer = new RbSerializer();
 
+	// The decoded method calls of the last painted calls, and the painted calls
+	private PaintCall[] displayList = new PaintCall[64];
+	private int displayListSize;
+	private byte[] compiledCalls;
+
+	// Colors, fonts and strokes that have been decoded, so equal ones are shared between calls and turns
+	private final Map<Integer, Color> colorCache = new HashMap<Integer, Color>();
+	private final Map<String, Font> fontCache = new HashMap<String, Font>();
+	private final Map<BasicStroke, BasicStroke> strokeCache = new HashMap<BasicStroke, BasicStroke>();
+
 	// FOR-DEBUG private Method lastRead;
 	// FOR-DEBUG private int lastPos;
 
@@ -169,7 +202,7 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 	public Graphics create() {
 		Graphics2DSerialized gfxProxyCopy = new Graphics2DSerialized();
 
-		gfxProxyCopy.calls = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+		gfxProxyCopy.startRecording();
 		gfxProxyCopy.transform = transform;
 		gfxProxyCopy.composite = copyOf(composite);
 		gfxProxyCopy.paint = paint;
@@ -1322,7 +1355,7 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 
 	public void setPaintingEnabled(boolean enabled) {
 		if (enabled && !isPaintingEnabled) {
-			calls = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+			startRecording();
 			calls.put(calls.order() == ByteOrder.BIG_ENDIAN ? (byte) 1 : (byte) 0);
 		}
 		isPaintingEnabled = enabled;
@@ -1330,7 +1363,7 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 
 	public void processTo(Graphics2D g) {
 		if (!isInitialized) {
-			calls = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+			startRecording();
 
 			// Make sure the transform is not null
 			transform = g.getTransform();
@@ -1355,483 +1388,480 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 			isInitialized = true;
 		}
 
-		calls.flip();
+		final ByteBuffer recordingCalls = calls;
 
-		while (calls.remaining() > 0) {
-			processQueuedCall(g);
+		calls = ByteBuffer.wrap(copyRecordedCalls());
+		try {
+			compileDisplayList();
+		} finally {
+			calls = recordingCalls;
 		}
+		compiledCalls = null;
+
+		renderDisplayList(g);
 	}
 
 	public void processTo(Graphics2D g, Object graphicsCalls) {
-		calls.clear();
+		final byte[] bytes = (byte[]) graphicsCalls;
 
-		calls.mark(); // Mark for rollback
-		try {
-			calls.put((byte[]) graphicsCalls);
-		} catch (BufferOverflowException e) {
-			calls.reset(); // Rollback buffer
-			if (reallocBuffer()) {
-				processTo(g, graphicsCalls);
-				return; // must exit here
-			}
-			calls.clear();
-		}
+		// The calls are only decoded again when they have changed, e.g. not when the same turn is painted again
+		if (bytes != compiledCalls && !Arrays.equals(bytes, compiledCalls)) {
+			final ByteBuffer recordedCalls = calls;
 
-		calls.flip();
-		calls.order(calls.get() == 1 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
-
-		while (calls.remaining() > 0) {
+			calls = ByteBuffer.wrap(bytes);
 			try {
-				processQueuedCall(g);
-			} catch (Exception e) {
-				e.printStackTrace();
-				// FOR-DEBUG } catch (Error e) {
-				// FOR-DEBUG 	calls.position(lastPos - 4);
+				calls.order(calls.get() == 1 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+				compileDisplayList();
+			} finally {
+				calls = recordedCalls;
 			}
+			compiledCalls = bytes;
 		}
+		renderDisplayList(g);
 	}
 
 	public byte[] readoutQueuedCalls() {
-		if (calls == null || calls.position() == 0) {
+		if (calls == null || (recordedChunks.isEmpty() && calls.position() == 0)) {
 			return null;
 		}
-		byte[] res = new byte[calls.position()];
+		byte[] res = copyRecordedCalls();
 
-		calls.flip();
-		calls.get(res);
+		// The current chunk is kept for recording the next turn
+		releaseRecordedChunks();
 
 		calls.clear();
 		calls.put(calls.order() == ByteOrder.BIG_ENDIAN ? (byte) 1 : (byte) 0);
 
+		if (res.length > 1) {
+			paintedTurns++;
+			paintedBytes += res.length;
+			maxPaintedBytesPerTurn = Math.max(maxPaintedBytesPerTurn, res.length);
+		}
 		return res;
 	}
 
-	private void processQueuedCall(Graphics2D g) {
-		Method m = readMethod();
+	public int getPaintedTurns() {
+		return paintedTurns;
+	}
+
+	public long getPaintedBytes() {
+		return paintedBytes;
+	}
+
+	public int getMaxPaintedBytesPerTurn() {
+		return maxPaintedBytesPerTurn;
+	}
+
+	public void resetPaintStatistics() {
+		paintedTurns = 0;
+		paintedBytes = 0;
+		maxPaintedBytesPerTurn = 0;
+	}
+
+	/**
+	 * A decoded method call in the display list. The arguments are kept in generic fields, which are used depending
+	 * on the method, so the calls of the display list can be reused when the display list is compiled again.
+	 */
+	private static final class PaintCall {
+		Method method;
+		int i0, i1, i2, i3, i4, i5;
+		float f0, f1;
+		double d0, d1, d2;
+		boolean flag;
+		Object o0, o1;
+	}
+
+	// Decodes the remaining method calls in the calls buffer into the display list
+	private void compileDisplayList() {
+		displayListSize = 0;
+
+		while (calls.remaining() > 0) {
+			if (displayListSize == displayList.length) {
+				PaintCall[] newDisplayList = new PaintCall[displayList.length * 2];
+
+				System.arraycopy(displayList, 0, newDisplayList, 0, displayList.length);
+				displayList = newDisplayList;
+			}
+			PaintCall call = displayList[displayListSize];
+
+			if (call == null) {
+				call = new PaintCall();
+				displayList[displayListSize] = call;
+			}
+			try {
+				compileQueuedCall(call);
+			} catch (Exception e) {
+				// The rest of the calls cannot be decoded
+				e.printStackTrace();
+				break;
+			}
+			displayListSize++;
+		}
+		// Release the arguments of calls that are not used anymore
+		for (int i = displayListSize; i < displayList.length && displayList[i] != null; i++) {
+			displayList[i].o0 = null;
+			displayList[i].o1 = null;
+		}
+	}
+
+	private void renderDisplayList(Graphics2D g) {
+		for (int i = 0; i < displayListSize; i++) {
+			try {
+				renderCall(g, displayList[i]);
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private void compileQueuedCall(PaintCall call) {
+		final Method m = readMethod();
+
+		call.method = m;
+		call.o0 = null;
+		call.o1 = null;
 
 		switch (m) {
+		case SET_PAINT_MODE:
+			// setPaintMode()
+			break;
+
 		case TRANSLATE_INT:
-			processTranslate_int(g);
+			// translate(int, int)
+			call.i0 = calls.getInt();
+			call.i1 = calls.getInt();
+			break;
+
+		case SET_COLOR: // setColor(Color)
+		case SET_XOR_MODE: // setXORMode(Color)
+		case SET_BACKGROUND: // setBackground(Color)
+			call.o0 = readColor();
+			break;
+
+		case SET_FONT:
+			// setFont(Font)
+			call.o0 = readFont();
+			break;
+
+		case CLIP_RECT: // clipRect(int, int, int, int)
+		case SET_CLIP: // setClip(int, int, int, int)
+		case DRAW_LINE: // drawLine(int, int, int, int)
+		case FILL_RECT: // fillRect(int, int, int, int)
+		case DRAW_RECT: // drawRect(int, int, int, int)
+		case CLEAR_RECT: // clearRect(int, int, int, int)
+		case DRAW_OVAL: // drawOval(int, int, int, int)
+		case FILL_OVAL: // fillOval(int, int, int, int)
+			call.i0 = calls.getInt();
+			call.i1 = calls.getInt();
+			call.i2 = calls.getInt();
+			call.i3 = calls.getInt();
+			break;
+
+		case COPY_AREA: // copyArea(int, int, int, int, int, int)
+		case DRAW_ROUND_RECT: // drawRoundRect(int, int, int, int, int, int)
+		case FILL_ROUND_RECT: // fillRoundRect(int, int, int, int, int, int)
+		case DRAW_ARC: // drawArc(int, int, int, int, int, int)
+		case FILL_ARC: // fillArc(int, int, int, int, int, int)
+			call.i0 = calls.getInt();
+			call.i1 = calls.getInt();
+			call.i2 = calls.getInt();
+			call.i3 = calls.getInt();
+			call.i4 = calls.getInt();
+			call.i5 = calls.getInt();
+			break;
+
+		case DRAW_3D_RECT: // draw3DRect(int, int, int, int, boolean)
+		case FILL_3D_RECT: // fill3DRect(int, int, int, int, boolean)
+			call.i0 = calls.getInt();
+			call.i1 = calls.getInt();
+			call.i2 = calls.getInt();
+			call.i3 = calls.getInt();
+			call.flag = serializer.deserializeBoolean(calls);
+			break;
+
+		case SET_CLIP_SHAPE: // setClip(Shape)
+		case DRAW_SHAPE: // draw(Shape)
+		case FILL_SHAPE: // fill(Shape)
+		case CLIP: // clip(Shape)
+			call.o0 = readShape();
+			break;
+
+		case DRAW_POLYLINE: // drawPolyline(int[], int[], int)
+		case DRAW_POLYGON: // drawPolygon(int[], int[], int)
+		case FILL_POLYGON: // fillPolygon(int[], int[], int)
+			call.o0 = serializer.deserializeIntegers(calls);
+			call.o1 = serializer.deserializeIntegers(calls);
+			call.i0 = calls.getInt();
+			break;
+
+		case DRAW_STRING_INT: // drawString(String, int, int)
+		case DRAW_STRING_ACI_INT: // drawString(AttributedCharacterIterator, int, int)
+			call.o0 = serializer.deserializeString(calls);
+			call.i0 = calls.getInt();
+			call.i1 = calls.getInt();
+			break;
+
+		case DRAW_CHARS:
+			// drawChars(char[], int, int, int, int)
+			call.o0 = serializer.deserializeChars(calls);
+			call.i0 = calls.getInt();
+			call.i1 = calls.getInt();
+			call.i2 = calls.getInt();
+			call.i3 = calls.getInt();
+			break;
+
+		case DRAW_BYTES:
+			// drawBytes(byte[], int, int, int, int)
+			call.o0 = serializer.deserializeBytes(calls);
+			call.i0 = calls.getInt();
+			call.i1 = calls.getInt();
+			call.i2 = calls.getInt();
+			call.i3 = calls.getInt();
+			break;
+
+		case DRAW_STRING_FLOAT: // drawString(String, float, float)
+		case DRAW_STRING_ACI_FLOAT: // drawString(AttributedCharacterIterator, float, float)
+			call.o0 = serializer.deserializeString(calls);
+			call.f0 = calls.getFloat();
+			call.f1 = calls.getFloat();
+			break;
+
+		case SET_COMPOSITE:
+			// setComposite(Composite)
+			call.o0 = readComposite();
+			break;
+
+		case SET_PAINT:
+			// setPaint(Paint)
+			call.o0 = readPaint();
+			break;
+
+		case SET_STROKE:
+			// setStroke(Stroke)
+			call.o0 = readStroke();
+			break;
+
+		case TRANSLATE_DOUBLE: // translate(double, double)
+		case SCALE: // scale(double, double)
+		case SHEAR: // shear(double, double)
+			call.d0 = calls.getDouble();
+			call.d1 = calls.getDouble();
+			break;
+
+		case ROTATE:
+			// rotate(double)
+			call.d0 = calls.getDouble();
+			break;
+
+		case ROTATE_XY:
+			// rotate(double, double, double)
+			call.d0 = calls.getDouble();
+			call.d1 = calls.getDouble();
+			call.d2 = calls.getDouble();
+			break;
+
+		case TRANSFORM: // transform(AffineTransform)
+		case SET_TRANSFORM: // setTransform(AffineTransform)
+			call.o0 = readAffineTransform();
+			break;
+
+		case DRAW_GLYPH_VECTOR:
+		case DRAW_IMAGE_1:
+		case DRAW_IMAGE_2:
+		case DRAW_IMAGE_3:
+		case DRAW_IMAGE_4:
+		case DRAW_IMAGE_5:
+		case DRAW_IMAGE_6:
+		case DRAW_IMAGE_7:
+		case DRAW_IMAGE_8:
+		case DRAW_RENDERED_IMAGE:
+		case DRAW_RENDERABLE_IMAGE:
+		case SET_RENDERING_HINT:
+		case SET_RENDERING_HINTS:
+		case ADD_RENDERING_HINTS:
+		default:
+			notSupported();
+			break;
+		}
+	}
+
+	private static void renderCall(Graphics2D g, PaintCall call) {
+		switch (call.method) {
+		case TRANSLATE_INT:
+			g.translate(call.i0, call.i1);
 			break;
 
 		case SET_COLOR:
-			processSetColor(g);
+			g.setColor((Color) call.o0);
 			break;
 
 		case SET_PAINT_MODE:
-			processSetPaintMode(g);
+			g.setPaintMode();
 			break;
 
 		case SET_XOR_MODE:
-			processSetXORMode(g);
+			g.setXORMode((Color) call.o0);
 			break;
 
 		case SET_FONT:
-			processSetFont(g);
+			g.setFont((Font) call.o0);
 			break;
 
 		case CLIP_RECT:
-			processClipRect(g);
+			g.clipRect(call.i0, call.i1, call.i2, call.i3);
 			break;
 
 		case SET_CLIP:
-			processSetClip(g);
+			g.setClip(call.i0, call.i1, call.i2, call.i3);
 			break;
 
 		case SET_CLIP_SHAPE:
-			processSetClip_Shape(g);
+			g.setClip((Shape) call.o0);
 			break;
 
 		case COPY_AREA:
-			processCopyArea(g);
+			g.copyArea(call.i0, call.i1, call.i2, call.i3, call.i4, call.i5);
 			break;
 
 		case DRAW_LINE:
-			processDrawLine(g);
+			g.drawLine(call.i0, call.i1, call.i2, call.i3);
 			break;
 
 		case FILL_RECT:
-			processFillRect(g);
+			g.fillRect(call.i0, call.i1, call.i2, call.i3);
 			break;
 
 		case DRAW_RECT:
-			processDrawRect(g);
+			g.drawRect(call.i0, call.i1, call.i2, call.i3);
 			break;
 
 		case CLEAR_RECT:
-			processClearRect(g);
+			g.clearRect(call.i0, call.i1, call.i2, call.i3);
 			break;
 
 		case DRAW_ROUND_RECT:
-			processDrawRoundRect(g);
+			g.drawRoundRect(call.i0, call.i1, call.i2, call.i3, call.i4, call.i5);
 			break;
 
 		case FILL_ROUND_RECT:
-			processFillRoundRect(g);
+			g.fillRoundRect(call.i0, call.i1, call.i2, call.i3, call.i4, call.i5);
 			break;
 
 		case DRAW_3D_RECT:
-			processDraw3DRect(g);
+			g.draw3DRect(call.i0, call.i1, call.i2, call.i3, call.flag);
 			break;
 
 		case FILL_3D_RECT:
-			processFill3DRect(g);
+			g.fill3DRect(call.i0, call.i1, call.i2, call.i3, call.flag);
 			break;
 
 		case DRAW_OVAL:
-			processDrawOval(g);
+			g.drawOval(call.i0, call.i1, call.i2, call.i3);
 			break;
 
 		case FILL_OVAL:
-			processFillOval(g);
+			g.fillOval(call.i0, call.i1, call.i2, call.i3);
 			break;
 
 		case DRAW_ARC:
-			processDrawArc(g);
+			g.drawArc(call.i0, call.i1, call.i2, call.i3, call.i4, call.i5);
 			break;
 
 		case FILL_ARC:
-			processFillArc(g);
+			g.fillArc(call.i0, call.i1, call.i2, call.i3, call.i4, call.i5);
 			break;
 
 		case DRAW_POLYLINE:
-			processDrawPolyline(g);
+			g.drawPolyline((int[]) call.o0, (int[]) call.o1, call.i0);
 			break;
 
 		case DRAW_POLYGON:
-			processDrawPolygon(g);
+			g.drawPolygon((int[]) call.o0, (int[]) call.o1, call.i0);
 			break;
 
 		case FILL_POLYGON:
-			processFillPolygon(g);
+			g.fillPolygon((int[]) call.o0, (int[]) call.o1, call.i0);
 			break;
 
 		case DRAW_STRING_INT:
-			processDrawString_int(g);
-			break;
-
 		case DRAW_STRING_ACI_INT:
-			processDrawString_ACIterator_int(g);
+			g.drawString((String) call.o0, call.i0, call.i1);
 			break;
 
 		case DRAW_CHARS:
-			processDrawChars(g);
+			g.drawChars((char[]) call.o0, call.i0, call.i1, call.i2, call.i3);
 			break;
 
 		case DRAW_BYTES:
-			processDrawBytes(g);
+			g.drawBytes((byte[]) call.o0, call.i0, call.i1, call.i2, call.i3);
 			break;
 
 		case DRAW_SHAPE:
-			processDrawShape(g);
+			g.draw((Shape) call.o0);
 			break;
 
 		case DRAW_STRING_FLOAT:
-			processDrawString_float(g);
-			break;
-
 		case DRAW_STRING_ACI_FLOAT:
-			processDrawString_ACIterator_float(g);
+			g.drawString((String) call.o0, call.f0, call.f1);
 			break;
 
 		case FILL_SHAPE:
-			processFillShape(g);
+			g.fill((Shape) call.o0);
 			break;
 
 		case SET_COMPOSITE:
-			processSetComposite(g);
+			g.setComposite((Composite) call.o0);
 			break;
 
 		case SET_PAINT:
-			processSetPaint(g);
+			g.setPaint((Paint) call.o0);
 			break;
 
 		case SET_STROKE:
-			processSetStroke(g);
+			g.setStroke((Stroke) call.o0);
 			break;
 
 		case TRANSLATE_DOUBLE:
-			processTranslate_double(g);
+			g.translate(call.d0, call.d1);
 			break;
 
 		case ROTATE:
-			processRotate(g);
+			g.rotate(call.d0);
 			break;
 
 		case ROTATE_XY:
-			processRotate_xy(g);
+			g.rotate(call.d0, call.d1, call.d2);
 			break;
 
 		case SCALE:
-			processScale(g);
+			g.scale(call.d0, call.d1);
 			break;
 
 		case SHEAR:
-			processShear(g);
+			g.shear(call.d0, call.d1);
 			break;
 
 		case TRANSFORM:
-			processTransform(g);
+			g.transform((AffineTransform) call.o0);
 			break;
 
 		case SET_TRANSFORM:
-			processSetTransform(g);
+			g.setTransform((AffineTransform) call.o0);
 			break;
 
 		case SET_BACKGROUND:
-			processSetBackground(g);
+			g.setBackground((Color) call.o0);
 			break;
 
 		case CLIP:
-			processClip(g);
+			g.clip((Shape) call.o0);
 			break;
 
-		case DRAW_GLYPH_VECTOR:
-		case DRAW_IMAGE_1:
-		case DRAW_IMAGE_2:
-		case DRAW_IMAGE_3:
-		case DRAW_IMAGE_4:
-		case DRAW_IMAGE_5:
-		case DRAW_IMAGE_6:
-		case DRAW_IMAGE_7:
-		case DRAW_IMAGE_8:
-		case DRAW_RENDERED_IMAGE:
-		case DRAW_RENDERABLE_IMAGE:
-		case SET_RENDERING_HINT:
-		case SET_RENDERING_HINTS:
-		case ADD_RENDERING_HINTS:
 		default:
-			notSupported();
-			break;
+			throw new UnsupportedOperationException("We are sorry. Operation is not supported in Robocode.");
 		}
 	}
 
-	private void processTranslate_int(Graphics2D g) {
-		// translate(int, int)
-		g.translate(calls.getInt(), calls.getInt());
-	}
-
-	private void processSetColor(Graphics2D g) {
-		// setColor(Color)
-		g.setColor(readColor());
-	}
-
-	private void processSetPaintMode(Graphics2D g) {
-		// setPaintMode()
-		g.setPaintMode();
-	}
-
-	private void processSetXORMode(Graphics2D g) {
-		// setXORMode(Color)
-		g.setXORMode(readColor());
-	}
-
-	private void processSetFont(Graphics2D g) {
-		Font font = calls.get() == 0
-				? null
-				: new Font(serializer.deserializeString(calls), calls.getInt(), calls.getInt()); 
-
-		// setFont(Font)
-		g.setFont(font);
-	}
-
-	private void processClipRect(Graphics2D g) {
-		// clipRect(int, int, int, int)
-		g.clipRect(calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt());
-	}
-
-	private void processSetClip(Graphics2D g) {
-		// setClip(int, int, int, int)
-		g.setClip(calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt());
-	}
-
-	private void processSetClip_Shape(Graphics2D g) {
-		// setClip(Shape)
-		g.setClip(readShape());
-	}
-
-	private void processCopyArea(Graphics2D g) {
-		// copyArea(int, int, int, int, int, int)
-		g.copyArea(calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt());
-	}
-
-	private void processDrawLine(Graphics2D g) {
-		// drawLine(int, int, int, int)
-		g.drawLine(calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt());
-	}
-
-	private void processFillRect(Graphics2D g) {
-		// fillRect(int, int, int, int)
-		g.fillRect(calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt());
-	}
-
-	private void processDrawRect(Graphics2D g) {
-		// drawRect(int, int, int, int)
-		g.drawRect(calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt());
-	}
-
-	private void processClearRect(Graphics2D g) {
-		// clearRect(int, int, int, int)
-		g.clearRect(calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt());
-	}
-
-	private void processDrawRoundRect(Graphics2D g) {
-		// drawRoundRect(int, int, int, int, int, int)
-		g.drawRoundRect(calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt());
-	}
-
-	private void processFillRoundRect(Graphics2D g) {
-		// fillRoundRect(int, int, int, int, int, int)
-		g.fillRoundRect(calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt());
-	}
-
-	private void processDraw3DRect(Graphics2D g) {
-		// draw3DRect(int, int, int, int, boolean)
-		g.draw3DRect(calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt(),
-				serializer.deserializeBoolean(calls));
-	}
-
-	private void processFill3DRect(Graphics2D g) {
-		// fill3DRect(int, int, int, int, boolean)
-		g.fill3DRect(calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt(),
-				serializer.deserializeBoolean(calls));
-	}
-
-	private void processDrawOval(Graphics2D g) {
-		// drawOval(int, int, int, int)
-		g.drawOval(calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt());
-	}
-
-	private void processFillOval(Graphics2D g) {
-		// fillOval(int, int, int, int)
-		g.fillOval(calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt());
-	}
-
-	private void processDrawArc(Graphics2D g) {
-		// drawArc(int, int, int, int, int, int)
-		g.drawArc(calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt());
-	}
-
-	private void processFillArc(Graphics2D g) {
-		// fillArc(int, int, int, int, int, int)
-		g.fillArc(calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt());
-	}
-
-	private void processDrawPolyline(Graphics2D g) {
-		// drawPolyline(int[], int[], int)
-		g.drawPolyline(serializer.deserializeIntegers(calls), serializer.deserializeIntegers(calls), calls.getInt());
-	}
-
-	private void processDrawPolygon(Graphics2D g) {
-		// drawPolygon(int[], int[], int)
-		g.drawPolygon(serializer.deserializeIntegers(calls), serializer.deserializeIntegers(calls), calls.getInt());
-	}
-
-	private void processFillPolygon(Graphics2D g) {
-		// fillPolygon(int[], int[], int)
-		g.fillPolygon(serializer.deserializeIntegers(calls), serializer.deserializeIntegers(calls), calls.getInt());
-	}
-
-	private void processDrawString_int(Graphics2D g) {
-		// drawString(String, int, int)
-		g.drawString(serializer.deserializeString(calls), calls.getInt(), calls.getInt());
-	}
-
-	private void processDrawString_ACIterator_int(Graphics2D g) {
-		// drawString(String, int, int)
-		g.drawString(serializer.deserializeString(calls), calls.getInt(), calls.getInt());
-	}
-
-	private void processDrawChars(Graphics2D g) {
-		// drawBytes(char[], int, int, int, int)
-		g.drawChars(serializer.deserializeChars(calls), calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt());
-	}
-
-	private void processDrawBytes(Graphics2D g) {
-		// drawBytes(byte[], int, int, int, int)
-		g.drawBytes(serializer.deserializeBytes(calls), calls.getInt(), calls.getInt(), calls.getInt(), calls.getInt());
-	}
-
-	private void processDrawShape(Graphics2D g) {
-		// draw(Shape)
-		g.draw(readShape());
-	}
-
-	private void processDrawString_float(Graphics2D g) {
-		// drawString(String, float, float)
-		g.drawString(serializer.deserializeString(calls), calls.getFloat(), calls.getFloat());
-	}
-
-	private void processDrawString_ACIterator_float(Graphics2D g) {
-		// drawString(String, float, float)
-		g.drawString(serializer.deserializeString(calls), calls.getFloat(), calls.getFloat());
-	}
-
-	private void processFillShape(Graphics2D g) {
-		// fill(Shape)
-		g.fill(readShape());
-	}
-
-	private void processSetComposite(Graphics2D g) {
-		// setComposite(Composite)
-		g.setComposite(readComposite());
-	}
-
-	private void processSetPaint(Graphics2D g) {
-		// setPaint(Paint)
-		g.setPaint(readPaint());
-	}
-
-	private void processSetStroke(Graphics2D g) {
-		// setStroke(Stroke)
-		g.setStroke(readStroke());
-	}
-
-	private void processTranslate_double(Graphics2D g) {
-		// translate(double, double)
-		g.translate(calls.getDouble(), calls.getDouble());
-	}
-
-	private void processRotate(Graphics2D g) {
-		// rotate(double)
-		g.rotate(calls.getDouble());
-	}
-
-	private void processRotate_xy(Graphics2D g) {
-		// rotate(double)
-		g.rotate(calls.getDouble(), calls.getDouble(), calls.getDouble());
-	}
-
-	private void processScale(Graphics2D g) {
-		// scale(double, double)
-		g.scale(calls.getDouble(), calls.getDouble());
-	}
-
-	private void processShear(Graphics2D g) {
-		// shear(double, double)
-		g.shear(calls.getDouble(), calls.getDouble());
-	}
-
-	private void processTransform(Graphics2D g) {
-		// transform(AffineTransform)
-		g.transform(readAffineTransform());
-	}
-
-	private void processSetTransform(Graphics2D g) {
-		// setTransform(AffineTransform)
-		g.setTransform(readAffineTransform());
-	}
-
-	private void processSetBackground(Graphics2D g) {
-		// setBackground(Color)
-		g.setBackground(readColor());
-	}
-
-	private void processClip(Graphics2D g) {
-		// clip(Shape)
-		g.clip(readShape());
-	}
-
 	private Shape readShape() {
 		switch (calls.get()) {
 		case 0:
@@ -1875,47 +1905,100 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 	}
 
 	/**
-	 * Reallocates the calls buffer by replacing it with a new one with doubled capacity
-	 * and copying the old one.
+	 * Continues the recording of method calls in a new chunk. The current chunk is kept as a recorded chunk, or it is
+	 * replaced by a chunk with doubled capacity if it cannot hold a single method call.
+	 * The max. buffer size applies to the bytes recorded, not to the capacity of the chunks.
 	 *
-	 * @return {@code true} if the buffer was reallocated;
-	 *         {@code false} if the max. capacity has been reached meaning that the reallocation
-	 *         was not performed. 
+	 * @return {@code true} if a new chunk was added;
+	 *         {@code false} if the max. buffer size has been reached meaning that no chunk was added.
 	 */
 	private boolean reallocBuffer() {
-		int bufferSize;
+		final boolean isEmpty = calls.position() == (recordedChunks.isEmpty() ? 1 : 0);
 
-		if (calls == null) {
-			// No buffer -> Use initial buffer size
-			bufferSize = INITIAL_BUFFER_SIZE;
-		} else {
-			// Otherwise, double up capacity
-			bufferSize = 2 * calls.capacity();
-		}
+		int chunkSize = isEmpty ? 2 * calls.capacity() : INITIAL_BUFFER_SIZE;
 
 		// Check if the max. buffer size has been reached
-		if (RobocodeProperties.isDebuggingOff() && bufferSize > MAX_BUFFER_SIZE) {			
-			return false; // not reallocated!
+		if (RobocodeProperties.isDebuggingOff()) {
+			final int recordedBytes = recordedChunkBytes + (isEmpty ? 0 : calls.position());
+
+			if (recordedBytes + chunkSize > MAX_BUFFER_SIZE) {
+				// Use what is left for the last chunk
+				chunkSize = MAX_BUFFER_SIZE - recordedBytes;
+				if (chunkSize <= (isEmpty ? calls.capacity() : 0)) {
+					return false; // not reallocated!
+				}
+			}
 		}
 
-		// Allocate new buffer
-		ByteBuffer newBuffer = ByteBuffer.allocate(bufferSize);
+		ByteBuffer chunk = chunkSize == INITIAL_BUFFER_SIZE ? takeChunk() : ByteBuffer.allocate(chunkSize);
 
+		if (isEmpty) {
+			// Keep the byte order of the recorded calls in the first chunk, if any
+			calls.flip();
+			chunk.put(calls);
+			releaseChunk(calls);
+		} else {
+			recordedChunks.add(calls);
+			recordedChunkBytes += calls.position();
+		}
+
+		// Switch to the new chunk
+		calls = chunk;
+
+		return true; // buffer was reallocated
+	}
+
+	// Drops all recorded calls, and starts recording into a single chunk
+	private void startRecording() {
+		releaseRecordedChunks();
 		if (calls != null) {
-			// Copy all bytes contained in the current buffer to the new buffer
+			releaseChunk(calls);
+		}
+		calls = takeChunk();
+	}
 
-			byte[] copiedBytes = new byte[calls.position()];
+	// Returns a copy of all recorded calls
+	private byte[] copyRecordedCalls() {
+		byte[] res = new byte[recordedChunkBytes + calls.position()];
+		int pos = 0;
 
-			calls.clear();
-			calls.get(copiedBytes);
+		for (ByteBuffer chunk : recordedChunks) {
+			System.arraycopy(chunk.array(), 0, res, pos, chunk.position());
+			pos += chunk.position();
+		}
+		System.arraycopy(calls.array(), 0, res, pos, calls.position());
 
-			newBuffer.put(copiedBytes);
+		return res;
+	}
+
+	private void releaseRecordedChunks() {
+		for (ByteBuffer chunk : recordedChunks) {
+			releaseChunk(chunk);
 		}
+		recordedChunks.clear();
+		recordedChunkBytes = 0;
+	}
 
-		// Switch to the new buffer
-		calls = newBuffer;
-		
-		return true; // buffer was reallocated
+	private static ByteBuffer takeChunk() {
+		ByteBuffer chunk = chunkPool.poll();
+
+		if (chunk == null) {
+			return ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+		}
+		pooledChunks.decrementAndGet();
+		return chunk;
+	}
+
+	private static void releaseChunk(ByteBuffer chunk) {
+		if (chunk.capacity() != INITIAL_BUFFER_SIZE) {
+			return;
+		}
+		if (pooledChunks.incrementAndGet() <= MAX_POOLED_CHUNKS) {
+			chunk.clear();
+			chunkPool.offer(chunk);
+		} else {
+			pooledChunks.decrementAndGet();
+		}
 	}
 
 	private int unrecoveredBufferOverflowCount;
@@ -2079,7 +2162,7 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 			return null;
 
 		case 1:
-			return new Color(calls.getInt(), true);
+			return internColor(calls.getInt());
 		}
 		notSupported();
 		return null;
@@ -2104,8 +2187,8 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 			return null;
 
 		case 1:
-			return new BasicStroke(calls.getFloat(), calls.getInt(), calls.getInt(), calls.getFloat(),
-					serializer.deserializeFloats(calls), calls.getFloat());
+			return internStroke(new BasicStroke(calls.getFloat(), calls.getInt(), calls.getInt(), calls.getFloat(),
+					serializer.deserializeFloats(calls), calls.getFloat()));
 		}
 		notSupported();
 		return null;
@@ -2234,7 +2317,54 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 	}
 
 	private Color readColor() {
-		return calls.get() == 0 ? null : new Color(calls.getInt(), true);
+		return calls.get() == 0 ? null : internColor(calls.getInt());
+	}
+
+	private Font readFont() {
+		if (calls.get() == 0) {
+			return null;
+		}
+		final String name = serializer.deserializeString(calls);
+		final int style = calls.getInt();
+		final int size = calls.getInt();
+		final String key = name + '/' + style + '/' + size;
+
+		Font font = fontCache.get(key);
+
+		if (font == null) {
+			if (fontCache.size() >= MAX_CACHED_OBJECTS) {
+				fontCache.clear();
+			}
+			font = new Font(name, style, size);
+			fontCache.put(key, font);
+		}
+		return font;
+	}
+
+	private Color internColor(int argb) {
+		Color color = colorCache.get(argb);
+
+		if (color == null) {
+			if (colorCache.size() >= MAX_CACHED_OBJECTS) {
+				colorCache.clear();
+			}
+			color = new Color(argb, true);
+			colorCache.put(argb, color);
+		}
+		return color;
+	}
+
+	private BasicStroke internStroke(BasicStroke stroke) {
+		BasicStroke cached = strokeCache.get(stroke);
+
+		if (cached == null) {
+			if (strokeCache.size() >= MAX_CACHED_OBJECTS) {
+				strokeCache.clear();
+			}
+			strokeCache.put(stroke, stroke);
+			cached = stroke;
+		}
+		return cached;
 	}
 	
 	private void put(Color value) {
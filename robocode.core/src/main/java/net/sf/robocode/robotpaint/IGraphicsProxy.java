@@ -21,4 +21,14 @@ public interface IGraphicsProxy {
 	void processTo(Graphics2D g);
 
 	Object readoutQueuedCalls();
+
+	// Number of turns with painting read out of this proxy since the statistics were reset
+	int getPaintedTurns();
+
+	// Number of bytes of painting read out of this proxy since the statistics were reset
+	long getPaintedBytes();
+
+	int getMaxPaintedBytesPerTurn();
+
+	void resetPaintStatistics();
 }
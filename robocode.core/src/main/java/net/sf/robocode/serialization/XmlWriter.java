@@ -10,96 +10,142 @@ package net.sf.robocode.serialization;
 
 import java.io.IOException;
 import java.io.Writer;
-import java.text.CharacterIterator;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
-import java.text.StringCharacterIterator;
 import java.util.Locale;
-import java.util.Stack;
 
 
 /**
+ * Writes XML documents.
+ * <p>
+ * The output is collected in a buffer, which is written to the underlying writer when it is full, when the
+ * outermost element is ended, and when the XML writer is flushed. An XML writer must only be used by one thread
+ * at a time, but several XML writers can be used in parallel.
+ *
  * @author Pavel Savara (original)
  */
 public class XmlWriter {
-	private static final DecimalFormat decimalFormat = new DecimalFormat("#.####", new DecimalFormatSymbols(Locale.US));
+	private static final int BUFFER_SIZE = 16 * 1024;
+
+	// Doubles up to this value are formatted without DecimalFormat, as the rounding error of scaling them is small
+	private static final double MAX_FAST_DOUBLE = 1e7;
+	private static final int FRACTION_SCALE = 10000;
+
 	private final Writer writer;
-	private final Stack<String> elements = new Stack<String>();
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int position;
+
+	private String[] elements = new String[16];
+	private int depth;
+
 	private boolean headClosed = true;
 	private boolean innerElement = false;
 	private boolean indent = true;
 
+	// Only used for the doubles that cannot be formatted exactly the same way by writeTrimmedDouble()
+	private DecimalFormat decimalFormat;
+
 	public XmlWriter(Writer writer, boolean indent) {
 		this.writer = writer;
 		this.indent = indent;
 	}
 
 	public void startDocument() throws IOException {
-		writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
 	}
 
 	public void startElement(String name) throws IOException {
 		closeHead();
-		indent(elements.size());
-		elements.push(name);
-		writer.write('<');
-		writer.write(encode(name));
+		indent(depth);
+		if (depth == elements.length) {
+			final String[] newElements = new String[depth * 2];
+
+			System.arraycopy(elements, 0, newElements, 0, depth);
+			elements = newElements;
+		}
+		elements[depth++] = name;
+		write('<');
+		writeEncoded(name);
 		headClosed = false;
 		innerElement = false;
 	}
 
 	public void writeAttribute(String name, String value) throws IOException {
 		if (value != null) {
-			writer.write(' ');
-			writer.write(encode(name));
-			writer.write("=\"");
-			writer.write(encode(value));
-			writer.write('"');
+			startAttribute(name);
+			writeEncoded(value);
+			write('"');
 		}
 	}
 
 	public void writeAttribute(String name, boolean value) throws IOException {
-		writeAttribute(name, Boolean.toString(value));
+		startAttribute(name);
+		write(value ? "true" : "false");
+		write('"');
 	}
 
 	public void writeAttribute(String name, long value) throws IOException {
-		writeAttribute(name, Long.toString(value));
+		startAttribute(name);
+		writeLong(value);
+		write('"');
 	}
 
 	public void writeAttribute(String name, double value, boolean trim) throws IOException {
+		startAttribute(name);
 		if (trim) {
-			writeAttribute(name, decimalFormat.format(value));
+			writeTrimmedDouble(value);
 		} else {
-			writeAttribute(name, Double.toString(value));
+			write(Double.toString(value));
 		}
+		write('"');
 	}
 
 	public void endElement() throws IOException {
-		String name = elements.pop();
+		String name = elements[--depth];
+
+		elements[depth] = null;
 
 		if (innerElement || headClosed) {
 			closeHead();
-			indent(elements.size());
-			writer.write("</");
-			writer.write(encode(name));
-			writer.write(">");
+			indent(depth);
+			write("</");
+			writeEncoded(name);
+			write('>');
 		} else {
-			writer.write("/>");
+			write("/>");
 			headClosed = true;
 		}
 		newline();
 		innerElement = true;
+
+		if (depth == 0) {
+			flushBuffer();
+		}
+	}
+
+	/**
+	 * Writes all buffered output to the underlying writer, and flushes it.
+	 */
+	public void flush() throws IOException {
+		flushBuffer();
+		writer.flush();
+	}
+
+	private void startAttribute(String name) throws IOException {
+		write(' ');
+		writeEncoded(name);
+		write("=\"");
 	}
 
 	private void newline() throws IOException {
 		if (indent) {
-			writer.write("\n");
+			write('\n');
 		}
 	}
 
 	private void closeHead() throws IOException {
 		if (!headClosed) {
-			writer.write('>');
+			write('>');
 			newline();
 			headClosed = true;
 		}
@@ -108,35 +154,151 @@ public class XmlWriter {
 	private void indent(int level) throws IOException {
 		if (indent) {
 			for (int i = 0; i < level; i++) {
-				writer.write("\t");
+				write('\t');
+			}
+		}
+	}
+
+	// Formats the same way as a DecimalFormat with the pattern "#.####" and the US locale
+	private void writeTrimmedDouble(double value) throws IOException {
+		if (value != value || Math.abs(value) >= MAX_FAST_DOUBLE) { // NaN, infinite or big
+			writeFormattedDouble(value);
+			return;
+		}
+		final double scaled = Math.abs(value) * FRACTION_SCALE;
+		final double floor = Math.floor(scaled);
+		final double fraction = scaled - floor;
+
+		// Values close to a tie are left to DecimalFormat, which rounds them based on their shortest decimal
+		// representation rather than their scaled binary value
+		if (Math.abs(fraction - 0.5) < 1e-3) {
+			writeFormattedDouble(value);
+			return;
+		}
+		final long rounded = (long) floor + (fraction > 0.5 ? 1 : 0);
+
+		// Negative values are written with a minus sign even when they are rounded to 0, like DecimalFormat does
+		if (Double.doubleToRawLongBits(value) < 0) {
+			write('-');
+		}
+		writeLong(rounded / FRACTION_SCALE);
+
+		int decimals = (int) (rounded % FRACTION_SCALE);
+
+		if (decimals != 0) {
+			int digits = 4;
+
+			while (decimals % 10 == 0) {
+				decimals /= 10;
+				digits--;
+			}
+			write('.');
+			for (int divisor = pow10(digits - 1); divisor > 0; divisor /= 10) {
+				write((char) ('0' + (decimals / divisor) % 10));
+			}
+		}
+	}
+
+	private void writeFormattedDouble(double value) throws IOException {
+		if (decimalFormat == null) {
+			decimalFormat = new DecimalFormat("#.####", new DecimalFormatSymbols(Locale.US));
+		}
+		write(decimalFormat.format(value));
+	}
+
+	private static int pow10(int exponent) {
+		int result = 1;
+
+		for (int i = 0; i < exponent; i++) {
+			result *= 10;
+		}
+		return result;
+	}
+
+	private void writeLong(long value) throws IOException {
+		if (value == Long.MIN_VALUE) {
+			write(Long.toString(value));
+			return;
+		}
+		if (value < 0) {
+			write('-');
+			value = -value;
+		}
+		if (position + 19 > buffer.length) {
+			flushBuffer();
+		}
+		// Write the digits backwards from the end of the number
+		int end = position;
+
+		for (long rest = value; rest >= 10; rest /= 10) {
+			end++;
+		}
+		position = end + 1;
+		do {
+			buffer[end--] = (char) ('0' + (int) (value % 10));
+			value /= 10;
+		} while (value != 0);
+	}
+
+	private void write(char character) throws IOException {
+		if (position == buffer.length) {
+			flushBuffer();
+		}
+		buffer[position++] = character;
+	}
+
+	private void write(String text) throws IOException {
+		final int length = text.length();
+
+		if (position + length > buffer.length) {
+			flushBuffer();
+			if (length > buffer.length) {
+				writer.write(text);
+				return;
 			}
 		}
+		text.getChars(0, length, buffer, position);
+		position += length;
 	}
 
-	private static String encode(String text) {
-		final StringBuilder result = new StringBuilder();
-		final StringCharacterIterator iterator = new StringCharacterIterator(text);
-		char character = iterator.current();
-
-		while (character != CharacterIterator.DONE) {
-			if (character == '<') {
-				result.append("&lt;");
-			} else if (character == '>') {
-				result.append("&gt;");
-			} else if (character == '&') {
-				result.append("&amp;");
-			} else if (character == '\"') {
-				result.append("&quot;");
-			} else if (character == '\n') {
-				result.append("&#xA;");
-			} else {
-				// the char is not a special one
-				// add it to the result as is
-				result.append(character);
+	// Writes the text with the XML special characters replaced by entities
+	private void writeEncoded(String text) throws IOException {
+		final int length = text.length();
+
+		for (int i = 0; i < length; i++) {
+			final char character = text.charAt(i);
+
+			switch (character) {
+			case '<':
+				write("&lt;");
+				break;
+
+			case '>':
+				write("&gt;");
+				break;
+
+			case '&':
+				write("&amp;");
+				break;
+
+			case '\"':
+				write("&quot;");
+				break;
+
+			case '\n':
+				write("&#xA;");
+				break;
+
+			default:
+				write(character);
 			}
-			character = iterator.next();
 		}
-		return result.toString();
 	}
 
+	private void flushBuffer() throws IOException {
+		if (position > 0) {
+			writer.write(buffer, 0, position);
+			position = 0;
+		}
+	}
 }
@@ -166,6 +166,18 @@ public interface ISettingsManager {
 
 	void setCpuConstant(long cpuConstant);
 
+	boolean getCpuTimeBudgetEnabled();
+
+	void setCpuTimeBudgetEnabled(boolean enabled);
+
+	int getCpuTimeDebtTurns();
+
+	void setCpuTimeDebtTurns(int debtTurns);
+
+	int getCpuTimeFirstTurnFactor();
+
+	void setCpuTimeFirstTurnFactor(int firstTurnFactor);
+
 	Collection<String> getOptionsDevelopmentPaths();
 
 	void setOptionsDevelopmentPaths(Collection<String> paths);
@@ -305,6 +317,9 @@ public interface ISettingsManager {
 			ROBOT_FILESYSTEM_QUOTA = "robocode.robot.filesystem.quota",
 			CONSOLE_QUOTA = "robocode.console.quota",
 			CPU_CONSTANT = "robocode.cpu.constant",
+			CPU_TIME_BUDGET_ENABLED = "robocode.cpu.timeBudget.enabled",
+			CPU_TIME_DEBT_TURNS = "robocode.cpu.timeBudget.debtTurns",
+			CPU_TIME_FIRST_TURN_FACTOR = "robocode.cpu.timeBudget.firstTurnFactor",
 			LAST_RUN_VERSION = "robocode.version.lastrun",
 
 			BATTLE_DEFAULT_BATTLEFIELD_WIDTH = "robocode.battle.default.battlefieldWidth",
@@ -124,6 +124,9 @@ public class SettingsManager implements ISettingsManager {
 	private long robotFilesystemQuota = 200000;
 	private long consoleQuota = 8192;
 	private long cpuConstant = -1;
+	private boolean cpuTimeBudgetEnabled = false;
+	private int cpuTimeDebtTurns = 10;
+	private int cpuTimeFirstTurnFactor = 10;
 
 	// Battle default settings
 	private int battleDefaultBattlefieldWidth = 800;
@@ -548,6 +551,33 @@ public class SettingsManager implements ISettingsManager {
 		props.setProperty(CPU_CONSTANT, "" + cpuConstant);
 	}
 
+	public boolean getCpuTimeBudgetEnabled() {
+		return cpuTimeBudgetEnabled;
+	}
+
+	public void setCpuTimeBudgetEnabled(boolean enabled) {
+		this.cpuTimeBudgetEnabled = enabled;
+		props.setProperty(CPU_TIME_BUDGET_ENABLED, "" + enabled);
+	}
+
+	public int getCpuTimeDebtTurns() {
+		return cpuTimeDebtTurns;
+	}
+
+	public void setCpuTimeDebtTurns(int debtTurns) {
+		this.cpuTimeDebtTurns = debtTurns;
+		props.setProperty(CPU_TIME_DEBT_TURNS, "" + debtTurns);
+	}
+
+	public int getCpuTimeFirstTurnFactor() {
+		return cpuTimeFirstTurnFactor;
+	}
+
+	public void setCpuTimeFirstTurnFactor(int firstTurnFactor) {
+		this.cpuTimeFirstTurnFactor = firstTurnFactor;
+		props.setProperty(CPU_TIME_FIRST_TURN_FACTOR, "" + firstTurnFactor);
+	}
+
 	public Collection<String> getOptionsDevelopmentPaths() {
 		return new HashSet<String>(optionsDevelopmentPaths);
 	}
@@ -793,6 +823,9 @@ public class SettingsManager implements ISettingsManager {
 		robotFilesystemQuota = Long.parseLong(props.getProperty(ROBOT_FILESYSTEM_QUOTA, "" + 200000));
 		consoleQuota = Long.parseLong(props.getProperty(CONSOLE_QUOTA, "8192"));
 		cpuConstant = Long.parseLong(props.getProperty(CPU_CONSTANT, "-1"));
+		cpuTimeBudgetEnabled = Boolean.parseBoolean(props.getProperty(CPU_TIME_BUDGET_ENABLED, "false"));
+		cpuTimeDebtTurns = Integer.parseInt(props.getProperty(CPU_TIME_DEBT_TURNS, "10"));
+		cpuTimeFirstTurnFactor = Integer.parseInt(props.getProperty(CPU_TIME_FIRST_TURN_FACTOR, "10"));
 	}
 
 	public String getLastRunVersion() {
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.battle.events;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.BattleCompletedEvent;
+import robocode.control.events.IBattleListener;
+import robocode.control.events.TurnEndedEvent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+
+public class BattleEventDispatcherTest {
+
+	@Test
+	public void noListeners() {
+		BattleEventDispatcher dispatcher = new BattleEventDispatcher();
+
+		Assert.assertFalse(dispatcher.isTurnStartedConsumed());
+		Assert.assertFalse(dispatcher.isTurnEndedConsumed());
+	}
+
+	@Test
+	public void adaptorWithoutTurnEvents() {
+		BattleEventDispatcher dispatcher = new BattleEventDispatcher();
+
+		dispatcher.addListener(new BattleAdaptor() {
+			@Override
+			public void onBattleCompleted(BattleCompletedEvent event) {}
+		});
+		Assert.assertFalse(dispatcher.isTurnStartedConsumed());
+		Assert.assertFalse(dispatcher.isTurnEndedConsumed());
+	}
+
+	@Test
+	public void adaptorWithTurnEndedEvents() {
+		BattleEventDispatcher dispatcher = new BattleEventDispatcher();
+		BattleAdaptor listener = new TurnEndedObserver();
+
+		dispatcher.addListener(listener);
+		Assert.assertFalse(dispatcher.isTurnStartedConsumed());
+		Assert.assertTrue(dispatcher.isTurnEndedConsumed());
+
+		dispatcher.removeListener(listener);
+		Assert.assertFalse(dispatcher.isTurnEndedConsumed());
+	}
+
+	@Test
+	public void nestedDispatchers() {
+		BattleEventDispatcher dispatcher = new BattleEventDispatcher();
+		BattleEventDispatcher nested = new BattleEventDispatcher();
+
+		dispatcher.addListener(nested);
+		Assert.assertFalse(dispatcher.isTurnEndedConsumed());
+
+		// Also subclasses of a listener overriding onTurnEnded() consume the events
+		nested.addListener(new TurnEndedObserver() {});
+		Assert.assertTrue(dispatcher.isTurnEndedConsumed());
+	}
+
+	@Test
+	public void otherListenersConsumeAllEvents() {
+		BattleEventDispatcher dispatcher = new BattleEventDispatcher();
+
+		dispatcher.addListener((IBattleListener) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { IBattleListener.class }, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				return null;
+			}
+		}));
+		Assert.assertTrue(dispatcher.isTurnStartedConsumed());
+		Assert.assertTrue(dispatcher.isTurnEndedConsumed());
+	}
+
+	private static class TurnEndedObserver extends BattleAdaptor {
+		@Override
+		public void onTurnEnded(TurnEndedEvent event) {}
+	}
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.peer;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+
+public class ExecCommandsTest {
+
+	@Test
+	public void resetIsSameAsCopyFromBattle() {
+		ExecCommands origin = new ExecCommands();
+
+		origin.setBodyTurnRemaining(1.5);
+		origin.setGunTurnRemaining(-0.5);
+		origin.setRadarTurnRemaining(3);
+		origin.setDistanceRemaining(120);
+		origin.setAdjustGunForBodyTurn(true);
+		origin.setMaxVelocity(6);
+		origin.setBodyColor(0xFF112233);
+		origin.setScan(true);
+		origin.setMoved(true);
+		origin.setOutputText("text");
+		origin.getBullets().add(new BulletCommand(1, false, 0, 1));
+
+		ExecCommands recycled = new ExecCommands();
+
+		recycled.setScan(true);
+		recycled.setTryingToPaint(true);
+		recycled.setIORobot();
+		recycled.setGraphicsCalls(new byte[10]);
+		recycled.setDebugProperty("key", "value");
+		recycled.getTeamMessages().add(new TeamMessage("a", "b", null));
+		recycled.getBullets().add(new BulletCommand(3, false, 0, 2));
+
+		List<BulletCommand> bullets = recycled.getBullets();
+
+		recycled.reset(origin);
+
+		ExecCommands copy = new ExecCommands(origin, false);
+
+		Assert.assertEquals(copy.getBodyTurnRemaining(), recycled.getBodyTurnRemaining(), 0);
+		Assert.assertEquals(copy.getGunTurnRemaining(), recycled.getGunTurnRemaining(), 0);
+		Assert.assertEquals(copy.getRadarTurnRemaining(), recycled.getRadarTurnRemaining(), 0);
+		Assert.assertEquals(copy.getDistanceRemaining(), recycled.getDistanceRemaining(), 0);
+		Assert.assertEquals(copy.isAdjustGunForBodyTurn(), recycled.isAdjustGunForBodyTurn());
+		Assert.assertEquals(copy.getMaxVelocity(), recycled.getMaxVelocity(), 0);
+		Assert.assertEquals(copy.getBodyColor(), recycled.getBodyColor());
+		Assert.assertEquals(copy.isScan(), recycled.isScan());
+		Assert.assertEquals(copy.isMoved(), recycled.isMoved());
+		Assert.assertEquals(copy.isIORobot(), recycled.isIORobot());
+		Assert.assertEquals(copy.isTryingToPaint(), recycled.isTryingToPaint());
+		Assert.assertEquals(copy.getOutputText(), recycled.getOutputText());
+		Assert.assertNull(recycled.getGraphicsCalls());
+
+		Assert.assertSame(bullets, recycled.getBullets());
+		Assert.assertTrue(recycled.getBullets().isEmpty());
+		Assert.assertTrue(recycled.getTeamMessages().isEmpty());
+		Assert.assertTrue(recycled.getDebugProperties().isEmpty());
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.robotpaint;
+
+
+import net.sf.robocode.security.HiddenAccess;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+
+public class Graphics2DSerializedTest {
+
+	@BeforeClass
+	public static void init() {
+		System.setProperty("NOSECURITY", "true");
+		System.setProperty("WORKINGDIRECTORY", "target//test-classes");
+		System.setProperty("TESTING", "true");
+		HiddenAccess.initContainer();
+	}
+
+	@AfterClass
+	public static void cleanup() {
+		System.setProperty("NOSECURITY", "false");
+	}
+
+	@Test
+	public void replaysRecordedCalls() {
+		byte[] red = record(Color.RED, 2);
+		byte[] blue = record(Color.BLUE, 4);
+
+		Graphics2DSerialized replayer = new Graphics2DSerialized();
+
+		replayer.setPaintingEnabled(true);
+
+		BufferedImage image = paint(replayer, red);
+
+		Assert.assertEquals(Color.RED.getRGB(), image.getRGB(2, 2));
+		Assert.assertEquals(Color.GREEN.getRGB(), image.getRGB(12, 12));
+		Assert.assertEquals(0, image.getRGB(2, 12));
+
+		// Painting the same calls again, and calls that are equal, gives the same result
+		Assert.assertEquals(Color.RED.getRGB(), paint(replayer, red).getRGB(2, 2));
+		Assert.assertEquals(Color.RED.getRGB(), paint(replayer, red.clone()).getRGB(2, 2));
+
+		image = paint(replayer, blue);
+		Assert.assertEquals(Color.BLUE.getRGB(), image.getRGB(4, 4));
+		Assert.assertEquals(0, image.getRGB(2, 2));
+	}
+
+	@Test
+	public void replaysNothingForNoCalls() {
+		Graphics2DSerialized replayer = new Graphics2DSerialized();
+
+		replayer.setPaintingEnabled(true);
+
+		Assert.assertEquals(0, paint(replayer, null).getRGB(0, 0));
+	}
+
+	@Test
+	public void recordsCallsAcrossChunks() {
+		Graphics2DSerialized recorder = new Graphics2DSerialized();
+
+		recorder.setPaintingEnabled(true);
+
+		byte[] first = null;
+
+		for (int turn = 0; turn < 3; turn++) {
+			for (int i = 0; i < 400; i++) {
+				recorder.setColor(i % 2 == 0 ? Color.RED : Color.BLUE);
+				recorder.fillRect(i % 20, i / 20, 1, 1);
+			}
+			// A single call that is larger than a chunk
+			recorder.drawString(new String(new char[3000]).replace('\0', 'x'), 100, 100);
+
+			byte[] calls = recorder.readoutQueuedCalls();
+
+			if (first == null) {
+				first = calls;
+			} else {
+				Assert.assertTrue(Arrays.equals(first, calls));
+			}
+		}
+		Assert.assertEquals(3, recorder.getPaintedTurns());
+		Assert.assertEquals(3L * first.length, recorder.getPaintedBytes());
+		Assert.assertEquals(first.length, recorder.getMaxPaintedBytesPerTurn());
+
+		Graphics2DSerialized replayer = new Graphics2DSerialized();
+
+		replayer.setPaintingEnabled(true);
+
+		BufferedImage image = paint(replayer, first);
+
+		Assert.assertEquals(Color.RED.getRGB(), image.getRGB(0, 0));
+		Assert.assertEquals(Color.BLUE.getRGB(), image.getRGB(19, 19));
+	}
+
+	@Test
+	public void dropsCallsBeyondMaxBufferSize() {
+		Graphics2DSerialized recorder = new Graphics2DSerialized();
+
+		recorder.setPaintingEnabled(true);
+
+		for (int i = 0; i < 10000; i++) {
+			recorder.fillRect(i, i, 1, 1);
+		}
+		byte[] calls = recorder.readoutQueuedCalls();
+
+		// Only the last call that did not fit is missing, as the unused ends of the chunks do not count
+		Assert.assertTrue(calls.length > 64 * 1024 - 32);
+		Assert.assertTrue(calls.length <= 64 * 1024);
+
+		// Recording continues with the next turn
+		recorder.fillRect(0, 0, 1, 1);
+		Assert.assertTrue(recorder.readoutQueuedCalls().length < 100);
+	}
+
+	private static byte[] record(Color color, int offset) {
+		Graphics2DSerialized recorder = new Graphics2DSerialized();
+
+		recorder.setPaintingEnabled(true);
+
+		recorder.setColor(color);
+		recorder.fillRect(offset, offset, 4, 4);
+		recorder.setStroke(new BasicStroke(2));
+		recorder.setColor(Color.GREEN);
+		recorder.fill(new Rectangle2D.Double(10, 10, 4, 4));
+
+		return recorder.readoutQueuedCalls();
+	}
+
+	private static BufferedImage paint(Graphics2DSerialized replayer, byte[] calls) {
+		BufferedImage image = new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = image.createGraphics();
+
+		replayer.processTo(g, calls);
+		g.dispose();
+		return image;
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.serialization;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+
+
+public class XmlWriterTest {
+
+	@Test
+	public void writesDocument() throws IOException {
+		StringWriter out = new StringWriter();
+		XmlWriter writer = new XmlWriter(out, true);
+
+		writer.startDocument();
+		writer.startElement("record");
+		writer.writeAttribute("name", "a<b>&\"c\"\n");
+		writer.writeAttribute("null", (String) null);
+		writer.writeAttribute("flag", true);
+		writer.writeAttribute("count", -1234567890123L);
+		writer.writeAttribute("min", Long.MIN_VALUE);
+		writer.writeAttribute("x", 0.1, false);
+		writer.startElement("turn");
+		writer.endElement();
+		writer.startElement("turn");
+		writer.startElement("robot");
+		writer.writeAttribute("energy", 99.95, true);
+		writer.endElement();
+		writer.endElement();
+		writer.endElement();
+
+		Assert.assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<record name=\"a&lt;b&gt;&amp;&quot;c&quot;&#xA;\" flag=\"true\" count=\"-1234567890123\""
+				+ " min=\"-9223372036854775808\" x=\"0.1\">\n"
+				+ "\t<turn/>\n"
+				+ "\t<turn>\n"
+				+ "\t\t<robot energy=\"99.95\"/>\n"
+				+ "\t</turn>\n"
+				+ "</record>\n", out.toString());
+	}
+
+	@Test
+	public void formatsDoublesLikeDecimalFormat() throws IOException {
+		DecimalFormat format = new DecimalFormat("#.####", new DecimalFormatSymbols(Locale.US));
+		double[] values = {
+			0, -0.0, 0.5, -0.00001, 0.00005, 0.00015, 1.00005, 9999.99995, 800, 123.4, 1e7, -1e7, 1e20, 1e-10,
+			Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MAX_VALUE, Double.MIN_VALUE
+		};
+
+		for (double value : values) {
+			Assert.assertEquals(format.format(value), formatTrimmed(value));
+		}
+
+		Random random = new Random(42);
+
+		for (int i = 0; i < 100000; i++) {
+			double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(10) - 2);
+
+			Assert.assertEquals(format.format(value), formatTrimmed(value));
+
+			// Values with few decimals, as many coordinates and angles have
+			value = Math.round(value * 100000) / 100000.0;
+			Assert.assertEquals(format.format(value), formatTrimmed(value));
+		}
+	}
+
+	private static String formatTrimmed(double value) throws IOException {
+		StringWriter out = new StringWriter();
+		XmlWriter writer = new XmlWriter(out, false);
+
+		writer.startElement("e");
+		writer.writeAttribute("v", value, true);
+		writer.endElement();
+
+		String xml = out.toString();
+
+		return xml.substring("<e v=\"".length(), xml.length() - "\"/>".length());
+	}
+}
@@ -19,6 +19,8 @@ import java.io.PrintStream;
 public interface IThreadManager extends IThreadManagerBase {
 	void addThreadGroup(ThreadGroup g, IHostedThread robotProxy);
 
+	void removeRobot(IHostedThread robotProxy);
+
 	IHostedThread getLoadingRobotProxy(Thread t);
 
 	IHostedThread getLoadedOrLoadingRobotProxy(Thread t);
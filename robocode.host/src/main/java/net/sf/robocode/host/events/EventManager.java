@@ -37,13 +37,14 @@ public final class EventManager implements IEventManager {
 	public final static int MAX_QUEUE_SIZE = 256;
 
 	private final List<Condition> customEvents = new CopyOnWriteArrayList<Condition>();
-	private final EventQueue eventQueue;
+	private final RobotEventQueue eventQueue;
 
 	private final boolean[] interruptible = new boolean[MAX_PRIORITY + 1];
 	private Event currentTopEvent;
 	private int currentTopEventPriority;
 	private ScannedRobotEvent dummyScannedRobotEvent;
 	private Map<String, Event> eventNames;
+	private Map<Class<?>, Event> eventClasses;
 
 	private IBasicRobot robot;
 	private BasicRobotProxy robotProxy;
@@ -55,7 +56,7 @@ public final class EventManager implements IEventManager {
 	 */
 	public EventManager(BasicRobotProxy robotProxy) {
 		this.robotProxy = robotProxy;
-		eventQueue = new EventQueue();
+		eventQueue = new RobotEventQueue();
 
 		registerEventNames();
 		reset();
@@ -67,7 +68,7 @@ public final class EventManager implements IEventManager {
 	 */
 	public void add(Event event) {
 		if (!HiddenAccess.isCriticalEvent(event)) {
-			final int priority = getEventPriority(event.getClass().getName());
+			final int priority = getEventPriority(event.getClass());
 			HiddenAccess.setEventPriority(event, priority);
 		}
 		addImpl(event);
@@ -127,164 +128,99 @@ public final class EventManager implements IEventManager {
 	 * Returns a list containing all events currently in the robot's queue.
 	 */
 	public List<Event> getAllEvents() {
-		List<Event> events = new ArrayList<Event>();
 		synchronized (eventQueue) {
-			for (Event e : eventQueue) {
-				events.add(e);
-			}
+			return eventQueue.getAllEvents();
 		}
-		return events;
 	}
 
 	/**
 	 * Returns a list containing all BulletHitBulletEvents currently in the robot's queue.
 	 */
 	public List<BulletHitBulletEvent> getBulletHitBulletEvents() {
-		List<BulletHitBulletEvent> events = new ArrayList<BulletHitBulletEvent>();
 		synchronized (eventQueue) {
-			for (Event e : eventQueue) {
-				if (e instanceof BulletHitBulletEvent) {
-					events.add((BulletHitBulletEvent) e);
-				}
-			}
+			return eventQueue.getEvents(BulletHitBulletEvent.class);
 		}
-		return events;
 	}
 
 	/**
 	 * Returns a list containing all BulletHitEvents currently in the robot's queue.
 	 */
 	public List<BulletHitEvent> getBulletHitEvents() {
-		List<BulletHitEvent> events = new ArrayList<BulletHitEvent>();
 		synchronized (eventQueue) {
-			for (Event e : eventQueue) {
-				if (e instanceof BulletHitEvent) {
-					events.add((BulletHitEvent) e);
-				}
-			}
+			return eventQueue.getEvents(BulletHitEvent.class);
 		}
-		return events;
 	}
 
 	/**
 	 * Returns a list containing all BulletMissedEvents currently in the robot's queue.
 	 */
 	public List<BulletMissedEvent> getBulletMissedEvents() {
-		List<BulletMissedEvent> events = new ArrayList<BulletMissedEvent>();
 		synchronized (eventQueue) {
-			for (Event e : eventQueue) {
-				if (e instanceof BulletMissedEvent) {
-					events.add((BulletMissedEvent) e);
-				}
-			}
+			return eventQueue.getEvents(BulletMissedEvent.class);
 		}
-		return events;
 	}
 
 	/**
 	 * Returns a list containing all HitByBulletEvents currently in the robot's queue.
 	 */
 	public List<HitByBulletEvent> getHitByBulletEvents() {
-		List<HitByBulletEvent> events = new ArrayList<HitByBulletEvent>();
 		synchronized (eventQueue) {
-			for (Event e : eventQueue) {
-				if (e instanceof HitByBulletEvent) {
-					events.add((HitByBulletEvent) e);
-				}
-			}
+			return eventQueue.getEvents(HitByBulletEvent.class);
 		}
-		return events;
 	}
 
 	/**
 	 * Returns a list containing all HitRobotEvents currently in the robot's queue.
 	 */
 	public List<HitRobotEvent> getHitRobotEvents() {
-		List<HitRobotEvent> events = new ArrayList<HitRobotEvent>();
-
 		synchronized (eventQueue) {
-			for (Event e : eventQueue) {
-				if (e instanceof HitRobotEvent) {
-					events.add((HitRobotEvent) e);
-				}
-			}
+			return eventQueue.getEvents(HitRobotEvent.class);
 		}
-		return events;
 	}
 
 	/**
 	 * Returns a list containing all HitWallEvents currently in the robot's queue.
 	 */
 	public List<HitWallEvent> getHitWallEvents() {
-		List<HitWallEvent> events = new ArrayList<HitWallEvent>();
 		synchronized (eventQueue) {
-			for (Event e : eventQueue) {
-				if (e instanceof HitWallEvent) {
-					events.add((HitWallEvent) e);
-				}
-			}
+			return eventQueue.getEvents(HitWallEvent.class);
 		}
-		return events;
 	}
 
 	/**
 	 * Returns a list containing all RobotDeathEvents currently in the robot's queue.
 	 */
 	public List<RobotDeathEvent> getRobotDeathEvents() {
-		List<RobotDeathEvent> events = new ArrayList<RobotDeathEvent>();
 		synchronized (eventQueue) {
-			for (Event e : eventQueue) {
-				if (e instanceof RobotDeathEvent) {
-					events.add((RobotDeathEvent) e);
-				}
-			}
+			return eventQueue.getEvents(RobotDeathEvent.class);
 		}
-		return events;
 	}
 
 	/**
 	 * Returns a list containing all ScannedRobotEvents currently in the robot's queue.
 	 */
 	public List<ScannedRobotEvent> getScannedRobotEvents() {
-		List<ScannedRobotEvent> events = new ArrayList<ScannedRobotEvent>();
 		synchronized (eventQueue) {
-			for (Event e : eventQueue) {
-				if (e instanceof ScannedRobotEvent) {
-					events.add((ScannedRobotEvent) e);
-				}
-			}
+			return eventQueue.getEvents(ScannedRobotEvent.class);
 		}
-		return events;
 	}
 
 	/**
 	 * Returns a list containing all MessageEvents currently in the robot's queue.
 	 */
 	public List<MessageEvent> getMessageEvents() {
-		List<MessageEvent> events = new ArrayList<MessageEvent>();
 		synchronized (eventQueue) {
-			for (Event e : eventQueue) {
-				if (e instanceof MessageEvent) {
-					events.add((MessageEvent) e);
-				}
-			}
+			return eventQueue.getEvents(MessageEvent.class);
 		}
-		return events;
 	}
 
 	/**
 	 * Returns a list containing all StatusEvents currently in the robot's queue.
 	 */
 	public List<StatusEvent> getStatusEvents() {
-		List<StatusEvent> events = new ArrayList<StatusEvent>();
 		synchronized (eventQueue) {
-			for (Event e : eventQueue) {
-				if (e instanceof StatusEvent) {
-					events.add((StatusEvent) e);
-				}
-			}
+			return eventQueue.getEvents(StatusEvent.class);
 		}
-		return events;
 	}
 
 	/**
@@ -347,12 +283,9 @@ public final class EventManager implements IEventManager {
 			}
 		}
 
-		// Sort the events based on the time and priority of the events
-		eventQueue.sort();
-
-		// Process event queue here
+		// Process event queue here. The queue keeps the events ordered by their time and priority
 		Event currentEvent;
-		while ((currentEvent = (eventQueue.size() > 0) ? eventQueue.get(0) : null) != null
+		while ((currentEvent = eventQueue.peek()) != null
 				&& currentEvent.getPriority() >= currentTopEventPriority) {
 
 			if (currentEvent.getPriority() == currentTopEventPriority) {
@@ -371,7 +304,7 @@ public final class EventManager implements IEventManager {
 			currentTopEventPriority = currentEvent.getPriority();
 			currentTopEvent = currentEvent;
 
-			eventQueue.remove(currentEvent);
+			eventQueue.poll();
 			try {
 				dispatch(currentEvent);
 
@@ -485,6 +418,20 @@ public final class EventManager implements IEventManager {
 		return event.getPriority();
 	}
 
+	/**
+	 * Returns the priority of events belonging to a specific class.
+	 * This is the same as {@link #getEventPriority(String)}, but without building and hashing the class name.
+	 * @param eventClass is the class of the event type to get the priority from.
+	 * @return the event priority of the specified event class.
+	 */
+	private int getEventPriority(Class<?> eventClass) {
+		final Event event = eventClasses.get(eventClass);
+		if (event == null) {
+			return -1;
+		}
+		return event.getPriority();
+	}
+
 	/**
 	 * Sets the event priority of events belonging to a specific class.
 	 * @param eventClass is a string with the full class name of the event type to set the priority for.
@@ -508,9 +455,11 @@ public final class EventManager implements IEventManager {
 	/**
 	 * Registers the full and simple class names of all events used by {@link #getEventPriority(String)} and
 	 * {@link #setEventPriority(String, int)} and sets the default priority of each event class.
+	 * The event classes themselves are registered as well, so events added to the queue can be looked up by class.
 	 */
 	private void registerEventNames() {
 		eventNames = new HashMap<String, Event>();
+		eventClasses = new HashMap<Class<?>, Event>();
 		dummyScannedRobotEvent = new ScannedRobotEvent(null, 0, 0, 0, 0, 0, false);
 		registerEventNames(new BattleEndedEvent(false, null));
 		registerEventNames(new BulletHitBulletEvent(null, null));
@@ -544,6 +493,7 @@ public final class EventManager implements IEventManager {
 		final DummyCustomEvent customEvent = new DummyCustomEvent();
 		eventNames.put("robocode.CustomEvent", customEvent); // full name with package name
 		eventNames.put("CustomEvent", customEvent); // only the class name
+		eventClasses.put(CustomEvent.class, customEvent);
 	}
 
 	/**
@@ -558,6 +508,7 @@ public final class EventManager implements IEventManager {
 		final Class<?> type = event.getClass();
 		eventNames.put(type.getName(), event); // full name with package name
 		eventNames.put(type.getSimpleName(), event); // only the class name
+		eventClasses.put(type, event);
 	}
 
 	/**
@@ -12,10 +12,12 @@ import net.sf.robocode.security.HiddenAccess;
 import robocode.Event;
 
 import java.util.ArrayList;
-import java.util.Collections;
 
 
 /**
+ * The events collected by the battle for a robot during a turn, which are handed over to the robot as they are.
+ * The robot itself keeps its events in a {@link RobotEventQueue}.
+ *
  * @author Mathew A. Nelson (original)
  * @author Flemming N. Larsen (contributor)
  */
@@ -28,26 +30,19 @@ public class EventQueue extends ArrayList<Event> {
 			return;
 		}
 
-		for (int i = 0; i < size(); i++) {
-			Event e = get(i);
-
-			if (!HiddenAccess.isCriticalEvent(e)) {
-				remove(i--);
-			}
-		}
+		clear(Long.MAX_VALUE);
 	}
 
 	public void clear(long clearTime) {
+		int kept = 0;
+
 		for (int i = 0; i < size(); i++) {
 			Event e = get(i);
 
-			if ((e.getTime() <= clearTime) && !HiddenAccess.isCriticalEvent(e)) {
-				remove(i--);
+			if ((e.getTime() > clearTime) || HiddenAccess.isCriticalEvent(e)) {
+				set(kept++, e);
 			}
 		}
-	}
-
-	void sort() {
-		Collections.sort(this);
+		removeRange(kept, size());
 	}
 }
@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.host.events;
+
+
+import net.sf.robocode.security.HiddenAccess;
+import robocode.Event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * The event queue of a robot, which is used by the {@link EventManager} on the robot side.
+ * <p>
+ * The events are kept in a binary heap ordered by {@link Event#compareTo(Event)}, where events that compare as equal
+ * are kept in the order they were added. Hence the first event is always the same event as the first event of a
+ * stable sorted list, and the queue never needs to be sorted.
+ * <p>
+ * Besides the heap, the events are indexed by their class in the order they were added, so the events of a specific
+ * type can be retrieved without scanning the entire queue.
+ */
+public class RobotEventQueue {
+
+	private static final int INITIAL_CAPACITY = 32;
+
+	private Event[] heap = new Event[INITIAL_CAPACITY];
+	private long[] order = new long[INITIAL_CAPACITY];
+	private int size;
+	private long nextOrder;
+
+	private final Map<Class<?>, List<Event>> eventsByClass = new HashMap<Class<?>, List<Event>>();
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void add(Event event) {
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, size * 2);
+			order = Arrays.copyOf(order, size * 2);
+		}
+		heap[size] = event;
+		order[size] = nextOrder++;
+		siftUp(size++);
+
+		List<Event> events = eventsByClass.get(event.getClass());
+
+		if (events == null) {
+			events = new ArrayList<Event>();
+			eventsByClass.put(event.getClass(), events);
+		}
+		events.add(event);
+	}
+
+	/**
+	 * Returns the event with the highest precedence without removing it, or {@code null} if the queue is empty.
+	 */
+	public Event peek() {
+		return size > 0 ? heap[0] : null;
+	}
+
+	/**
+	 * Removes and returns the event with the highest precedence, or {@code null} if the queue is empty.
+	 */
+	public Event poll() {
+		if (size == 0) {
+			return null;
+		}
+		Event event = heap[0];
+
+		size--;
+		heap[0] = heap[size];
+		order[0] = order[size];
+		heap[size] = null;
+		if (size > 0) {
+			siftDown(0);
+		}
+		removeFromClassIndex(event);
+		return event;
+	}
+
+	public boolean contains(Event event) {
+		List<Event> events = eventsByClass.get(event.getClass());
+
+		if (events != null) {
+			for (Event e : events) {
+				if (e == event) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	public void clear(boolean includingSystemEvents) {
+		if (includingSystemEvents) {
+			Arrays.fill(heap, 0, size, null);
+			size = 0;
+			eventsByClass.clear();
+			return;
+		}
+		removeIf(Long.MAX_VALUE);
+	}
+
+	public void clear(long clearTime) {
+		removeIf(clearTime);
+	}
+
+	/**
+	 * Returns all events in the queue, in the order they will be processed.
+	 */
+	public List<Event> getAllEvents() {
+		Integer[] indexes = new Integer[size];
+
+		for (int i = 0; i < size; i++) {
+			indexes[i] = i;
+		}
+		Arrays.sort(indexes, new Comparator<Integer>() {
+			public int compare(Integer i, Integer j) {
+				return RobotEventQueue.this.compare(i, j);
+			}
+		});
+
+		List<Event> events = new ArrayList<Event>(size);
+
+		for (Integer i : indexes) {
+			events.add(heap[i]);
+		}
+		return events;
+	}
+
+	/**
+	 * Returns the events of the specified class, in the order they will be processed.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Event> List<T> getEvents(Class<T> type) {
+		List<Event> events = eventsByClass.get(type);
+
+		if (events == null) {
+			return new ArrayList<T>();
+		}
+		List<T> copy = new ArrayList<T>((List<T>) events);
+
+		// The index is in insertion order, so a stable sort gives the same order as the heap
+		Collections.sort(copy);
+		return copy;
+	}
+
+	// Removes the non-critical events with a time less than or equal to the clear time and rebuilds the heap
+	private void removeIf(long clearTime) {
+		int kept = 0;
+
+		for (int i = 0; i < size; i++) {
+			Event e = heap[i];
+
+			if ((e.getTime() <= clearTime) && !HiddenAccess.isCriticalEvent(e)) {
+				removeFromClassIndex(e);
+			} else {
+				heap[kept] = e;
+				order[kept] = order[i];
+				kept++;
+			}
+		}
+		if (kept == size) {
+			return;
+		}
+		Arrays.fill(heap, kept, size, null);
+		size = kept;
+		for (int i = (size >>> 1) - 1; i >= 0; i--) {
+			siftDown(i);
+		}
+	}
+
+	private void removeFromClassIndex(Event event) {
+		List<Event> events = eventsByClass.get(event.getClass());
+
+		for (int i = 0; i < events.size(); i++) {
+			if (events.get(i) == event) {
+				events.remove(i);
+				return;
+			}
+		}
+	}
+
+	private int compare(int i, int j) {
+		int res = heap[i].compareTo(heap[j]);
+
+		if (res != 0) {
+			return res;
+		}
+		return order[i] < order[j] ? -1 : (order[i] == order[j] ? 0 : 1);
+	}
+
+	private void siftUp(int k) {
+		while (k > 0) {
+			int parent = (k - 1) >>> 1;
+
+			if (compare(k, parent) >= 0) {
+				break;
+			}
+			swap(k, parent);
+			k = parent;
+		}
+	}
+
+	private void siftDown(int k) {
+		int half = size >>> 1;
+
+		while (k < half) {
+			int child = 2 * k + 1;
+			int right = child + 1;
+
+			if (right < size && compare(right, child) < 0) {
+				child = right;
+			}
+			if (compare(k, child) <= 0) {
+				break;
+			}
+			swap(k, child);
+			k = child;
+		}
+	}
+
+	private void swap(int i, int j) {
+		Event e = heap[i];
+
+		heap[i] = heap[j];
+		heap[j] = e;
+
+		long o = order[i];
+
+		order[i] = order[j];
+		order[j] = o;
+	}
+}
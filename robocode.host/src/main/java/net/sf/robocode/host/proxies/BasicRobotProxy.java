@@ -11,6 +11,7 @@ package net.sf.robocode.host.proxies;
 import net.sf.robocode.host.RobotStatics;
 import net.sf.robocode.host.IHostManager;
 import net.sf.robocode.host.events.EventManager;
+import net.sf.robocode.io.RobocodeProperties;
 import net.sf.robocode.peer.*;
 import net.sf.robocode.repository.IRobotItem;
 import net.sf.robocode.robotpaint.Graphics2DSerialized;
@@ -340,6 +341,18 @@ public class BasicRobotProxy extends HostingRobotProxy implements IBasicRobotPee
 		}
 	}
 	
+	// Tells how much the robot has painted this round, so it can be seen if the painting is taking its time.
+	// This is only printed when debugging, while the statistics are always available from the graphics proxy.
+	private void printPaintStatistics() {
+		final int turns = graphicsProxy.getPaintedTurns();
+
+		if (turns > 0 && RobocodeProperties.isDebuggingOn()) {
+			println("SYSTEM: Painted " + graphicsProxy.getPaintedBytes() / turns + " bytes per turn on average in "
+					+ turns + " turns (max. " + graphicsProxy.getMaxPaintedBytesPerTurn() + " bytes per turn)");
+		}
+		graphicsProxy.resetPaintStatistics();
+	}
+
 	// -----------
 	// implementations
 	// -----------
@@ -380,7 +393,8 @@ public class BasicRobotProxy extends HostingRobotProxy implements IBasicRobotPee
 		commands.setOutputText(out.readAndReset());
 		commands.setGraphicsCalls(graphicsProxy.readoutQueuedCalls());
 
-		// Call server
+		// Call server. The commands are handed over to the battle, and the returned results are reused by the peer
+		// on our next call, so none of them must be kept beyond that.
 		execResults = peer.executeImpl(commands);
 
 		updateStatus(execResults.getCommands(), execResults.getStatus());
@@ -426,6 +440,7 @@ public class BasicRobotProxy extends HostingRobotProxy implements IBasicRobotPee
 	@Override
 	protected final void waitForBattleEndImpl() {
 		eventManager.clearAllEvents(false);
+		printPaintStatistics();
 		graphicsProxy.setPaintingEnabled(false);
 		do {
 			// Make sure remaining system events like e.g. are processed this round
@@ -92,6 +92,12 @@ abstract class HostingRobotProxy implements IHostingRobotProxy, IHostedThread {
 			out = null;
 		}
 
+		// Unregister from the thread manager, which may be shared with robots from other battles
+		if (threadManager != null) {
+			threadManager.removeRobot(this);
+			threadManager = null;
+		}
+
 		if (robotThreadManager != null) {
 			robotThreadManager.cleanup();
 		}
@@ -154,6 +160,12 @@ abstract class HostingRobotProxy implements IHostingRobotProxy, IHostedThread {
 		}
 	}
 
+	public Thread getRobotThread() {
+		final RobotThreadManager manager = robotThreadManager;
+
+		return (manager != null) ? manager.getRunThread() : null;
+	}
+
 	private void loadClassBattle() {
 		try {
 			robotClassLoader.loadRobotMainClass(true);
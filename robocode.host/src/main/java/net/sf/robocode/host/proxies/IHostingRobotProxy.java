@@ -23,6 +23,8 @@ public interface IHostingRobotProxy {
 
 	void waitForStopThread();
 
+	Thread getRobotThread();
+
 	void cleanup();
 
 }
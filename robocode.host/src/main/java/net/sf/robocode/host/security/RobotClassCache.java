@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.host.security;
+
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Cache of robot class files shared by all robot class loaders, so the bytecode of a robot is only read and analyzed
+ * for referenced classes once, and not once per battle.
+ * <p>
+ * The classes are cached by the URL of the class file. A cached class is only used as long as the jar file or class
+ * file it was read from has the same size and modification time as when it was read. Classes read from other places
+ * than the file system, e.g. jars nested in other jars, are not cached.
+ * <p>
+ * The cache only holds bytes, and never defined classes, as every battle needs fresh classes with fresh static fields.
+ */
+final class RobotClassCache {
+
+	private static final long MAX_CACHED_BYTES = 32 * 1024 * 1024;
+
+	// Least recently used classes first
+	private static final Map<String, CachedClass> cache = new LinkedHashMap<String, CachedClass>(64, 0.75f, true);
+	private static long cachedBytes;
+
+	private RobotClassCache() {}
+
+	/**
+	 * Returns the cached class for a class file, or null if it is not cached or the file has changed since it was
+	 * cached.
+	 */
+	static CachedClass get(URL url) {
+		final File file = getSourceFile(url);
+
+		if (file == null) {
+			return null;
+		}
+		final String key = url.toString();
+
+		synchronized (cache) {
+			CachedClass cached = cache.get(key);
+
+			if (cached != null && (cached.lastModified != file.lastModified() || cached.length != file.length())) {
+				cache.remove(key);
+				cachedBytes -= cached.bytes.length;
+				cached = null;
+			}
+			return cached;
+		}
+	}
+
+	/**
+	 * Creates a class, which has not been analyzed yet, for a class file that has just been read.
+	 * The file must be stamped before reading the class file, so a class file that is changed while it is being
+	 * read is not cached with the size and modification time of the changed file.
+	 *
+	 * @param url the URL of the class file.
+	 * @param stamp the size and modification time of the file, as returned by {@link #stamp(URL)}.
+	 * @param bytes the bytes of the class file.
+	 */
+	static CachedClass create(URL url, long[] stamp, byte[] bytes) {
+		if (stamp == null) {
+			return new CachedClass(null, bytes, null, 0, 0);
+		}
+		return new CachedClass(url.toString(), bytes, null, stamp[0], stamp[1]);
+	}
+
+	/**
+	 * Returns the modification time and size of the file that a class file is read from, or null if classes from
+	 * the specified URL cannot be cached.
+	 */
+	static long[] stamp(URL url) {
+		final File file = getSourceFile(url);
+
+		if (file == null) {
+			return null;
+		}
+		return new long[] { file.lastModified(), file.length() };
+	}
+
+	/**
+	 * Caches a class created with {@link #create(URL, long[], byte[])} once it has been analyzed.
+	 *
+	 * @param created the class that was created from the class file.
+	 * @param referencedClasses the names of the classes referenced from the class.
+	 */
+	static void put(CachedClass created, String[] referencedClasses) {
+		if (created.key == null || created.bytes.length > MAX_CACHED_BYTES) {
+			return;
+		}
+		final CachedClass cached = new CachedClass(created.key, created.bytes, referencedClasses,
+				created.lastModified, created.length);
+
+		synchronized (cache) {
+			CachedClass old = cache.put(cached.key, cached);
+
+			if (old != null) {
+				cachedBytes -= old.bytes.length;
+			}
+			cachedBytes += cached.bytes.length;
+
+			for (Iterator<CachedClass> it = cache.values().iterator(); cachedBytes > MAX_CACHED_BYTES && it.hasNext();) {
+				cachedBytes -= it.next().bytes.length;
+				it.remove();
+			}
+		}
+	}
+
+	// Returns the jar file or class file that a class is read from, or null if it is not a local file
+	private static File getSourceFile(URL url) {
+		String spec = url.toString();
+
+		if (spec.startsWith("jar:")) {
+			int index = spec.indexOf("!/");
+
+			if (index < 0) {
+				return null;
+			}
+			spec = spec.substring("jar:".length(), index);
+		}
+		if (!spec.startsWith("file:")) {
+			return null;
+		}
+		try {
+			return new File(new URL(spec).toURI());
+		} catch (MalformedURLException e) {
+			return null;
+		} catch (URISyntaxException e) {
+			return null;
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * The bytes of a class file, and the names of the classes referenced from it, if it has been analyzed.
+	 */
+	static final class CachedClass {
+		final String key;
+		final byte[] bytes;
+		final String[] referencedClasses;
+		final long lastModified;
+		final long length;
+
+		private CachedClass(String key, byte[] bytes, String[] referencedClasses, long lastModified, long length) {
+			this.key = key;
+			this.bytes = bytes;
+			this.referencedClasses = referencedClasses;
+			this.lastModified = lastModified;
+			this.length = length;
+		}
+	}
+}
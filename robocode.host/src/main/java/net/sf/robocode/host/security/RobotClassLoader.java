@@ -30,6 +30,8 @@ import java.nio.ByteBuffer;
 import java.security.*;
 import java.security.cert.Certificate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -134,23 +136,32 @@ public class RobotClassLoader extends URLClassLoader implements IRobotClassLoade
 	private Class<?> loadRobotClassLocaly(String name, boolean resolve) throws ClassNotFoundException {
 		Class<?> result = findLoadedClass(name);
 		if (result == null) {
-			ByteBuffer resource = findLocalResource(name);
+			RobotClassCache.CachedClass resource = findLocalResource(name);
 			if (resource != null) {
-				result = defineClass(name, resource, codeSource);
+				result = defineClass(name, ByteBuffer.wrap(resource.bytes), codeSource);
 				if (resolve) {
 					resolveClass(result);
 				}
-				ClassAnalyzer.getReferencedClasses(resource, referencedClasses);
+				if (resource.referencedClasses != null) {
+					Collections.addAll(referencedClasses, resource.referencedClasses);
+				} else {
+					Set<String> references = new HashSet<String>();
+
+					ClassAnalyzer.getReferencedClasses(ByteBuffer.wrap(resource.bytes), references);
+					referencedClasses.addAll(references);
+					RobotClassCache.put(resource, references.toArray(new String[references.size()]));
+				}
 			}
 		}
 		return result;
 	}
 
 	// this whole fun is there to be able to provide defineClass with bytes
-	// we need to call defineClass to be able to set codeSource to untrustedLocation  
-	private ByteBuffer findLocalResource(final String name) {
-		return AccessController.doPrivileged(new PrivilegedAction<ByteBuffer>() {
-			public ByteBuffer run() {
+	// we need to call defineClass to be able to set codeSource to untrustedLocation
+	// the bytes are cached between battles, see RobotClassCache
+	private RobotClassCache.CachedClass findLocalResource(final String name) {
+		return AccessController.doPrivileged(new PrivilegedAction<RobotClassCache.CachedClass>() {
+			public RobotClassCache.CachedClass run() {
 				// try to find it in robot's class path
 				// this is URL, don't change to File.pathSeparator
 				String path = name.replace('.', '/').concat(".class");
@@ -160,6 +171,13 @@ public class RobotClassLoader extends URLClassLoader implements IRobotClassLoade
 				BufferedInputStream bis = null;
 
 				if (url != null) {
+					RobotClassCache.CachedClass cached = RobotClassCache.get(url);
+
+					if (cached != null) {
+						return cached;
+					}
+					long[] stamp = RobotClassCache.stamp(url);
+
 					try {
 						URLConnection connection = URLJarCollector.openConnection(url);
 
@@ -192,8 +210,9 @@ public class RobotClassLoader extends URLClassLoader implements IRobotClassLoade
 						FileUtil.cleanupStream(bis);
 						FileUtil.cleanupStream(is);
 					}
+					return RobotClassCache.create(url, stamp, Arrays.copyOf(result.array(), result.limit()));
 				}
-				return result;
+				return null;
 			}
 		});
 	}
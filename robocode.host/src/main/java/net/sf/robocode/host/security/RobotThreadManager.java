@@ -33,6 +33,7 @@ public class RobotThreadManager {
 
 	private final IHostedThread robotProxy;
 	private Thread runThread;
+	private RobotCarrier carrier;
 	private ThreadGroup runThreadGroup;
 	private Object awtForThreadGroup;
 	private final Map<Thread, Disposal> disposeAppContextThreadMap = new HashMap<Thread, Disposal>();
@@ -43,6 +44,7 @@ public class RobotThreadManager {
 	}
 
 	public void cleanup() {
+		stopCarrier();
 		try {
 			if (runThread == null || !runThread.isAlive()) {
 				if (!discardAWT()) {
@@ -76,6 +78,10 @@ public class RobotThreadManager {
 		return res;
 	}
 
+	public Thread getRunThread() {
+		return runThread;
+	}
+
 	public void checkRunThread() {
 		if (Thread.currentThread() != runThread) {
 			throw new RobotException("You cannot take action in this thread!");
@@ -86,11 +92,26 @@ public class RobotThreadManager {
 		try {
 			threadManager.addThreadGroup(runThreadGroup, robotProxy);
 
-			runThread = new Thread(runThreadGroup, robotProxy, robotProxy.getStatics().getName());
-			runThread.setDaemon(true);
-			runThread.setPriority(Thread.NORM_PRIORITY - 1);
-			runThread.setContextClassLoader(this.robotProxy.getRobotClassloader());
-			runThread.start();
+			if (!RobocodeProperties.isPooledThreadsOn()) {
+				runThread = new Thread(runThreadGroup, robotProxy, robotProxy.getStatics().getName());
+				runThread.setDaemon(true);
+				runThread.setPriority(Thread.NORM_PRIORITY - 1);
+				runThread.setContextClassLoader(this.robotProxy.getRobotClassloader());
+				runThread.start();
+			} else if (carrier != null && runThread != null && runThread.isAlive()) {
+				// Reuse the thread from the previous round, which might have been lowered in priority when stopped
+				runThread.setPriority(Thread.NORM_PRIORITY - 1);
+				carrier.startRound();
+			} else {
+				carrier = new RobotCarrier();
+				carrier.startRound();
+
+				runThread = new Thread(runThreadGroup, carrier, robotProxy.getStatics().getName());
+				runThread.setDaemon(true);
+				runThread.setPriority(Thread.NORM_PRIORITY - 1);
+				runThread.setContextClassLoader(this.robotProxy.getRobotClassloader());
+				runThread.start();
+			}
 		} catch (Exception e) {
 			logError("Exception starting thread", e);
 		}
@@ -102,10 +123,10 @@ public class RobotThreadManager {
 	public boolean waitForStop() {
 		boolean isAlive = false;
 
-		if (runThread != null && runThread.isAlive()) {
+		if (isActive(runThread)) {
 			runThread.interrupt();
 			waitForStop(runThread);
-			isAlive = runThread.isAlive();
+			isAlive = isActive(runThread);
 		}
 
 		Thread[] threads = new Thread[100];
@@ -156,6 +177,12 @@ public class RobotThreadManager {
 
 			// recycle thread group
 			createThreadGroup();
+
+			// The carrier thread has been stopped, or cannot be stopped, so it is never reused
+			carrier = null;
+		} else {
+			// Shut down the idle carrier thread, as the run thread is released below
+			stopCarrier();
 		}
 		runThread = null;
 		return res == 0;
@@ -166,12 +193,12 @@ public class RobotThreadManager {
 	 * @return 0 as peaceful stop
 	 */
 	private int stopSteps(Thread t) {
-		if (t != null && t.isAlive()) {
+		if (isActive(t)) {
 			interrupt(t);
-			if (t.isAlive()) {
+			if (isActive(t)) {
 				stop(t);
 			}
-			if (t.isAlive()) {
+			if (isActive(t)) {
 				// noinspection deprecation
 				// t.suspend();
 				logWarning("Unable to stop thread: " + runThread.getName());
@@ -189,7 +216,7 @@ public class RobotThreadManager {
 			// noinspection deprecation
 			t.stop();
 			try {
-				t.join(1500);
+				join(t, 1500);
 			} catch (InterruptedException e) {
 				// Immediately reasserts the exception by interrupting the caller thread itself
 				Thread.currentThread().interrupt();
@@ -206,7 +233,7 @@ public class RobotThreadManager {
 			}
 			t.interrupt();
 			try {
-				t.join(500);
+				join(t, 500);
 			} catch (InterruptedException e) {
 				// Immediately reasserts the exception by interrupting the caller thread itself
 				Thread.currentThread().interrupt();
@@ -215,7 +242,7 @@ public class RobotThreadManager {
 	}
 
 	private void waitForStop(Thread thread) {
-		for (int j = 0; j < 100 && thread.isAlive(); j++) {
+		for (int j = 0; j < 100 && isActive(thread); j++) {
 			if (j == 50) {
 				logMessage(
 						"Waiting for robot " + robotProxy.getStatics().getName() + " to stop thread " + thread.getName());
@@ -230,6 +257,45 @@ public class RobotThreadManager {
 		}
 	}
 
+	/**
+	 * Checks if a thread is still running robot code. A pooled robot thread waiting for the next round is alive,
+	 * but not active.
+	 */
+	private boolean isActive(Thread t) {
+		if (t == null || !t.isAlive()) {
+			return false;
+		}
+		final RobotCarrier c = carrier;
+
+		return t != runThread || c == null || c.isBusy();
+	}
+
+	private void join(Thread t, long millis) throws InterruptedException {
+		final RobotCarrier c = carrier;
+
+		if (t == runThread && c != null) {
+			c.waitIdle(millis);
+		} else {
+			t.join(millis);
+		}
+	}
+
+	private void stopCarrier() {
+		final RobotCarrier c = carrier;
+		final Thread t = runThread;
+
+		if (c != null && t != null && !c.isBusy()) {
+			c.shutdown();
+			try {
+				t.join(500);
+			} catch (InterruptedException e) {
+				// Immediately reasserts the exception by interrupting the caller thread itself
+				Thread.currentThread().interrupt();
+			}
+		}
+		carrier = null;
+	}
+
 	private void createThreadGroup() {
 		runThreadGroup = new ThreadGroup(robotProxy.getStatics().getName());
 
@@ -340,4 +406,66 @@ public class RobotThreadManager {
 	private static class Disposal {
 		boolean isDisposing;
 	}
+
+	/**
+	 * Runs the robot for one round at a time on the same thread, which is kept waiting between the rounds.
+	 * The thread stays in the thread group of the robot, so the security checks are the same as for a thread
+	 * started for a single round.
+	 */
+	private final class RobotCarrier implements Runnable {
+		private boolean isRoundPending;
+		private boolean isBusy;
+		private boolean isShutdown;
+
+		public void run() {
+			while (awaitRound()) {
+				try {
+					robotProxy.run();
+				} finally {
+					// Clears the interrupt used for ending the round, so it does not hit the next round
+					Thread.interrupted();
+
+					synchronized (this) {
+						isBusy = false;
+						notifyAll();
+					}
+				}
+			}
+		}
+
+		synchronized void startRound() {
+			isRoundPending = true;
+			isBusy = true;
+			notifyAll();
+		}
+
+		synchronized boolean isBusy() {
+			return isBusy;
+		}
+
+		synchronized void shutdown() {
+			isShutdown = true;
+			notifyAll();
+		}
+
+		synchronized void waitIdle(long millis) throws InterruptedException {
+			final long deadline = System.currentTimeMillis() + millis;
+
+			for (long remaining = millis; isBusy && remaining > 0; remaining = deadline - System.currentTimeMillis()) {
+				wait(remaining);
+			}
+		}
+
+		private synchronized boolean awaitRound() {
+			while (!isRoundPending && !isShutdown) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					// An interrupt for ending the previous round might arrive after the round has ended
+				}
+			}
+			isRoundPending = false;
+			return !isShutdown;
+		}
+	}
 }
@@ -18,7 +18,10 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -35,12 +38,14 @@ public class ThreadManager implements IThreadManager {
 
 	private final List<Thread> safeThreads = new CopyOnWriteArrayList<Thread>();
 	private final List<ThreadGroup> safeThreadGroups = new CopyOnWriteArrayList<ThreadGroup>();
-	private final List<ThreadGroup> groups = new CopyOnWriteArrayList<ThreadGroup>();
 	private final List<Thread> outputStreamThreads = new CopyOnWriteArrayList<Thread>();
-	private final List<IHostedThread> robots = new CopyOnWriteArrayList<IHostedThread>();
 
-	private Thread robotLoaderThread;
-	private IHostedThread loadingRobot;
+	// Robot thread groups mapped to the robot owning them. Robots from several battles can be registered at the same
+	// time, when battles are running concurrently.
+	private final Map<ThreadGroup, IHostedThread> robots = new ConcurrentHashMap<ThreadGroup, IHostedThread>();
+
+	// Robots currently being loaded, mapped by the thread loading them
+	private final Map<Thread, IHostedThread> loadingRobots = new ConcurrentHashMap<Thread, IHostedThread>();
 
 	public ThreadManager() {}
 
@@ -57,26 +62,36 @@ public class ThreadManager implements IThreadManager {
 	}
 
 	public void addThreadGroup(ThreadGroup g, IHostedThread robotProxy) {
-		if (!groups.contains(g)) {
-			groups.add(g);
-			robots.add(robotProxy);
+		if (!robots.containsKey(g)) {
+			robots.put(g, robotProxy);
 		}
 	}
 
-	public synchronized IHostedThread getLoadingRobot() {
-		return loadingRobot;
+	public void removeRobot(IHostedThread robotProxy) {
+		for (Iterator<IHostedThread> it = robots.values().iterator(); it.hasNext();) {
+			if (it.next() == robotProxy) {
+				it.remove();
+			}
+		}
 	}
 
-	public synchronized IHostedThread getLoadingRobotProxy(Thread t) {
-		if (t != null && robotLoaderThread != null
-				&& (t.equals(robotLoaderThread)
-				|| (t.getThreadGroup() != null && t.getThreadGroup().equals(robotLoaderThread.getThreadGroup())))) {
-			return loadingRobot;
+	public IHostedThread getLoadingRobotProxy(Thread t) {
+		if (t == null || loadingRobots.isEmpty()) {
+			return null;
+		}
+		IHostedThread robotProxy = loadingRobots.get(t);
+
+		if (robotProxy == null && t.getThreadGroup() != null) {
+			for (Map.Entry<Thread, IHostedThread> entry : loadingRobots.entrySet()) {
+				if (t.getThreadGroup().equals(entry.getKey().getThreadGroup())) {
+					return entry.getValue();
+				}
+			}
 		}
-		return null;
+		return robotProxy;
 	}
 
-	public synchronized IHostedThread getLoadedOrLoadingRobotProxy(Thread t) {
+	public IHostedThread getLoadedOrLoadingRobotProxy(Thread t) {
 		IHostedThread robotProxy = getRobotProxy(t);
 
 		if (robotProxy == null) {
@@ -91,26 +106,18 @@ public class ThreadManager implements IThreadManager {
 		if (g == null) {
 			return null;
 		}
-		int index = groups.indexOf(g);
-
-		if (index == -1) {
-			return null;
-		}
-		return robots.get(index);
+		return robots.get(g);
 	}
 
 	public void reset() {
-		groups.clear();
 		robots.clear();
 	}
 
-	public synchronized void setLoadingRobot(IHostedThread newLoadingRobotProxy) {
+	public void setLoadingRobot(IHostedThread newLoadingRobotProxy) {
 		if (newLoadingRobotProxy == null) {
-			this.robotLoaderThread = null;
-			loadingRobot = null;
+			loadingRobots.remove(Thread.currentThread());
 		} else {
-			this.robotLoaderThread = Thread.currentThread();
-			loadingRobot = newLoadingRobotProxy;
+			loadingRobots.put(Thread.currentThread(), newLoadingRobotProxy);
 		}
 	}
 
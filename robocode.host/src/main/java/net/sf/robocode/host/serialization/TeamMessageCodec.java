@@ -0,0 +1,440 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.host.serialization;
+
+
+import java.awt.geom.Point2D;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Encoder and decoder of team messages.
+ * <p>
+ * Messages of the most common types, i.e. Strings, boxed primitives, arrays of primitives and points, are written
+ * directly in a compact binary format. All other messages are written with Java serialization. The two formats are
+ * told apart by the first byte, as a Java serialization stream always starts with the byte 0xAC.
+ * <p>
+ * The size limit of team messages applies to the size of the messages written with Java serialization, which is
+ * given by {@link #getSerializedSize()} for the messages in the compact format too.
+ * <p>
+ * An encoder is used by a single robot, and reuses its stream between messages.
+ */
+public final class TeamMessageCodec {
+
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte INTEGER = 2;
+	private static final byte LONG = 3;
+	private static final byte DOUBLE = 4;
+	private static final byte FLOAT = 5;
+	private static final byte SHORT = 6;
+	private static final byte BYTE = 7;
+	private static final byte CHARACTER = 8;
+	private static final byte BOOLEAN = 9;
+	private static final byte INT_ARRAY = 10;
+	private static final byte LONG_ARRAY = 11;
+	private static final byte DOUBLE_ARRAY = 12;
+	private static final byte FLOAT_ARRAY = 13;
+	private static final byte SHORT_ARRAY = 14;
+	private static final byte BYTE_ARRAY = 15;
+	private static final byte CHAR_ARRAY = 16;
+	private static final byte BOOLEAN_ARRAY = 17;
+	private static final byte POINT_DOUBLE = 18;
+	private static final byte POINT_FLOAT = 19;
+
+	// Longest String that is always within the 65535 bytes that can be written with writeUTF()
+	private static final int MAX_UTF_LENGTH = 65535 / 3;
+
+	// Sizes of messages of the compact types when written with Java serialization, where the size of Strings and arrays
+	// is the size without their content. Java serialization writes the same bytes for all messages of one of these
+	// types apart from their values, so the sizes of sample messages are used.
+	private static final int NULL_SERIALIZED_SIZE = serializedSize(null);
+	private static final Map<Class<?>, Integer> serializedSizes = new HashMap<Class<?>, Integer>();
+
+	static {
+		final Serializable[] samples = {
+			"", 0, 0L, 0d, 0f, (short) 0, (byte) 0, 'a', false, new int[0], new long[0], new double[0], new float[0],
+			new short[0], new byte[0], new char[0], new boolean[0], new Point2D.Double(), new Point2D.Float()
+		};
+
+		for (Serializable sample : samples) {
+			serializedSizes.put(sample.getClass(), serializedSize(sample));
+		}
+	}
+
+	private final ByteArrayOutputStream byteStream;
+	private final DataOutputStream dataStream;
+	private int serializedSize;
+
+	public TeamMessageCodec(int initialSize) {
+		byteStream = new ByteArrayOutputStream(initialSize);
+		dataStream = new DataOutputStream(byteStream);
+	}
+
+	/**
+	 * Encodes a team message.
+	 *
+	 * @param message the message to encode.
+	 * @return the encoded message.
+	 * @throws IOException if the message could not be serialized.
+	 */
+	public byte[] encode(Serializable message) throws IOException {
+		byteStream.reset();
+
+		if (writeCompact(message)) {
+			dataStream.flush();
+			serializedSize = getSerializedSize(message, byteStream.size());
+		} else {
+			byteStream.reset();
+
+			ObjectOutputStream objectStream = new ObjectOutputStream(byteStream);
+
+			objectStream.writeObject(message);
+			objectStream.flush();
+			serializedSize = byteStream.size();
+		}
+		return byteStream.toByteArray();
+	}
+
+	/**
+	 * Returns the size of the last encoded message when written with Java serialization, which is the size the
+	 * size limit of team messages applies to.
+	 *
+	 * @return the size of the last encoded message written with Java serialization.
+	 */
+	public int getSerializedSize() {
+		return serializedSize;
+	}
+
+	/**
+	 * Decodes a team message.
+	 *
+	 * @param bytes the encoded message.
+	 * @param classLoader the class loader used for loading the classes of messages written with Java serialization.
+	 * @return the decoded message.
+	 * @throws IOException if the message could not be read.
+	 * @throws ClassNotFoundException if the class of a message written with Java serialization was not found.
+	 */
+	public static Serializable decode(byte[] bytes, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+		if (bytes.length > 0 && bytes[0] == (byte) 0xAC) {
+			RobocodeObjectInputStream objectStream = new RobocodeObjectInputStream(new ByteArrayInputStream(bytes),
+					classLoader);
+
+			try {
+				return (Serializable) objectStream.readObject();
+			} finally {
+				objectStream.close();
+			}
+		}
+		return readCompact(new DataInputStream(new ByteArrayInputStream(bytes)));
+	}
+
+	/**
+	 * Checks if a decoded message is immutable, so the same decoded message can be handed to every recipient.
+	 *
+	 * @param message the decoded message.
+	 * @return true if the message is immutable; false otherwise.
+	 */
+	public static boolean isImmutable(Object message) {
+		if (message == null) {
+			return true;
+		}
+		final Class<?> type = message.getClass();
+
+		return type == String.class || type == Integer.class || type == Long.class || type == Double.class
+				|| type == Float.class || type == Short.class || type == Byte.class || type == Character.class
+				|| type == Boolean.class;
+	}
+
+	// Returns the size of a message written in the compact format, when written with Java serialization
+	private static int getSerializedSize(Object message, int compactSize) {
+		if (message == null) {
+			return NULL_SERIALIZED_SIZE;
+		}
+		final Class<?> type = message.getClass();
+		final int size = serializedSizes.get(type);
+
+		// The content of Strings and arrays is written the same way by both formats, only the headers differ
+		if (type == String.class) {
+			return size + compactSize - 3; // type and UTF length
+		}
+		if (type.isArray()) {
+			return size + compactSize - 5; // type and array length
+		}
+		return size;
+	}
+
+	private static int serializedSize(Serializable sample) {
+		try {
+			final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+			final ObjectOutputStream objectStream = new ObjectOutputStream(byteStream);
+
+			objectStream.writeObject(sample);
+			objectStream.flush();
+			return byteStream.size();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	// Writes a message in the compact format, or returns false if the message has to be written with Java serialization
+	private boolean writeCompact(Object message) throws IOException {
+		final DataOutputStream out = dataStream;
+
+		if (message == null) {
+			out.writeByte(NULL);
+			return true;
+		}
+		// The exact class is checked, as subclasses must be serialized with all their fields
+		final Class<?> type = message.getClass();
+
+		if (type == String.class) {
+			String s = (String) message;
+
+			if (s.length() > MAX_UTF_LENGTH) {
+				return false;
+			}
+			out.writeByte(STRING);
+			out.writeUTF(s);
+		} else if (type == Integer.class) {
+			out.writeByte(INTEGER);
+			out.writeInt((Integer) message);
+		} else if (type == Long.class) {
+			out.writeByte(LONG);
+			out.writeLong((Long) message);
+		} else if (type == Double.class) {
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double) message);
+		} else if (type == Float.class) {
+			out.writeByte(FLOAT);
+			out.writeFloat((Float) message);
+		} else if (type == Short.class) {
+			out.writeByte(SHORT);
+			out.writeShort((Short) message);
+		} else if (type == Byte.class) {
+			out.writeByte(BYTE);
+			out.writeByte((Byte) message);
+		} else if (type == Character.class) {
+			out.writeByte(CHARACTER);
+			out.writeChar((Character) message);
+		} else if (type == Boolean.class) {
+			out.writeByte(BOOLEAN);
+			out.writeBoolean((Boolean) message);
+		} else if (type == int[].class) {
+			int[] array = (int[]) message;
+
+			out.writeByte(INT_ARRAY);
+			out.writeInt(array.length);
+			for (int value : array) {
+				out.writeInt(value);
+			}
+		} else if (type == long[].class) {
+			long[] array = (long[]) message;
+
+			out.writeByte(LONG_ARRAY);
+			out.writeInt(array.length);
+			for (long value : array) {
+				out.writeLong(value);
+			}
+		} else if (type == double[].class) {
+			double[] array = (double[]) message;
+
+			out.writeByte(DOUBLE_ARRAY);
+			out.writeInt(array.length);
+			for (double value : array) {
+				out.writeDouble(value);
+			}
+		} else if (type == float[].class) {
+			float[] array = (float[]) message;
+
+			out.writeByte(FLOAT_ARRAY);
+			out.writeInt(array.length);
+			for (float value : array) {
+				out.writeFloat(value);
+			}
+		} else if (type == short[].class) {
+			short[] array = (short[]) message;
+
+			out.writeByte(SHORT_ARRAY);
+			out.writeInt(array.length);
+			for (short value : array) {
+				out.writeShort(value);
+			}
+		} else if (type == byte[].class) {
+			byte[] array = (byte[]) message;
+
+			out.writeByte(BYTE_ARRAY);
+			out.writeInt(array.length);
+			out.write(array);
+		} else if (type == char[].class) {
+			char[] array = (char[]) message;
+
+			out.writeByte(CHAR_ARRAY);
+			out.writeInt(array.length);
+			for (char value : array) {
+				out.writeChar(value);
+			}
+		} else if (type == boolean[].class) {
+			boolean[] array = (boolean[]) message;
+
+			out.writeByte(BOOLEAN_ARRAY);
+			out.writeInt(array.length);
+			for (boolean value : array) {
+				out.writeBoolean(value);
+			}
+		} else if (type == Point2D.Double.class) {
+			Point2D.Double point = (Point2D.Double) message;
+
+			out.writeByte(POINT_DOUBLE);
+			out.writeDouble(point.x);
+			out.writeDouble(point.y);
+		} else if (type == Point2D.Float.class) {
+			Point2D.Float point = (Point2D.Float) message;
+
+			out.writeByte(POINT_FLOAT);
+			out.writeFloat(point.x);
+			out.writeFloat(point.y);
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	private static Serializable readCompact(DataInputStream in) throws IOException {
+		final byte type = in.readByte();
+
+		switch (type) {
+		case NULL:
+			return null;
+
+		case STRING:
+			return in.readUTF();
+
+		case INTEGER:
+			return in.readInt();
+
+		case LONG:
+			return in.readLong();
+
+		case DOUBLE:
+			return in.readDouble();
+
+		case FLOAT:
+			return in.readFloat();
+
+		case SHORT:
+			return in.readShort();
+
+		case BYTE:
+			return in.readByte();
+
+		case CHARACTER:
+			return in.readChar();
+
+		case BOOLEAN:
+			return in.readBoolean();
+
+		case INT_ARRAY: {
+			int[] array = new int[readLength(in, 4)];
+
+			for (int i = 0; i < array.length; i++) {
+				array[i] = in.readInt();
+			}
+			return array;
+		}
+
+		case LONG_ARRAY: {
+			long[] array = new long[readLength(in, 8)];
+
+			for (int i = 0; i < array.length; i++) {
+				array[i] = in.readLong();
+			}
+			return array;
+		}
+
+		case DOUBLE_ARRAY: {
+			double[] array = new double[readLength(in, 8)];
+
+			for (int i = 0; i < array.length; i++) {
+				array[i] = in.readDouble();
+			}
+			return array;
+		}
+
+		case FLOAT_ARRAY: {
+			float[] array = new float[readLength(in, 4)];
+
+			for (int i = 0; i < array.length; i++) {
+				array[i] = in.readFloat();
+			}
+			return array;
+		}
+
+		case SHORT_ARRAY: {
+			short[] array = new short[readLength(in, 2)];
+
+			for (int i = 0; i < array.length; i++) {
+				array[i] = in.readShort();
+			}
+			return array;
+		}
+
+		case BYTE_ARRAY: {
+			byte[] array = new byte[readLength(in, 1)];
+
+			in.readFully(array);
+			return array;
+		}
+
+		case CHAR_ARRAY: {
+			char[] array = new char[readLength(in, 2)];
+
+			for (int i = 0; i < array.length; i++) {
+				array[i] = in.readChar();
+			}
+			return array;
+		}
+
+		case BOOLEAN_ARRAY: {
+			boolean[] array = new boolean[readLength(in, 1)];
+
+			for (int i = 0; i < array.length; i++) {
+				array[i] = in.readBoolean();
+			}
+			return array;
+		}
+
+		case POINT_DOUBLE:
+			return new Point2D.Double(in.readDouble(), in.readDouble());
+
+		case POINT_FLOAT:
+			return new Point2D.Float(in.readFloat(), in.readFloat());
+
+		default:
+			throw new IOException("Unknown team message type: " + type);
+		}
+	}
+
+	// Reads the length of an array, and checks that the message is big enough to contain it
+	private static int readLength(DataInputStream in, int elementSize) throws IOException {
+		final int length = in.readInt();
+
+		if (length < 0 || (long) length * elementSize > in.available()) {
+			throw new IOException("Invalid array length in team message: " + length);
+		}
+		return length;
+	}
+}
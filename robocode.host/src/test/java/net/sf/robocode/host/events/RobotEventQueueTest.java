@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.host.events;
+
+
+import net.sf.robocode.security.HiddenAccess;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import robocode.DeathEvent;
+import robocode.Event;
+import robocode.HitWallEvent;
+import robocode.ScannedRobotEvent;
+import robocode.StatusEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+
+public class RobotEventQueueTest {
+
+	@BeforeClass
+	public static void init() {
+		HiddenAccess.init();
+	}
+
+	@Test
+	public void pollsInSameOrderAsStableSort() {
+		Random random = new Random(42);
+
+		for (int run = 0; run < 100; run++) {
+			RobotEventQueue queue = new RobotEventQueue();
+			List<Event> expected = new ArrayList<Event>();
+
+			for (int i = random.nextInt(100); i >= 0; i--) {
+				Event event = createEvent(random);
+
+				queue.add(event);
+				expected.add(event);
+			}
+			Collections.sort(expected);
+
+			Assert.assertEquals(expected, queue.getAllEvents());
+			Assert.assertEquals(filter(expected, ScannedRobotEvent.class), queue.getEvents(ScannedRobotEvent.class));
+
+			for (Event event : expected) {
+				Assert.assertSame(event, queue.peek());
+				Assert.assertSame(event, queue.poll());
+			}
+			Assert.assertTrue(queue.isEmpty());
+			Assert.assertNull(queue.poll());
+			Assert.assertTrue(queue.getEvents(ScannedRobotEvent.class).isEmpty());
+		}
+	}
+
+	@Test
+	public void clearKeepsCriticalAndNewerEvents() {
+		Random random = new Random(7);
+		RobotEventQueue queue = new RobotEventQueue();
+		List<Event> expected = new ArrayList<Event>();
+
+		for (int i = 0; i < 200; i++) {
+			Event event = createEvent(random);
+
+			queue.add(event);
+			if (event.getTime() > 5 || event instanceof DeathEvent) {
+				expected.add(event);
+			}
+		}
+		Collections.sort(expected);
+
+		queue.clear(5);
+		Assert.assertEquals(expected, queue.getAllEvents());
+		Assert.assertEquals(filter(expected, HitWallEvent.class), queue.getEvents(HitWallEvent.class));
+		for (Event event : expected) {
+			Assert.assertSame(event, queue.poll());
+		}
+
+		queue.add(new DeathEvent());
+		queue.add(new HitWallEvent(0));
+		queue.clear(false);
+		Assert.assertEquals(1, queue.size());
+		Assert.assertTrue(queue.peek() instanceof DeathEvent);
+
+		queue.clear(true);
+		Assert.assertTrue(queue.isEmpty());
+		Assert.assertTrue(queue.getAllEvents().isEmpty());
+	}
+
+	@Test
+	public void containsChecksIdentity() {
+		RobotEventQueue queue = new RobotEventQueue();
+		HitWallEvent event = new HitWallEvent(0);
+
+		Assert.assertFalse(queue.contains(event));
+		queue.add(event);
+		Assert.assertTrue(queue.contains(event));
+		Assert.assertFalse(queue.contains(new HitWallEvent(0)));
+		queue.poll();
+		Assert.assertFalse(queue.contains(event));
+	}
+
+	private static Event createEvent(Random random) {
+		Event event;
+		int type = random.nextInt(4);
+
+		switch (type) {
+		case 0:
+			event = new ScannedRobotEvent("robot", 100, 0, random.nextInt(10) * 50, 0, 0, false);
+			break;
+
+		case 1:
+			event = new HitWallEvent(0);
+			break;
+
+		case 2:
+			event = new StatusEvent(null);
+			break;
+
+		default:
+			event = new DeathEvent();
+			break;
+		}
+		// Events of different types never get the same priority, as ScannedRobotEvent.compareTo() does not give a
+		// consistent ordering together with other types of events with the same time and priority
+		if (!HiddenAccess.isCriticalEvent(event)) {
+			HiddenAccess.setEventPriority(event, random.nextInt(3) * 10 + type);
+		}
+		HiddenAccess.setEventTime(event, random.nextInt(10));
+		return event;
+	}
+
+	private static <T extends Event> List<T> filter(List<Event> events, Class<T> type) {
+		List<T> filtered = new ArrayList<T>();
+
+		for (Event event : events) {
+			if (type.isInstance(event)) {
+				filtered.add(type.cast(event));
+			}
+		}
+		return filtered;
+	}
+}
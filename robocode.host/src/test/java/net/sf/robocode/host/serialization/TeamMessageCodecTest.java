@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.host.serialization;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.geom.Point2D;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+public class TeamMessageCodecTest {
+
+	private final TeamMessageCodec codec = new TeamMessageCodec(1024);
+
+	@Test
+	public void compactMessagesAreDecodedToEqualMessages() throws Exception {
+		Serializable[] messages = {
+			null, "enemy", 42, 42L, 4.2, 4.2f, (short) 4, (byte) 2, 'x', true, new Point2D.Double(1.5, 2.5),
+			new Point2D.Float(1.5f, 2.5f)
+		};
+
+		for (Serializable message : messages) {
+			byte[] bytes = codec.encode(message);
+
+			Assert.assertFalse(bytes[0] == (byte) 0xAC);
+			Assert.assertEquals(message, decode(bytes));
+		}
+	}
+
+	@Test
+	public void arraysAreDecodedToEqualArrays() throws Exception {
+		Assert.assertTrue(Arrays.equals(new int[] { 1, -2, 3 }, (int[]) roundTrip(new int[] { 1, -2, 3 })));
+		Assert.assertTrue(Arrays.equals(new long[] { 1, -2 }, (long[]) roundTrip(new long[] { 1, -2 })));
+		Assert.assertTrue(Arrays.equals(new double[] { 1.5, Double.NaN }, (double[]) roundTrip(new double[] { 1.5, Double.NaN })));
+		Assert.assertTrue(Arrays.equals(new float[] { 1.5f }, (float[]) roundTrip(new float[] { 1.5f })));
+		Assert.assertTrue(Arrays.equals(new short[] { 1, -2 }, (short[]) roundTrip(new short[] { 1, -2 })));
+		Assert.assertTrue(Arrays.equals(new byte[] { 1, 2 }, (byte[]) roundTrip(new byte[] { 1, 2 })));
+		Assert.assertTrue(Arrays.equals(new char[] { 'a', 'b' }, (char[]) roundTrip(new char[] { 'a', 'b' })));
+		Assert.assertTrue(Arrays.equals(new boolean[] { true, false }, (boolean[]) roundTrip(new boolean[] { true, false })));
+		Assert.assertTrue(Arrays.equals(new double[0], (double[]) roundTrip(new double[0])));
+	}
+
+	@Test
+	public void otherMessagesAreSerialized() throws Exception {
+		List<String> list = new ArrayList<String>(Arrays.asList("a", "b"));
+		byte[] bytes = codec.encode((Serializable) list);
+
+		Assert.assertEquals((byte) 0xAC, bytes[0]);
+		Assert.assertEquals(list, decode(bytes));
+
+		// Strings too long to be written with writeUTF() are serialized too
+		char[] chars = new char[30000];
+
+		Arrays.fill(chars, '\u20ac');
+		String longString = new String(chars);
+
+		Assert.assertEquals(longString, decode(codec.encode(longString)));
+	}
+
+	@Test
+	public void compactMessagesAreNeverBiggerThanSerializedMessages() throws Exception {
+		char[] chars = new char[20000];
+
+		Arrays.fill(chars, '\u20ac');
+
+		Serializable[] messages = {
+			null, "enemy", new String(chars), 42, 42L, 4.2, 4.2f, (short) 4, (byte) 2, 'x', true, new int[1000],
+			new long[1000], new double[1000], new float[1000], new short[1000], new byte[1000], new char[1000],
+			new boolean[1000], new Point2D.Double(1.5, 2.5), new Point2D.Float(1.5f, 2.5f)
+		};
+
+		for (Serializable message : messages) {
+			Assert.assertTrue(codec.encode(message).length <= serialize(message).length);
+		}
+	}
+
+	@Test
+	public void serializedSizeIsSizeOfJavaSerializedMessage() throws Exception {
+		char[] chars = new char[20000];
+
+		Arrays.fill(chars, '\u20ac');
+
+		Serializable[] messages = {
+			null, "", "enemy", new String(chars), 42, 42L, 4.2, 4.2f, (short) 4, (byte) 2, 'x', true, new int[0],
+			new int[1000], new long[1000], new double[4094], new float[1000], new short[1000], new byte[1000],
+			new char[1000], new boolean[1000], new Point2D.Double(1.5, 2.5), new Point2D.Float(1.5f, 2.5f),
+			new ArrayList<String>(Arrays.asList("a", "b"))
+		};
+
+		for (Serializable message : messages) {
+			codec.encode(message);
+			Assert.assertEquals(serialize(message).length, codec.getSerializedSize());
+		}
+	}
+
+	@Test
+	public void onlyImmutableMessagesAreShared() {
+		Assert.assertTrue(TeamMessageCodec.isImmutable("enemy"));
+		Assert.assertTrue(TeamMessageCodec.isImmutable(42));
+		Assert.assertFalse(TeamMessageCodec.isImmutable(new int[1]));
+		Assert.assertFalse(TeamMessageCodec.isImmutable(new Point2D.Double()));
+	}
+
+	private Serializable roundTrip(Serializable message) throws Exception {
+		return decode(codec.encode(message));
+	}
+
+	private static byte[] serialize(Serializable message) throws Exception {
+		ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+		ObjectOutputStream objectStream = new ObjectOutputStream(byteStream);
+
+		objectStream.writeObject(message);
+		objectStream.flush();
+		return byteStream.toByteArray();
+	}
+
+	private static Serializable decode(byte[] bytes) throws Exception {
+		return TeamMessageCodec.decode(bytes, TeamMessageCodecTest.class.getClassLoader());
+	}
+}
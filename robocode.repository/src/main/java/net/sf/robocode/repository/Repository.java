@@ -106,7 +106,9 @@ class Repository implements IRepository {
 	/**
 	 * {@inheritDoc}
 	 */
-	public void addOrUpdateItem(IRepositoryItem repositoryItem) {
+	// Synchronized, as the items of the repository roots are updated in parallel, and the same robot might be found
+	// in more than one root
+	public synchronized void addOrUpdateItem(IRepositoryItem repositoryItem) {
 		Collection<String> friendlyUrls = repositoryItem.getFriendlyURLs();
 		if (friendlyUrls != null) {
 			// Add or update the item so it can be found using later using any friendly URL
@@ -158,7 +160,7 @@ class Repository implements IRepository {
 	/**
 	 * {@inheritDoc}
 	 */
-	public void removeItemsFromRoot(IRepositoryRoot root) {
+	public synchronized void removeItemsFromRoot(IRepositoryRoot root) {
 		Collection<Map.Entry<String, IRepositoryItem>> itemsToRemove = new ArrayList<Map.Entry<String, IRepositoryItem>>();
 
 		for (Map.Entry<String, IRepositoryItem> entry : repositoryItems.entrySet()) {
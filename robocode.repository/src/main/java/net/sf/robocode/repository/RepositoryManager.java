@@ -25,6 +25,8 @@ import net.sf.robocode.settings.ISettingsManager;
 import net.sf.robocode.ui.IWindowManager;
 import robocode.control.RobotSpecification;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -132,7 +134,7 @@ public class RepositoryManager implements IRepositoryManager { // NO_UCD (use de
 		FileOutputStream fos = null;
 		try {
 			fos = new FileOutputStream(new File(getRobotsDirectory(), DATABASE_FILENAME));
-			repository.save(fos);
+			repository.save(new BufferedOutputStream(fos, 64 * 1024));
 		} catch (IOException e) {
 			Logger.logError("Can't save robot database", e);
 		} finally {
@@ -148,7 +150,7 @@ public class RepositoryManager implements IRepositoryManager { // NO_UCD (use de
 			File file = new File(getRobotsDirectory(), DATABASE_FILENAME);
 			if (file.exists()) {
 				fis = new FileInputStream(file);
-				repository.load(fis);
+				repository.load(new BufferedInputStream(fis, 64 * 1024));
 			}
 		} catch (IOException e) {
 			Logger.logError("Can't load robot database", e);
@@ -20,12 +20,16 @@ import net.sf.robocode.repository.items.handlers.ItemHandler;
 
 import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.jar.JarEntry;
 import java.util.jar.JarInputStream;
@@ -43,7 +47,10 @@ public final class JarRoot extends BaseRoot implements IRepositoryRoot {
 	private final String jarPath; // without a separator ("/!")
 	private final URL jarUrl;
 
+	// Size, modification time and hash of the content of the JAR file, when it was read the last time
 	private long lastModified;
+	private long length;
+	private byte[] contentHash;
 
 	public JarRoot(IRepository repository, File rootPath) {
 		super(repository, rootPath);
@@ -66,10 +73,21 @@ public final class JarRoot extends BaseRoot implements IRepositoryRoot {
 		setStatus("Updating JAR: " + rootPath.toString());
 
 		long lastModified = rootPath.lastModified();
+		long length = rootPath.length();
 
-		if (lastModified > this.lastModified) {
+		if (lastModified != this.lastModified || length != this.length) {
+			// The JAR file is only read again if its content has changed, and not when it has only been touched,
+			// e.g. when the same robot has been downloaded again
+			byte[] contentHash = computeContentHash();
+
+			if (contentHash != null && Arrays.equals(contentHash, this.contentHash)) {
+				this.lastModified = lastModified;
+				return;
+			}
 			repository.removeItemsFromRoot(this);
 			this.lastModified = lastModified;
+			this.length = length;
+			this.contentHash = contentHash;
 
 			List<IRepositoryItem> repositoryItems = new ArrayList<IRepositoryItem>();
 
@@ -80,6 +98,29 @@ public final class JarRoot extends BaseRoot implements IRepositoryRoot {
 		}
 	}
 
+	private byte[] computeContentHash() {
+		InputStream is = null;
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("MD5");
+			byte[] buffer = new byte[64 * 1024];
+			int count;
+
+			is = new FileInputStream(rootPath);
+			while ((count = is.read(buffer)) != -1) {
+				digest.update(buffer, 0, count);
+			}
+			return digest.digest();
+		} catch (IOException e) {
+			Logger.logError(e);
+		} catch (NoSuchAlgorithmException e) {
+			Logger.logError(e);
+		} finally {
+			FileUtil.cleanupStream(is);
+		}
+		return null;
+	}
+
 	private void visitItems(List<IRepositoryItem> repositoryItems) {
 		String root = jarPath;
 		InputStream is = null;
@@ -156,7 +197,7 @@ public final class JarRoot extends BaseRoot implements IRepositoryRoot {
 	}
 
 	public boolean isChanged(IRepositoryItem repositoryItem) {
-		return rootPath.lastModified() > lastModified;
+		return rootPath.lastModified() != lastModified || rootPath.length() != length;
 	}
 
 	public URL getURL() {
@@ -17,14 +17,37 @@ import net.sf.robocode.io.URLJarCollector;
 import java.io.File;
 import java.io.FileFilter;
 import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 
 /**
+ * Root handler for robot jar files. The jar files are read in parallel, as reading and hashing the content of the
+ * jar files dominates the time it takes to refresh the repository, when there are many robots.
+ *
  * @author Pavel Savara (original)
  */
 public class JarHandler extends RootHandler {
-	public void visitDirectory(File dir, boolean isDevel, Map<String, IRepositoryRoot> newRoots, IRepository repository, boolean force) {
+
+	private static final int MAX_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "Repository Jar Reader");
+
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
+
+	public void visitDirectory(File dir, boolean isDevel, Map<String, IRepositoryRoot> newRoots, final IRepository repository, final boolean force) {
 		if (!isDevel) {
 			// find jar files
 			final File[] jars = dir.listFiles(new FileFilter() {
@@ -38,33 +61,72 @@ public class JarHandler extends RootHandler {
 				return; // Avoid NPE by returning
 			}
 
-			// update jar files
-			for (File jar : jars) {
-				String key;
+			final List<String> keys = new ArrayList<String>(jars.length);
+			final List<Future<IRepositoryRoot>> roots = new ArrayList<Future<IRepositoryRoot>>(jars.length);
 
-				try {
-					key = "jar:" + jar.toURI().toURL().toString() + "!/";
-				} catch (MalformedURLException e) {
-					e.printStackTrace();
-					continue;
-				}
-				IRepositoryRoot root = repository.getRoots().get(key);
-				if (root == null) {
-					root = new JarRoot(repository, jar);
-				} else {
-					repository.removeRoot(key);
-				}
+			final ExecutorService executor = Executors.newFixedThreadPool(Math.min(MAX_THREADS, Math.max(1, jars.length)),
+					THREAD_FACTORY);
 
-				root.updateItems(force);
-				newRoots.put(key, root);
+			try {
+				// update jar files
+				for (final File jar : jars) {
+					final String key;
 
-				try {
-					URLJarCollector.closeJarURLConnection(jar.toURI().toURL());
-				} catch (MalformedURLException e) {
-					Logger.logError(e);
+					try {
+						key = "jar:" + jar.toURI().toURL().toString() + "!/";
+					} catch (MalformedURLException e) {
+						e.printStackTrace();
+						continue;
+					}
+					// The roots of the repository are looked up and removed here, as they must not be accessed by
+					// the threads reading the jar files
+					final IRepositoryRoot root = getJarRoot(jar, key, repository);
+
+					keys.add(key);
+					roots.add(executor.submit(new Callable<IRepositoryRoot>() {
+						public IRepositoryRoot call() {
+							return updateJar(jar, root, force);
+						}
+					}));
 				}
-				URLJarCollector.gc();
+
+				// Collect the roots in the order of the jar files, so the result does not depend on the scheduling
+				for (int i = 0; i < roots.size(); i++) {
+					try {
+						newRoots.put(keys.get(i), roots.get(i).get());
+					} catch (ExecutionException e) {
+						Logger.logError("Can't read " + keys.get(i), e.getCause());
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+				}
+			} finally {
+				executor.shutdownNow();
 			}
+			// Only collect once all jar files have been read, as this closes the jar files of all connections
+			URLJarCollector.gc();
+		}
+	}
+
+	private static IRepositoryRoot getJarRoot(File jar, String key, IRepository repository) {
+		IRepositoryRoot root = repository.getRoots().get(key);
+		if (root == null) {
+			root = new JarRoot(repository, jar);
+		} else {
+			repository.removeRoot(key);
+		}
+		return root;
+	}
+
+	private static IRepositoryRoot updateJar(File jar, IRepositoryRoot root, boolean force) {
+		root.updateItems(force);
+
+		try {
+			URLJarCollector.closeJarURLConnection(jar.toURI().toURL());
+		} catch (MalformedURLException e) {
+			Logger.logError(e);
 		}
+		return root;
 	}
 }
@@ -17,12 +17,22 @@ import robocode.control.events.BattleErrorEvent;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
  * The BattlesRunner is running battles.
  * Reads a file with the battles to be runned and outputs the results in another file.
  * Controlled by properties files.
+ * <p/>
+ * The battles are either run one at a time, or several at a time as isolated battles within the same engine, when
+ * the BATTLETHREADS property is greater than 1. In both cases the results are written in the order of the battles
+ * file.
  *
  * @author Albert Prez (original)
  * @author Flemming N. Larsen (contributor)
@@ -35,9 +45,11 @@ public class BattlesRunner {
 	private final int fieldhei;
 	private final String outfile;
 	private final String user;
+	private final int battleThreads;
+	private final int retries;
 	private String game;
 	private static RobotResults[] lastResults;
-	private static IRobocodeEngine engine;
+	private static RobocodeEngine engine;
 
 	public BattlesRunner(String propertiesfile) {
 		// Read parameters
@@ -49,6 +61,8 @@ public class BattlesRunner {
 		fieldhei = Integer.parseInt(parameters.getProperty("FIELDH", "600"));
 		outfile = parameters.getProperty("OUTPUT", "");
 		user = parameters.getProperty("USER", "");
+		battleThreads = Math.max(1, Integer.parseInt(parameters.getProperty("BATTLETHREADS", "1")));
+		retries = Math.max(0, Integer.parseInt(parameters.getProperty("RETRIES", "1")));
 
 		game = propertiesfile;
 		while (game.indexOf("/") != -1) {
@@ -87,16 +101,14 @@ public class BattlesRunner {
 			return;
 		}
 
-		// run battle
-		int index = 0;
+		// load the robots of all battles
+		List<Pairing> pairings = new ArrayList<Pairing>();
 
-		while (index < robots.size()) {
+		for (int index = 0; index < robots.size(); index++) {
 			String[] param = (robots.get(index)).split(",");
 
 			String enemies = getEnemies(melee, param);
 
-			System.out.println("Fighting battle " + (index) + " ... " + enemies);
-
 			final RobotSpecification[] robotsList = engine.getLocalRepository(enemies);
 
 			if (robotsList.length > 1) {
@@ -107,22 +119,117 @@ public class BattlesRunner {
 					final BattleSpecification specification = new BattleSpecification(battle.getNumRounds(),
 							battle.getBattlefield(), robotsList);
 
-					lastResults = null;
-					engine.runBattle(specification, true);
-					if (lastResults != null && lastResults.length > 1) {
-						dumpResults(outtxt, lastResults, param[param.length - 1], melee);
-					}
+					pairings.add(new Pairing(index, enemies, param[param.length - 1], specification));
 				}
 			} else {
 				System.err.println("Skipping battle because can't load robots: " + enemies);
 			}
-			index++;
+		}
+
+		// run battles
+		if (battleThreads > 1) {
+			runBattlesParallel(pairings, outtxt, melee);
+		} else {
+			runBattlesSerial(pairings, outtxt, melee);
 		}
 
 		// close
 		outtxt.close();
 	}
 
+	private void runBattlesSerial(List<Pairing> pairings, PrintStream outtxt, boolean melee) {
+		final long startTime = System.currentTimeMillis();
+		int fought = 0;
+
+		for (Pairing pairing : pairings) {
+			System.out.println("Fighting battle " + pairing.index + " ... " + pairing.enemies);
+
+			RobotResults[] results = null;
+
+			for (int attempt = 0; attempt <= retries && results == null; attempt++) {
+				if (attempt > 0) {
+					System.out.println("Retrying battle " + pairing.index + " ... " + pairing.enemies);
+				}
+				lastResults = null;
+				engine.runBattle(pairing.specification, true);
+				results = lastResults;
+			}
+			if (results != null && results.length > 1) {
+				dumpResults(outtxt, results, pairing.last, melee);
+			}
+			printProgress(++fought, pairings.size(), startTime);
+		}
+	}
+
+	private void runBattlesParallel(final List<Pairing> pairings, PrintStream outtxt, boolean melee) {
+		final long startTime = System.currentTimeMillis();
+		final AtomicInteger fought = new AtomicInteger();
+
+		final ExecutorService executor = Executors.newFixedThreadPool(battleThreads);
+		final List<Future<RobotResults[]>> results = new ArrayList<Future<RobotResults[]>>(pairings.size());
+
+		try {
+			for (final Pairing pairing : pairings) {
+				results.add(executor.submit(new Callable<RobotResults[]>() {
+					public RobotResults[] call() {
+						System.out.println("Fighting battle " + pairing.index + " ... " + pairing.enemies);
+
+						RobotResults[] battleResults = runIsolatedBattle(pairing);
+
+						printProgress(fought.incrementAndGet(), pairings.size(), startTime);
+						return battleResults;
+					}
+				}));
+			}
+
+			// Results are written in the order of the battles file, as soon as all battles before them are done
+			for (int i = 0; i < pairings.size(); i++) {
+				RobotResults[] battleResults;
+
+				try {
+					battleResults = results.get(i).get();
+				} catch (ExecutionException e) {
+					Logger.logError(e.getCause());
+					continue;
+				}
+				if (battleResults != null && battleResults.length > 1) {
+					dumpResults(outtxt, battleResults, pairings.get(i).last, melee);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private RobotResults[] runIsolatedBattle(Pairing pairing) {
+		for (int attempt = 0; attempt <= retries; attempt++) {
+			if (attempt > 0) {
+				System.out.println("Retrying battle " + pairing.index + " ... " + pairing.enemies);
+			}
+			final IsolatedBattleObserver observer = new IsolatedBattleObserver();
+
+			try {
+				engine.runIsolatedBattle(pairing.specification, observer);
+			} catch (RuntimeException e) {
+				Logger.logError(e);
+			}
+			if (observer.results != null) {
+				return observer.results;
+			}
+		}
+		return null;
+	}
+
+	private static void printProgress(int fought, int total, long startTime) {
+		final long remainingSeconds = (System.currentTimeMillis() - startTime) * (total - fought) / fought / 1000;
+
+		System.out.println(
+				"Fought " + fought + " of " + total + " battles, estimated time left: " + (remainingSeconds / 3600)
+				+ "h " + (remainingSeconds / 60 % 60) + "m " + (remainingSeconds % 60) + "s");
+	}
+
 	private String getEnemies(boolean melee, String[] param) {
 		String enemies;
 
@@ -221,6 +328,20 @@ public class BattlesRunner {
 		}
 	}
 
+	private static class Pairing {
+		final int index;
+		final String enemies;
+		final String last;
+		final BattleSpecification specification;
+
+		Pairing(int index, String enemies, String last, BattleSpecification specification) {
+			this.index = index;
+			this.enemies = enemies;
+			this.last = last;
+			this.specification = specification;
+		}
+	}
+
 	class BattleObserver extends BattleAdaptor {
 		@Override
 		public void onBattleError(final BattleErrorEvent event) {
@@ -232,4 +353,19 @@ public class BattlesRunner {
 			lastResults = RobotResults.convertResults(event.getSortedResults());
 		}
 	}
+
+	// Isolated battles do not send events to the listeners of the engine, so each battle has its own observer
+	private static class IsolatedBattleObserver extends BattleAdaptor {
+		volatile RobotResults[] results;
+
+		@Override
+		public void onBattleError(final BattleErrorEvent event) {
+			Logger.realErr.println(event.getError());
+		}
+
+		@Override
+		public void onBattleCompleted(final BattleCompletedEvent event) {
+			results = RobotResults.convertResults(event.getSortedResults());
+		}
+	}
 }
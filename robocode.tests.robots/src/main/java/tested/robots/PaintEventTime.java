@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package tested.robots;
+
+
+import robocode.AdvancedRobot;
+import robocode.Event;
+import robocode.PaintEvent;
+import robocode.StatusEvent;
+
+import java.awt.Graphics2D;
+
+
+/**
+ * Checks that the paint events waiting on the event queue never have a time later than the current turn.
+ */
+public class PaintEventTime extends AdvancedRobot {
+
+	@Override
+	public void run() {
+		// noinspection InfiniteLoopStatement
+		for (;;) {
+			turnRadarRight(45);
+		}
+	}
+
+	@Override
+	public void onStatus(StatusEvent e) {
+		for (Event event : getAllEvents()) {
+			if (event instanceof PaintEvent && event.getTime() > e.getTime()) {
+				out.println("Wrong PaintEvent time " + event.getTime() + " in turn " + e.getTime());
+			}
+		}
+	}
+
+	@Override
+	public void onPaint(Graphics2D g) {
+		if (getRoundNum() > 0) {
+			out.println("Painted in round " + getRoundNum());
+		}
+	}
+}
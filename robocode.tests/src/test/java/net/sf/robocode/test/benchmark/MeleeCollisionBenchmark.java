@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.test.benchmark;
+
+
+import net.sf.robocode.io.Logger;
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+import robocode.control.BattleSpecification;
+import robocode.control.BattlefieldSpecification;
+import robocode.control.RobotSpecification;
+import robocode.control.events.BattleCompletedEvent;
+import robocode.control.events.BattleStartedEvent;
+import robocode.control.events.TurnEndedEvent;
+
+
+/**
+ * Measures the turns per second of a large melee battle, where the collision detection of the many bullets in
+ * flight dominates the battle loop.
+ * <p/>
+ * This is not a unit test and is not run by the build. Run it from the robocode.tests directory with the test
+ * classpath, optionally passing the number of robots, the battlefield size and the number of rounds.
+ */
+public class MeleeCollisionBenchmark extends RobocodeTestBed {
+
+	private static final String[] SAMPLE_ROBOTS = {
+		"sample.Fire", "sample.SpinBot", "sample.Walls", "sample.RamFire", "sample.Crazy", "sample.Tracker"
+	};
+
+	private final int robotsCount;
+	private final int battlefieldSize;
+	private final int rounds;
+
+	private long turns;
+	private long startTime;
+	private long elapsedTime;
+
+	public MeleeCollisionBenchmark(int robotsCount, int battlefieldSize, int rounds) {
+		this.robotsCount = robotsCount;
+		this.battlefieldSize = battlefieldSize;
+		this.rounds = rounds;
+	}
+
+	public static void main(String[] args) {
+		int robotsCount = (args.length > 0) ? Integer.parseInt(args[0]) : 30;
+		int battlefieldSize = (args.length > 1) ? Integer.parseInt(args[1]) : 5000;
+		int rounds = (args.length > 2) ? Integer.parseInt(args[2]) : 3;
+
+		isDumpingOutput = false;
+		isDumpingMessages = false;
+
+		MeleeCollisionBenchmark benchmark = new MeleeCollisionBenchmark(robotsCount, battlefieldSize, rounds);
+
+		// The first battle warms up the JIT compiler
+		benchmark.runBattle();
+		benchmark.runBattle();
+
+		Logger.realOut.println(benchmark.robotsCount + " robots on " + benchmark.battlefieldSize + "x"
+				+ benchmark.battlefieldSize + ": " + benchmark.turns + " turns in " + benchmark.elapsedTime / 1000000
+				+ " ms, " + (benchmark.turns * 1000000000L / Math.max(benchmark.elapsedTime, 1)) + " TPS");
+
+		engine.close();
+		System.exit(0);
+	}
+
+	private void runBattle() {
+		final RobotSpecification[] robots = engine.getLocalRepository(getRobotNames());
+		final BattlefieldSpecification battlefield = new BattlefieldSpecification(battlefieldSize, battlefieldSize);
+
+		engine.addBattleListener(this);
+		try {
+			engine.runBattle(new BattleSpecification(rounds, battlefield, robots), true);
+		} finally {
+			engine.removeBattleListener(this);
+		}
+	}
+
+	@Override
+	public String getRobotNames() {
+		StringBuilder names = new StringBuilder();
+
+		for (int i = 0; i < robotsCount; i++) {
+			if (i > 0) {
+				names.append(',');
+			}
+			names.append(SAMPLE_ROBOTS[i % SAMPLE_ROBOTS.length]);
+		}
+		return names.toString();
+	}
+
+	@Override
+	public void onBattleStarted(BattleStartedEvent event) {
+		turns = 0;
+		startTime = System.nanoTime();
+	}
+
+	@Override
+	public void onTurnEnded(TurnEndedEvent event) {
+		turns++;
+	}
+
+	@Override
+	public void onBattleCompleted(BattleCompletedEvent event) {
+		elapsedTime = System.nanoTime() - startTime;
+	}
+}
@@ -19,6 +19,8 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
 
 
 /**
@@ -81,4 +83,30 @@ public class RobotClassLoaderTest {
 
 		cl.loadClass("robocode.control.RobocodeEngine");
 	}
+
+	@Test
+	public void robotCachedBetweenLoaders() throws ClassNotFoundException {
+		RobotClassLoader cl1 = new RobotClassLoader(classPath, goodRobot);
+		final Class<?> c1 = cl1.loadRobotMainClass(true);
+
+		RobotClassLoader cl2 = new RobotClassLoader(classPath, goodRobot);
+		final Class<?> c2 = cl2.loadRobotMainClass(true);
+
+		// The class bytes may be shared, but never the classes themselves
+		Assert.assertNotSame(c1, c2);
+		Assert.assertEquals(cl2, c2.getClassLoader());
+		Assert.assertEquals(new HashSet<String>(Arrays.asList(cl1.getReferencedClasses())),
+				new HashSet<String>(Arrays.asList(cl2.getReferencedClasses())));
+	}
+
+	@Test(expected = ClassNotFoundException.class)
+	public void robotBlockedBadWhenCached() throws ClassNotFoundException {
+		try {
+			new RobotClassLoader(classPath, badRobot).loadRobotMainClass(true);
+		} catch (ClassNotFoundException ignore) {}
+
+		RobotClassLoader cl = new RobotClassLoader(classPath, badRobot);
+
+		cl.loadRobotMainClass(true);
+	}
 }
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+import org.junit.Assert;
+import org.junit.Test;
+import robocode.control.BattleSpecification;
+import robocode.control.BattlefieldSpecification;
+import robocode.control.RobocodeEngine;
+import robocode.control.RobotSpecification;
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.BattleCompletedEvent;
+import robocode.control.events.TurnEndedEvent;
+import robocode.control.snapshot.IRobotSnapshot;
+
+
+/**
+ * Runs short isolated battles in a row, so the next battle is still being prepared when the current one ends.
+ * The robots of every battle must be loaded, even though a battle ended while their classes were being loaded.
+ */
+public class TestIsolatedBattlePreparation extends RobocodeTestBed {
+
+	private static final int BATTLES_COUNT = 6;
+
+	@Test
+	public void run() {
+		final RobotSpecification[] robots = engine.getLocalRepository(getRobotNames());
+
+		Assert.assertEquals(2, robots.length);
+
+		final BattleSpecification[] specs = new BattleSpecification[BATTLES_COUNT];
+
+		for (int i = 0; i < BATTLES_COUNT; i++) {
+			specs[i] = new BattleSpecification(getNumRounds(), 100, 0.1, new BattlefieldSpecification(400, 400), robots);
+		}
+
+		final LoadChecker checker = new LoadChecker();
+
+		((RobocodeEngine) engine).runIsolatedBattles(specs, checker);
+
+		Assert.assertEquals(BATTLES_COUNT, checker.completed);
+		Assert.assertFalse("Robot was not loaded:\n" + checker.notLoadedOutput, checker.notLoaded);
+	}
+
+	@Override
+	public String getRobotNames() {
+		return "sample.Fire,sample.SittingDuck";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return 1;
+	}
+
+	private static class LoadChecker extends BattleAdaptor {
+		volatile int completed;
+		volatile boolean notLoaded;
+		volatile String notLoadedOutput;
+
+		@Override
+		public void onTurnEnded(TurnEndedEvent event) {
+			for (IRobotSnapshot robot : event.getTurnSnapshot().getRobots()) {
+				final String output = robot.getOutputStreamSnapshot();
+
+				if (output != null && (output.contains("SYSTEM: Could not load") || output.contains("SYSTEM: Skipping robot"))) {
+					notLoaded = true;
+					notLoadedOutput = output;
+				}
+			}
+		}
+
+		@Override
+		public void onBattleCompleted(BattleCompletedEvent event) {
+			if (event.getIndexedResults().length == 2) {
+				completed++;
+			}
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+import org.junit.Assert;
+import org.junit.Test;
+import robocode.control.BattleSpecification;
+import robocode.control.RobocodeEngine;
+import robocode.control.RobotSpecification;
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.BattleCompletedEvent;
+import robocode.control.events.BattleFinishedEvent;
+import robocode.control.events.BattleStartedEvent;
+
+
+/**
+ * Runs several isolated battles in a row, where each battle is prepared while the previous one is running.
+ */
+public class TestIsolatedBattleQueue extends RobocodeTestBed {
+
+	private static final int BATTLES_COUNT = 3;
+
+	@Test
+	public void run() {
+		final RobotSpecification[] robots = engine.getLocalRepository(getRobotNames());
+
+		Assert.assertEquals(2, robots.length);
+
+		final BattleSpecification[] specs = new BattleSpecification[BATTLES_COUNT];
+
+		for (int i = 0; i < BATTLES_COUNT; i++) {
+			specs[i] = new BattleSpecification(getNumRounds(), battleFieldSpec, robots);
+		}
+
+		final BattleCounter counter = new BattleCounter();
+
+		((RobocodeEngine) engine).runIsolatedBattles(specs, counter);
+
+		Assert.assertEquals(BATTLES_COUNT, counter.started);
+		Assert.assertEquals(BATTLES_COUNT, counter.finished);
+		Assert.assertEquals(BATTLES_COUNT, counter.completed);
+		Assert.assertFalse("Battles overlapped", counter.overlapped);
+	}
+
+	@Override
+	public String getRobotNames() {
+		return "sample.Fire,sample.Crazy";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return 2;
+	}
+
+	private static class BattleCounter extends BattleAdaptor {
+		volatile int started;
+		volatile int finished;
+		volatile int completed;
+		volatile boolean overlapped;
+
+		@Override
+		public void onBattleStarted(BattleStartedEvent event) {
+			if (started != finished) {
+				overlapped = true;
+			}
+			started++;
+		}
+
+		@Override
+		public void onBattleFinished(BattleFinishedEvent event) {
+			finished++;
+		}
+
+		@Override
+		public void onBattleCompleted(BattleCompletedEvent event) {
+			if (event.getIndexedResults().length == 2) {
+				completed++;
+			}
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+import org.junit.Assert;
+import org.junit.Test;
+import robocode.control.BattleSpecification;
+import robocode.control.RobocodeEngine;
+import robocode.control.RobotSpecification;
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.BattleCompletedEvent;
+import robocode.control.events.TurnEndedEvent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Runs several isolated battles concurrently within the same engine.
+ */
+public class TestIsolatedBattles extends RobocodeTestBed {
+
+	private static final int BATTLES_COUNT = 4;
+
+	private final AtomicInteger sharedListenerTurns = new AtomicInteger();
+
+	@Test
+	public void run() {
+		final RobotSpecification[] robots = engine.getLocalRepository(getRobotNames());
+
+		Assert.assertEquals(2, robots.length);
+
+		final BattleCounter[] counters = new BattleCounter[BATTLES_COUNT];
+		final Thread[] threads = new Thread[BATTLES_COUNT];
+
+		for (int i = 0; i < BATTLES_COUNT; i++) {
+			final BattleCounter counter = new BattleCounter();
+
+			counters[i] = counter;
+			threads[i] = new Thread(new Runnable() {
+				public void run() {
+					((RobocodeEngine) engine).runIsolatedBattle(
+							new BattleSpecification(getNumRounds(), battleFieldSpec, robots), counter);
+				}
+			}, "Isolated battle runner " + i);
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				Assert.fail("Interrupted");
+			}
+		}
+
+		for (BattleCounter counter : counters) {
+			Assert.assertEquals(1, counter.completed);
+			Assert.assertEquals(2, counter.resultsCount);
+			Assert.assertTrue(counter.turns > 0);
+		}
+		// Listeners added to the engine must not receive events from isolated battles
+		Assert.assertEquals(0, sharedListenerTurns.get());
+	}
+
+	@Override
+	public String getRobotNames() {
+		return "sample.Fire,sample.Crazy";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return 3;
+	}
+
+	@Override
+	public void onTurnEnded(TurnEndedEvent event) {
+		sharedListenerTurns.incrementAndGet();
+	}
+
+	private static class BattleCounter extends BattleAdaptor {
+		volatile int turns;
+		volatile int completed;
+		volatile int resultsCount;
+
+		@Override
+		public void onTurnEnded(TurnEndedEvent event) {
+			turns++;
+		}
+
+		@Override
+		public void onBattleCompleted(BattleCompletedEvent event) {
+			completed++;
+			resultsCount = event.getIndexedResults().length;
+		}
+	}
+}
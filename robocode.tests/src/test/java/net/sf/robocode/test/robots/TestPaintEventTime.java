@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2001-2017 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://robocode.sourceforge.net/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.battle.IBattleManager;
+import net.sf.robocode.core.ContainerBase;
+import net.sf.robocode.test.helpers.Assert;
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+import org.junit.Test;
+import robocode.control.events.BattleStartedEvent;
+import robocode.control.events.TurnEndedEvent;
+
+
+/**
+ * Checks that the paint event, which is reused turn after turn, gets the time of the current round.
+ */
+public class TestPaintEventTime extends RobocodeTestBed {
+	boolean painted;
+	boolean wrongTime;
+
+	@Test
+	public void run() {
+		super.run();
+	}
+
+	@Override
+	public void onBattleStarted(BattleStartedEvent event) {
+		super.onBattleStarted(event);
+		ContainerBase.getComponent(IBattleManager.class).setPaintEnabled(1, true);
+	}
+
+	@Override
+	public void onTurnEnded(TurnEndedEvent event) {
+		super.onTurnEnded(event);
+		final String out = event.getTurnSnapshot().getRobots()[1].getOutputStreamSnapshot();
+
+		if (out.contains("Painted in round")) {
+			painted = true;
+		}
+		if (out.contains("Wrong PaintEvent time")) {
+			wrongTime = true;
+		}
+	}
+
+	@Override
+	public String getRobotNames() {
+		return "sample.Fire,tested.robots.PaintEventTime";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return 3;
+	}
+
+	@Override
+	protected void runTeardown() {
+		Assert.assertTrue(painted);
+		Assert.assertFalse(wrongTime);
+	}
+}
@@ -34,6 +34,7 @@ import java.awt.event.ComponentEvent;
 import java.awt.geom.*;
 import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 import static java.lang.Math.*;
 import java.util.Random;
 
@@ -50,7 +51,12 @@ public class BattleView extends Canvas {
 
 	private final static Color CANVAS_BG_COLOR = SystemColor.controlDkShadow;
 
-	private final static Area BULLET_AREA = new Area(new Ellipse2D.Double(-0.5, -0.5, 1, 1));
+	private final static Color SENTRY_BORDER_COLOR = new Color(0xff, 0x00, 0x00, 0x80);
+
+	private final static Composite SCAN_ARC_COMPOSITE = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.2f);
+
+	// Must never be modified, as it is shared by all views
+	private final static AffineTransform IDENTITY = new AffineTransform();
 
 	private final static int ROBOT_TEXT_Y_OFFSET = 24;
 
@@ -68,6 +74,7 @@ public class BattleView extends Canvas {
 	private final int groundTileWidth = 64;
 	private final int groundTileHeight = 64;
 
+	// The pre-rendered ground, which is a VolatileImage when the view is displayable, so it can be kept in video memory
 	private Image groundImage;
 
 	// Draw option related things
@@ -97,8 +104,14 @@ public class BattleView extends Canvas {
 	private static final MirroredGraphics mirroredGraphics = new MirroredGraphics();
 
 	private final GraphicsState graphicsState = new GraphicsState();
+	private final GraphicsState robotPaintState = new GraphicsState();
 	private IGraphicsProxy[] robotGraphics;
 
+	// Reused for every frame instead of creating new transforms and shapes for every robot and bullet
+	private final AffineTransform battleFieldTransform = new AffineTransform();
+	private final AffineTransform objectTransform = new AffineTransform();
+	private final Ellipse2D.Double bulletShape = new Ellipse2D.Double();
+
 	public BattleView(ISettingsManager properties, IWindowManager windowManager, IImageManager imageManager) {
 		this.properties = properties;
 		this.windowManager = (IWindowManagerExt) windowManager;
@@ -253,27 +266,55 @@ public class BattleView extends Canvas {
 			}
 		}
 
-		// Create new buffered image with the ground pre-rendered
+		// Create new image with the ground pre-rendered
 
 		int groundWidth = (int) (battleField.getWidth() * scale);
 		int groundHeight = (int) (battleField.getHeight() * scale);
 
-		groundImage = new BufferedImage(groundWidth, groundHeight, BufferedImage.TYPE_INT_RGB);
+		final GraphicsConfiguration gc = getGraphicsConfiguration();
 
+		if (gc != null) {
+			groundImage = gc.createCompatibleVolatileImage(groundWidth, groundHeight);
+		} else {
+			groundImage = new BufferedImage(groundWidth, groundHeight, BufferedImage.TYPE_INT_RGB);
+		}
+		renderGroundImage();
+	}
+
+	private void renderGroundImage() {
 		Graphics2D groundGfx = (Graphics2D) groundImage.getGraphics();
 
-		groundGfx.setRenderingHints(renderingHints);
+		try {
+			groundGfx.setRenderingHints(renderingHints);
 
-		groundGfx.setTransform(AffineTransform.getScaleInstance(scale, scale));
+			groundGfx.setTransform(AffineTransform.getScaleInstance(scale, scale));
 
-		for (int y = NUM_VERT_TILES - 1; y >= 0; y--) {
-			for (int x = NUM_HORZ_TILES - 1; x >= 0; x--) {
-				Image img = imageManager.getGroundTileImage(groundTiles[y][x]);
+			for (int y = groundTiles.length - 1; y >= 0; y--) {
+				for (int x = groundTiles[y].length - 1; x >= 0; x--) {
+					Image img = imageManager.getGroundTileImage(groundTiles[y][x]);
 
-				if (img != null) {
-					groundGfx.drawImage(img, x * groundTileWidth, y * groundTileHeight, null);
+					if (img != null) {
+						groundGfx.drawImage(img, x * groundTileWidth, y * groundTileHeight, null);
+					}
 				}
 			}
+		} finally {
+			groundGfx.dispose();
+		}
+	}
+
+	// Makes sure the ground image can be drawn, as the contents of a volatile image can be lost at any time
+	private void validateGroundImage() {
+		if (groundImage instanceof VolatileImage) {
+			switch (((VolatileImage) groundImage).validate(getGraphicsConfiguration())) {
+			case VolatileImage.IMAGE_RESTORED:
+				renderGroundImage();
+				break;
+
+			case VolatileImage.IMAGE_INCOMPATIBLE:
+				createGroundImage();
+				break;
+			}
 		}
 	}
 
@@ -282,7 +323,7 @@ public class BattleView extends Canvas {
 		graphicsState.save(g);
 
 		// Reset transform
-		g.setTransform(new AffineTransform());
+		g.setTransform(IDENTITY);
 
 		// Reset clip
 		g.setClip(null);
@@ -296,10 +337,9 @@ public class BattleView extends Canvas {
 		double dy = (getHeight() - scale * battleField.getHeight()) / 2;
 
 		// Scale and translate the graphics
-		AffineTransform at = AffineTransform.getTranslateInstance(dx, dy);
-
-		at.concatenate(AffineTransform.getScaleInstance(scale, scale));
-		g.setTransform(at);
+		battleFieldTransform.setToTranslation(dx, dy);
+		battleFieldTransform.scale(scale, scale);
+		g.setTransform(battleFieldTransform);
 
 		// Set the clip rectangle
 		g.setClip(0, 0, battleField.getWidth(), battleField.getHeight());
@@ -349,8 +389,11 @@ public class BattleView extends Canvas {
 
 				final AffineTransform savedTx = g.getTransform();
 
-				g.setTransform(new AffineTransform());
-				g.drawImage(groundImage, dx, dy, groundWidth, groundHeight, null);
+				g.setTransform(IDENTITY);
+				do {
+					validateGroundImage();
+					g.drawImage(groundImage, dx, dy, groundWidth, groundHeight, null);
+				} while (groundImage instanceof VolatileImage && ((VolatileImage) groundImage).contentsLost());
 
 				g.setTransform(savedTx);
 			}
@@ -369,7 +412,7 @@ public class BattleView extends Canvas {
 	private void drawSentryBorder(Graphics2D g) {
 		int borderSentrySize = battleRules.getSentryBorderSize();
 		
-		g.setColor(new Color(0xff, 0x00, 0x00, 0x80));
+		g.setColor(SENTRY_BORDER_COLOR);
 		g.fillRect(0, 0, borderSentrySize, battleField.getHeight());
 		g.fillRect(battleField.getWidth() - borderSentrySize, 0, borderSentrySize, battleField.getHeight());
 		g.fillRect(borderSentrySize, 0, battleField.getWidth() - 2 * borderSentrySize, borderSentrySize);
@@ -400,7 +443,7 @@ public class BattleView extends Canvas {
 
 	private void drawRobots(Graphics2D g, ITurnSnapshot snapShot) {
 		double x, y;
-		AffineTransform at;
+		final AffineTransform at = objectTransform;
 		int battleFieldHeight = battleField.getHeight();
 
 		if (drawGround && drawExplosionDebris) {
@@ -411,7 +454,7 @@ public class BattleView extends Canvas {
 					x = robotSnapshot.getX();
 					y = battleFieldHeight - robotSnapshot.getY();
 
-					at = AffineTransform.getTranslateInstance(x, y);
+					at.setToTranslation(x, y);
 
 					explodeDebrise.setTransform(at);
 					explodeDebrise.paint(g);
@@ -424,7 +467,7 @@ public class BattleView extends Canvas {
 				x = robotSnapshot.getX();
 				y = battleFieldHeight - robotSnapshot.getY();
 
-				at = AffineTransform.getTranslateInstance(x, y);
+				at.setToTranslation(x, y);
 				at.rotate(robotSnapshot.getBodyHeading());
 
 				RenderImage robotRenderImage = imageManager.getColoredBodyRenderImage(robotSnapshot.getBodyColor());
@@ -432,7 +475,7 @@ public class BattleView extends Canvas {
 				robotRenderImage.setTransform(at);
 				robotRenderImage.paint(g);
 
-				at = AffineTransform.getTranslateInstance(x, y);
+				at.setToTranslation(x, y);
 				at.rotate(robotSnapshot.getGunHeading());
 
 				RenderImage gunRenderImage = imageManager.getColoredGunRenderImage(robotSnapshot.getGunColor());
@@ -441,7 +484,7 @@ public class BattleView extends Canvas {
 				gunRenderImage.paint(g);
 
 				if (!robotSnapshot.isDroid()) {
-					at = AffineTransform.getTranslateInstance(x, y);
+					at.setToTranslation(x, y);
 					at.rotate(robotSnapshot.getRadarHeading());
 
 					RenderImage radarRenderImage = imageManager.getColoredRadarRenderImage(robotSnapshot.getRadarColor());
@@ -503,7 +546,7 @@ public class BattleView extends Canvas {
 			}
 
 			// Save the graphics state
-			GraphicsState gfxState = new GraphicsState();
+			final GraphicsState gfxState = robotPaintState;
 
 			gfxState.save(g);
 
@@ -540,38 +583,48 @@ public class BattleView extends Canvas {
 
 		g.setClip(null);
 
-		double x, y;
+		final IBulletSnapshot[] bullets = snapShot.getBullets();
+		final boolean forceBulletColor = properties.getOptionsRenderingForceBulletColor();
 
-		for (IBulletSnapshot bulletSnapshot : snapShot.getBullets()) {
-			x = bulletSnapshot.getPaintX();
-			y = battleField.getHeight() - bulletSnapshot.getPaintY();
+		// Active bullets are drawn first, where the color is only changed when the next bullet has another color
+		int bulletColor = 0;
+		boolean isColorSet = false;
 
-			AffineTransform at = AffineTransform.getTranslateInstance(x, y);
+		for (IBulletSnapshot bulletSnapshot : bullets) {
+			if (!bulletSnapshot.getState().isActive()) {
+				continue;
+			}
+			int color = forceBulletColor ? Color.WHITE.getRGB() : bulletSnapshot.getColor();
 
-			if (bulletSnapshot.getState().isActive()) {
+			if (!isColorSet || color != bulletColor) {
+				g.setColor(forceBulletColor ? Color.WHITE : new Color(color));
+				bulletColor = color;
+				isColorSet = true;
+			}
 
-				// radius = sqrt(x^2 / 0.1 * power), where x is the width of 1 pixel for a minimum 0.1 bullet
-				double scale = max(2 * sqrt(2.5 * bulletSnapshot.getPower()), 2 / this.scale);
+			// radius = sqrt(x^2 / 0.1 * power), where x is the width of 1 pixel for a minimum 0.1 bullet
+			double size = max(2 * sqrt(2.5 * bulletSnapshot.getPower()), 2 / this.scale);
 
-				at.scale(scale, scale);
-				Area bulletArea = BULLET_AREA.createTransformedArea(at);
+			bulletShape.setFrame(bulletSnapshot.getPaintX() - size / 2,
+					battleField.getHeight() - bulletSnapshot.getPaintY() - size / 2, size, size);
+			g.fill(bulletShape);
+		}
 
-				Color bulletColor;
+		// Then the explosions
+		if (drawExplosions) {
+			final AffineTransform at = objectTransform;
 
-				if (properties.getOptionsRenderingForceBulletColor()) {
-					bulletColor = Color.WHITE;
-				} else {
-					bulletColor = new Color(bulletSnapshot.getColor());
+			for (IBulletSnapshot bulletSnapshot : bullets) {
+				if (bulletSnapshot.getState().isActive()) {
+					continue;
 				}
-				g.setColor(bulletColor);
-				g.fill(bulletArea);
-
-			} else if (drawExplosions) {
 				int explosionIndex = bulletSnapshot.getExplosionImageIndex();
 				int frame = bulletSnapshot.getFrame();
 
 				// Sanity check to avoid bug-354 - Replaying an XML record can cause an ArrayIndexOutOfBoundsException
 				if (explosionIndex >= 0 && frame >= 0) {
+					at.setToTranslation(bulletSnapshot.getPaintX(), battleField.getHeight() - bulletSnapshot.getPaintY());
+
 					if (!bulletSnapshot.isExplosion()) {
 						double scale = sqrt(1000 * bulletSnapshot.getPower()) / 128;
 						at.scale(scale, scale);
@@ -625,7 +678,7 @@ public class BattleView extends Canvas {
 
 		final Composite savedComposite = g.getComposite();
 
-		g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.2f));
+		g.setComposite(SCAN_ARC_COMPOSITE);
 
 		scanArc.setAngleStart((360 - scanArc.getAngleStart() - scanArc.getAngleExtent()) % 360);
 		scanArc.y = battleField.getHeight() - robotSnapshot.getY() - robocode.Rules.RADAR_SCAN_RADIUS;
@@ -656,7 +709,7 @@ public class BattleView extends Canvas {
 		Font font = new Font("Dialog", Font.BOLD, 14);
 		int width = g.getFontMetrics(font).stringWidth(ROBOCODE_SLOGAN);
 
-		g.setTransform(new AffineTransform());
+		g.setTransform(IDENTITY);
 		g.setFont(font);
 		g.setColor(new Color(0, 0x50, 0));
 		g.drawString(ROBOCODE_SLOGAN, (float) ((getWidth() - width) / 2.0), (float) (getHeight() / 2.0 + 50));